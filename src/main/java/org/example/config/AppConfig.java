@@ -5,7 +5,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
-import org.springframework.oxm.Unmarshaller;
 import org.springframework.oxm.xstream.XStreamMarshaller;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import org.thymeleaf.spring5.SpringTemplateEngine;
@@ -43,7 +42,7 @@ public class AppConfig extends WebMvcConfigurationSupport {
 	}
 
 	@Bean
-	public Unmarshaller unmarshaller(){
+	public XStreamMarshaller unmarshaller(){
 		var unmarshaller = new XStreamMarshaller();
 		unmarshaller.getXStream().addPermission(AnyTypePermission.ANY);
 		return unmarshaller;
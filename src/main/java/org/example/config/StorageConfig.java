@@ -0,0 +1,50 @@
+package org.example.config;
+
+import org.example.model.Ticket;
+import org.example.repository.ColumnarTicketStorage;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.MappedTicketStorage;
+import org.example.repository.OffHeapTicketStorage;
+import org.example.repository.TicketInMemoryStorage;
+import org.example.repository.TicketStorageMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration of entity storages.
+ */
+@Configuration
+public class StorageConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(StorageConfig.class);
+
+	/**
+	 * Creates the ticket storage with the configured layout.
+	 * @param mode Ticket storage mode
+	 * @param file Ticket file used by the mapped storage
+	 * @return Ticket storage
+	 * @throws IOException if the ticket file can't be opened
+	 */
+	@Bean
+	public InMemoryStorage<Ticket> ticketStorage(@Value("${tickets.storage:HEAP}") TicketStorageMode mode,
+												 @Value("${tickets.storage.file:data/tickets.dat}") String file) throws IOException {
+		logger.info("Using {} ticket storage.", mode);
+		switch (mode) {
+			case COLUMNAR:
+				return new ColumnarTicketStorage();
+			case OFF_HEAP:
+				return new OffHeapTicketStorage();
+			case MAPPED:
+				return new MappedTicketStorage(Path.of(file));
+			case HEAP:
+			default:
+				return new TicketInMemoryStorage();
+		}
+	}
+}
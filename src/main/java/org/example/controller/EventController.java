@@ -77,6 +77,44 @@ public class EventController {
 		return EVENT_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of events by title following the cursor, and adds it with the cursor of the next page to model data.
+	 * Used when no page number is requested.
+	 *
+	 * @param title Event title.
+	 * @param cursor Cursor of the next page, absent for the first page.
+	 * @param pageSize Number of event entries per page.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byTitle", params = "!pageNum")
+	public String getEventsByTitlePage(@RequestParam("title") String title,
+									   @RequestParam(value = "cursor", required = false) String cursor,
+									   @RequestParam("pageSize") int pageSize,
+									   ModelMap model) {
+		var page = facade.getEventsByTitle(title, cursor, pageSize);
+		model.addAttribute("eventsByTitle", page.getItems());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		return EVENT_VIEW_NAME;
+	}
+
+	/**
+	 * Gets the events with titles starting with the prefix and adds them to model data.
+	 *
+	 * @param prefix Title prefix.
+	 * @param limit Maximal number of suggested events.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping("/suggest")
+	public String suggestEvents(@RequestParam("prefix") String prefix,
+								@RequestParam(value = "limit", defaultValue = "10") int limit,
+								ModelMap model) {
+		var events = facade.suggestEvents(prefix, limit);
+		model.addAttribute("eventSuggestions", events);
+		return EVENT_VIEW_NAME;
+	}
+
 	/**
 	 * Gets a list of events by date and adds it to model data.
 	 *
@@ -96,6 +134,71 @@ public class EventController {
 		return EVENT_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of events by date following the cursor, and adds it with the cursor of the next page to model data.
+	 * Used when no page number is requested.
+	 *
+	 * @param date Event date.
+	 * @param cursor Cursor of the next page, absent for the first page.
+	 * @param pageSize Number of event entries per page.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byDate", params = "!pageNum")
+	public String getEventsByDatePage(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+									  @RequestParam(value = "cursor", required = false) String cursor,
+									  @RequestParam("pageSize") int pageSize,
+									  ModelMap model) {
+		var page = facade.getEventsForDay(date, cursor, pageSize);
+		model.addAttribute("eventsByDate", page.getItems());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		return EVENT_VIEW_NAME;
+	}
+
+	/**
+	 * Gets a list of events between the dates, inclusive, and adds it to model data.
+	 *
+	 * @param from First event date.
+	 * @param to Last event date.
+	 * @param pageSize Number of event entries per page.
+	 * @param pageNum Number of page to display.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping("/between")
+	public String getEventsBetween(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+								   @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+								   @RequestParam("pageSize") int pageSize,
+								   @RequestParam("pageNum") int pageNum,
+								   ModelMap model) {
+		var events = facade.getEventsBetween(from, to, pageSize, pageNum);
+		model.addAttribute("eventsBetween", events);
+		return EVENT_VIEW_NAME;
+	}
+
+	/**
+	 * Gets a page of events between the dates, inclusive, following the cursor, and adds it with the cursor of the next page to model data.
+	 * Used when no page number is requested.
+	 *
+	 * @param from First event date.
+	 * @param to Last event date.
+	 * @param cursor Cursor of the next page, absent for the first page.
+	 * @param pageSize Number of event entries per page.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/between", params = "!pageNum")
+	public String getEventsBetweenPage(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+									   @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+									   @RequestParam(value = "cursor", required = false) String cursor,
+									   @RequestParam("pageSize") int pageSize,
+									   ModelMap model) {
+		var page = facade.getEventsBetween(from, to, cursor, pageSize);
+		model.addAttribute("eventsBetween", page.getItems());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		return EVENT_VIEW_NAME;
+	}
+
 	/**
 	 * Updates an event by event id and adds the updated object to model data.
 	 *
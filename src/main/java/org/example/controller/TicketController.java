@@ -75,6 +75,27 @@ public class TicketController {
 		return TICKET_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of tickets by user following the cursor, and adds it with the cursor of the next page to model data.
+	 * Used when no page number is requested.
+	 *
+	 * @param userId User id.
+	 * @param cursor Cursor of the next page, absent for the first page.
+	 * @param pageSize Number of ticket entries per page.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byUser", params = "!pageNum")
+	public String getTicketsByUserPage(@RequestParam("userId") long userId,
+									   @RequestParam(value = "cursor", required = false) String cursor,
+									   @RequestParam("pageSize") int pageSize,
+									   ModelMap model) {
+		var page = facade.getBookedTickets(new User(userId, null, null), cursor, pageSize);
+		model.addAttribute("ticketsByUser", page.getItems());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		return TICKET_VIEW_NAME;
+	}
+
 	/**
 	 * Gets a list of tickets by user.
 	 *
@@ -118,6 +139,27 @@ public class TicketController {
 		return TICKET_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of tickets by event following the cursor, and adds it with the cursor of the next page to model data.
+	 * Used when no page number is requested.
+	 *
+	 * @param eventId Event id.
+	 * @param cursor Cursor of the next page, absent for the first page.
+	 * @param pageSize Number of ticket entries per page.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byEvent", params = "!pageNum")
+	public String getTicketsByEventPage(@RequestParam("eventId") long eventId,
+										@RequestParam(value = "cursor", required = false) String cursor,
+										@RequestParam("pageSize") int pageSize,
+										ModelMap model) {
+		var page = facade.getBookedTickets(new Event(eventId, null, null), cursor, pageSize);
+		model.addAttribute("ticketsByEvent", page.getItems());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		return TICKET_VIEW_NAME;
+	}
+
 	/**
 	 * Deletes a ticket by id. Adds a boolean to model data with information if deletion was successful or not.
 	 *
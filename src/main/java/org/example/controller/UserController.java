@@ -88,6 +88,27 @@ public class UserController {
 		return USER_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of users by name following the cursor, and adds it with the cursor of the next page to model data.
+	 * Used when no page number is requested.
+	 *
+	 * @param name User name.
+	 * @param cursor Cursor of the next page, absent for the first page.
+	 * @param pageSize Number of user entries per page.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byName", params = "!pageNum")
+	public String getUsersByNamePage(@RequestParam("name") String name,
+									 @RequestParam(value = "cursor", required = false) String cursor,
+									 @RequestParam("pageSize") int pageSize,
+									 ModelMap model) {
+		var page = facade.getUsersByName(name, cursor, pageSize);
+		model.addAttribute("users", page.getItems());
+		model.addAttribute("nextCursor", page.getNextCursor());
+		return USER_VIEW_NAME;
+	}
+
 	/**
 	 * Updates a user by user id and adds the updated object to model data.
 	 *
@@ -1,14 +1,32 @@
 package org.example.converter;
 
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.xml.StaxDriver;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.oxm.Unmarshaller;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.oxm.xstream.XStreamMarshaller;
 import org.springframework.stereotype.Component;
 
 import javax.xml.transform.stream.StreamSource;
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Converter for unmarshalling xml file with model data to list of models
@@ -17,8 +35,26 @@ import java.util.List;
 @Component
 public class XmlConverter<T> {
 
+	private static final int DEFAULT_PARSE_PARALLELISM = 4;
+
+	private final StaxDriver staxDriver = new StaxDriver();
+
 	@Autowired
-	private Unmarshaller unmarshaller;
+	private XStreamMarshaller unmarshaller;
+
+	private int parseParallelism = DEFAULT_PARSE_PARALLELISM;
+
+	/**
+	 * Sets the number of threads that parse the chunks of a file streamed in parallel.
+	 * @param parseParallelism Number of parsing threads, must be positive
+	 */
+	@Value("${preload.parse.parallelism:" + DEFAULT_PARSE_PARALLELISM + "}")
+	public void setParseParallelism(int parseParallelism) {
+		if (parseParallelism < 1) {
+			throw new IllegalArgumentException("Parse parallelism must be positive: " + parseParallelism);
+		}
+		this.parseParallelism = parseParallelism;
+	}
 
 	/**
 	 * Converter the xml file with model data to list of models.
@@ -30,4 +66,102 @@ public class XmlConverter<T> {
 			return (List<T>) unmarshaller.unmarshal(new StreamSource(inputStream));
 		}
 	}
+
+	/**
+	 * Streams the models of the xml list with a StAX reader, unmarshalling one model element at a time.
+	 * Only the current batch of models is kept in memory, regardless of the file size.
+	 * @param inputStream Xml list with model data
+	 * @param batchSize Maximal number of models in a batch
+	 * @param batchConsumer Consumer of model batches, each batch is a new list
+	 * @return Number of streamed models.
+	 */
+	public long streamXmlObjects(InputStream inputStream, int batchSize, Consumer<List<T>> batchConsumer) throws IOException {
+		return streamXmlObjects(staxDriver.createReader(inputStream), batchSize, batchConsumer);
+	}
+
+	/**
+	 * Streams the models of the xml list like {@link #streamXmlObjects(InputStream, int, Consumer)}, but splits the
+	 * file into chunks of batch size that are parsed in parallel on a pool of its own, so parsing neither takes
+	 * the threads of the common pool nor grows past the parse parallelism. The pool is shut down once the file
+	 * is streamed. Batches are still passed to the consumer one by one in file order, and only a bounded number
+	 * of chunks is parsed ahead of the consumer.
+	 * @param inputStream UTF-8 xml list with model data
+	 * @param batchSize Maximal number of models in a batch
+	 * @param batchConsumer Consumer of model batches, each batch is a new list
+	 * @return Number of streamed models.
+	 */
+	public long streamXmlObjectsInParallel(InputStream inputStream, int batchSize, Consumer<List<T>> batchConsumer) throws IOException {
+		var threads = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(parseParallelism, runnable -> {
+			var thread = new Thread(runnable, "xml-parser-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			var maxParsedAhead = parseParallelism * 2;
+			var splitter = new XmlElementSplitter(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+			var parsing = new ArrayDeque<Future<List<T>>>();
+			long count = 0;
+			String chunk;
+			while ((chunk = splitter.nextChunk(batchSize)) != null) {
+				var xml = chunk;
+				parsing.add(pool.submit(() -> parseChunk(xml)));
+				if (parsing.size() >= maxParsedAhead) {
+					count += consume(parsing.poll(), batchConsumer);
+				}
+			}
+			while (!parsing.isEmpty()) {
+				count += consume(parsing.poll(), batchConsumer);
+			}
+			return count;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private List<T> parseChunk(String xml) throws IOException {
+		var objects = new ArrayList<T>();
+		streamXmlObjects(staxDriver.createReader(new StringReader(xml)), Integer.MAX_VALUE, objects::addAll);
+		return objects;
+	}
+
+	private long consume(Future<List<T>> parsed, Consumer<List<T>> batchConsumer) throws IOException {
+		List<T> batch;
+		try {
+			batch = parsed.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while parsing xml data");
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+		}
+		batchConsumer.accept(batch);
+		return batch.size();
+	}
+
+	@SuppressWarnings("unchecked")
+	private long streamXmlObjects(HierarchicalStreamReader reader, int batchSize, Consumer<List<T>> batchConsumer) throws IOException {
+		try (var objects = unmarshaller.getXStream().createObjectInputStream(reader)) {
+			long count = 0;
+			List<T> batch = new ArrayList<>(Math.min(batchSize, 1024));
+			while (true) {
+				try {
+					batch.add((T) objects.readObject());
+				} catch (EOFException e) {
+					break;
+				}
+				count++;
+				if (batch.size() == batchSize) {
+					batchConsumer.accept(batch);
+					batch = new ArrayList<>(Math.min(batchSize, 1024));
+				}
+			}
+			if (!batch.isEmpty()) {
+				batchConsumer.accept(batch);
+			}
+			return count;
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Unknown model class in xml data", e);
+		}
+	}
 }
@@ -0,0 +1,122 @@
+package org.example.converter;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits an xml document into chunks of the children of its root element without parsing the children.
+ * Every chunk is a standalone document with the original root element, so chunks can be parsed independently.
+ */
+class XmlElementSplitter {
+
+	private final Reader reader;
+	private final StringBuilder tag = new StringBuilder();
+	private String rootStart;
+	private String rootEnd;
+	private int depth;
+	private boolean finished;
+
+	/**
+	 * @param reader Buffered reader of the xml document
+	 */
+	XmlElementSplitter(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the next chunk of root children.
+	 * @param elements Maximal number of root children in the chunk
+	 * @return Chunk document or null if all root children were read
+	 * @throws IOException if the document can't be read or ends unexpectedly
+	 */
+	String nextChunk(int elements) throws IOException {
+		if (finished) {
+			return null;
+		}
+		var chunk = new StringBuilder();
+		int count = 0;
+		int c;
+		while (count < elements && (c = reader.read()) != -1) {
+			if (c != '<') {
+				if (depth > 1) {
+					chunk.append((char) c);
+				}
+				continue;
+			}
+			readTag();
+			var second = tag.charAt(1);
+			if (second == '?' || second == '!') {
+				if (depth > 1) {
+					chunk.append(tag);
+				}
+			} else if (second == '/') {
+				depth--;
+				if (depth == 0) {
+					finished = true;
+					break;
+				}
+				chunk.append(tag);
+				if (depth == 1) {
+					count++;
+				}
+			} else if (depth == 0) {
+				if (tag.charAt(tag.length() - 2) == '/') {
+					finished = true;
+					return null;
+				}
+				rootStart = tag.toString();
+				rootEnd = "</" + rootStart.substring(1).split("[\\s/>]", 2)[0] + ">";
+				depth = 1;
+			} else {
+				if (depth == 1 && chunk.length() == 0) {
+					chunk.append(rootStart);
+				}
+				chunk.append(tag);
+				if (tag.charAt(tag.length() - 2) != '/') {
+					depth++;
+				} else if (depth == 1) {
+					count++;
+				}
+			}
+		}
+		if (rootStart == null || (!finished && count < elements)) {
+			throw new IOException("Unexpected end of xml document");
+		}
+		if (count == 0) {
+			return null;
+		}
+		return chunk.append(rootEnd).toString();
+	}
+
+	/**
+	 * Reads the markup after '<' up to its end: a tag, a comment, a CDATA section or a declaration.
+	 */
+	private void readTag() throws IOException {
+		tag.setLength(0);
+		tag.append('<');
+		String terminator = ">";
+		char quote = 0;
+		int c;
+		while ((c = reader.read()) != -1) {
+			tag.append((char) c);
+			if (tag.length() == 4 && tag.indexOf("<!--") == 0) {
+				terminator = "-->";
+			} else if (tag.length() == 9 && tag.indexOf("<![CDATA[") == 0) {
+				terminator = "]]>";
+			} else if (tag.length() == 2 && c == '?') {
+				terminator = "?>";
+			}
+			if (terminator.equals(">") && (c == '"' || c == '\'')) {
+				quote = quote == 0 ? (char) c : quote == c ? 0 : quote;
+			} else if (quote == 0 && c == '>' && endsWith(terminator)) {
+				return;
+			}
+		}
+		throw new IOException("Unexpected end of xml document");
+	}
+
+	private boolean endsWith(String suffix) {
+		var length = tag.length();
+		return length >= suffix.length() + 1 && tag.lastIndexOf(suffix) == length - suffix.length();
+	}
+}
@@ -1,5 +1,12 @@
 package org.example.dao;
 
+import org.example.dao.index.EventTitleIndex;
+import org.example.dao.index.IndexRegistry;
+import org.example.dao.index.SortedIndex;
+import org.example.dao.query.Criterion;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
+import org.example.dao.query.Query;
 import org.example.exception.EntityNotFoundException;
 import org.example.model.Event;
 import org.example.repository.InMemoryStorage;
@@ -10,7 +17,9 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -22,13 +31,21 @@ public class EventRepository extends InMemoryRepository<Long, Event> {
 
 	private static final Logger logger = LoggerFactory.getLogger(EventRepository.class);
 
+	private static final String TITLE_PREFIX_INDEX = "titlePrefix";
+
 	private InMemoryStorage<Event> storage;
+	private EventTitleIndex titleIndex;
 
 	@Autowired
 	public void setStorage(InMemoryStorage<Event> storage) {
 		this.storage = storage;
 	}
 
+	@Autowired
+	public void setTitleIndex(EventTitleIndex titleIndex) {
+		this.titleIndex = titleIndex;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -37,6 +54,25 @@ public class EventRepository extends InMemoryRepository<Long, Event> {
 		return storage.getData();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected InMemoryStorage<Event> getStorage() {
+		return storage;
+	}
+
+	/**
+	 * Declares the index of events by date and the index of lower case titles for type-ahead suggestions.
+	 * The titles starting with a prefix are a contiguous range of the title index, so the first suggestions
+	 * are read from the start of that range without touching the other titles.
+	 */
+	@Override
+	protected void declareIndexes(IndexRegistry<Event> registry) {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		registry.register(new SortedIndex<>(TITLE_PREFIX_INDEX, (Event event) -> normalizeTitle(event.getTitle())));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -44,48 +80,85 @@ public class EventRepository extends InMemoryRepository<Long, Event> {
 	public Event save(Event event) {
 		var index = storage.getIndex();
 		event.setId(index);
-		getData().put(index, event);
-		logger.info("Saved event with id {}.", index);
+		put(index, event);
+		logger.debug("Saved event with id {}.", index);
 		return event;
 	}
 
 	/**
-	 * Updates an event by event id.
+	 * Updates an event by event id. The stored event is replaced by an updated copy, so the change is journaled
+	 * before readers can see it.
 	 *
 	 * @param updatedEvent Updated event with the same id.
 	 * @return Updated event.
 	 */
 	public Event updateEvent(Event updatedEvent) {
-		Event event = get(updatedEvent.getId())
+		Event oldEvent = get(updatedEvent.getId())
 				.orElseThrow(() -> new EntityNotFoundException("Event not found by id: " + updatedEvent.getId()));
+		var event = new Event(oldEvent.getId(), oldEvent.getTitle(), oldEvent.getDate());
 		if (!updatedEvent.getTitle().isEmpty()) {
 			event.setTitle(updatedEvent.getTitle());
 		}
 		if (updatedEvent.getDate() != null) {
 			event.setDate(updatedEvent.getDate());
 		}
+		put(event.getId(), event);
 		logger.info("Updated event with id {}.", updatedEvent.getId());
 		return event;
 	}
 
 	/**
-	 * Gets a list of events by title.
+	 * Gets a list of events by title, the most relevant first. Every word of the title must be found in the event
+	 * title, the last one may be the beginning of a word. Words are matched ignoring case.
 	 *
-	 * @param title Event title.
+	 * @param title Event title or its words.
 	 * @param pageSize Number of ticket entries per page.
 	 * @param pageNum Number of page to display.
 	 * @return List of events or empty list if no events for the provided title are found.
 	 */
 	public List<Event> getEventsByTitle(String title, int pageSize, int pageNum) {
-		return getAll().stream()
-				.filter(event -> title.equals(event.getTitle()))
-				.skip(pageSize * (pageNum - 1L))
-				.limit(pageSize)
+		return titleIndex.search(title, pageSize * (pageNum - 1L), pageSize).stream()
+				.map(this::get)
+				.flatMap(Optional::stream)
 				.collect(Collectors.toList());
 	}
 
 	/**
-	 * Gets a list of events by date.
+	 * Gets a page of events by title, the most relevant first, following the cursor.
+	 * Title is matched like in {@link #getEventsByTitle(String, int, int)}.
+	 *
+	 * @param title Event title or its words.
+	 * @param cursor Cursor of the last event of the previous page or null for the first page.
+	 * @param pageSize Number of event entries per page, cut to the maximal page size.
+	 * @return Page of events with the cursor of the next page.
+	 */
+	public Page<Event> getEventsByTitle(String title, Cursor cursor, int pageSize) {
+		return fetch(titleIndex.search(title, cursor, pageLimit(pageSize)));
+	}
+
+	/**
+	 * Gets the events with titles starting with the prefix, ignoring case.
+	 *
+	 * @param prefix Title prefix.
+	 * @param limit Maximal number of events, larger limits are cut to the maximal page size.
+	 * @return List of events in alphabetical order of their titles, equal titles are sorted by id.
+	 * @throws IllegalArgumentException if the limit is not positive
+	 */
+	public List<Event> getEventsByTitlePrefix(String prefix, int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Suggestion limit must be positive: " + limit);
+		}
+		var normalized = normalizeTitle(prefix);
+		SortedIndex<Event, String> titles = getIndex(TITLE_PREFIX_INDEX);
+		return titles.range(normalized, normalized + Character.MAX_VALUE)
+				.limit(pageLimit(limit))
+				.map(id -> get(id.longValue()))
+				.flatMap(Optional::stream)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets a list of events by date, sorted by id.
 	 *
 	 * @param day Event date.
 	 * @param pageSize Number of ticket entries per page.
@@ -93,10 +166,55 @@ public class EventRepository extends InMemoryRepository<Long, Event> {
 	 * @return List of events or empty list if no events for the provided date are found.
 	 */
 	public List<Event> getEventsForDay(LocalDate day, int pageSize, int pageNum) {
-		return getAll().stream()
-				.filter(event -> day.equals(event.getDate()))
-				.skip(pageSize * (pageNum - 1L))
-				.limit(pageSize)
-				.collect(Collectors.toList());
+		return getEventsBetween(day, day, pageSize, pageNum);
+	}
+
+	/**
+	 * Gets a list of events between the dates, inclusive, sorted by date.
+	 *
+	 * @param from First date.
+	 * @param to Last date.
+	 * @param pageSize Number of event entries per page.
+	 * @param pageNum Number of page to display.
+	 * @return List of events or empty list if no events between the provided dates are found.
+	 */
+	public List<Event> getEventsBetween(LocalDate from, LocalDate to, int pageSize, int pageNum) {
+		return find(new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, from, to))
+				.orderBy("date", Event::getDate)
+				.page(pageSize, pageNum));
+	}
+
+	/**
+	 * Gets a page of events for the date, sorted by id, following the cursor.
+	 *
+	 * @param day Event date.
+	 * @param cursor Cursor of the last event of the previous page or null for the first page.
+	 * @param pageSize Number of event entries per page, cut to the maximal page size.
+	 * @return Page of events with the cursor of the next page.
+	 */
+	public Page<Event> getEventsForDay(LocalDate day, Cursor cursor, int pageSize) {
+		return getEventsBetween(day, day, cursor, pageSize);
+	}
+
+	/**
+	 * Gets a page of events between the dates, inclusive, sorted by date, following the cursor.
+	 * The date index is walked from the date of the cursor.
+	 *
+	 * @param from First date.
+	 * @param to Last date.
+	 * @param cursor Cursor of the last event of the previous page or null for the first page.
+	 * @param pageSize Number of event entries per page, cut to the maximal page size.
+	 * @return Page of events with the cursor of the next page.
+	 */
+	public Page<Event> getEventsBetween(LocalDate from, LocalDate to, Cursor cursor, int pageSize) {
+		return findPage(new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, from, to))
+				.orderBy("date", Event::getDate)
+				.after(cursor, pageLimit(pageSize)));
+	}
+
+	private static String normalizeTitle(String title) {
+		return title == null ? null : title.toLowerCase(Locale.ROOT);
 	}
 }
@@ -1,10 +1,52 @@
 package org.example.dao;
 
+import org.example.dao.index.IndexRegistry;
+import org.example.dao.index.SecondaryIndex;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
+import org.example.dao.query.ParallelScanner;
+import org.example.dao.query.Query;
+import org.example.dao.query.QueryPlan;
+import org.example.dao.query.QueryPlanner;
+import org.example.model.Identifiable;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.LongMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+public abstract class InMemoryRepository<K, V extends Identifiable> implements Repository<K, V> {
+
+	private static final int DEFAULT_MAX_PAGE_SIZE = 100;
 
-public abstract class InMemoryRepository<K, V> implements Repository<K, V> {
+	private final Object indexLock = new Object();
+	private volatile IndexRegistry<V> indexes;
+	private ParallelScanner scanner = ParallelScanner.sequential();
+	private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+
+	/**
+	 * Sets the scanner of queries without a usable index. Queries are scanned sequentially by default.
+	 * @param scanner Parallel scanner
+	 */
+	@Autowired(required = false)
+	public void setScanner(ParallelScanner scanner) {
+		this.scanner = scanner;
+	}
+
+	/**
+	 * Sets the largest page read with a cursor, larger pages are cut to it.
+	 * @param maxPageSize Maximal page size
+	 */
+	@Value("${pagination.max.page.size:" + DEFAULT_MAX_PAGE_SIZE + "}")
+	public void setMaxPageSize(int maxPageSize) {
+		this.maxPageSize = maxPageSize;
+	}
 
 	/**
 	 * Gets the map with entities mapped by entity id.
@@ -12,6 +54,12 @@ public abstract class InMemoryRepository<K, V> implements Repository<K, V> {
 	 */
 	public abstract Map<K, V> getData();
 
+	/**
+	 * Gets the storage of entities.
+	 * @return Entity storage
+	 */
+	protected abstract InMemoryStorage<V> getStorage();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -20,6 +68,89 @@ public abstract class InMemoryRepository<K, V> implements Repository<K, V> {
 		return Optional.ofNullable(getData().get(key));
 	}
 
+	/**
+	 * Gets the entity by primitive id. The id is not boxed when the storage is keyed by primitive ids.
+	 * @param key Entity id
+	 * @return Optional of entity
+	 */
+	public Optional<V> get(long key) {
+		var data = getData();
+		if (data instanceof LongMap) {
+			return Optional.ofNullable(asLongMap(data).get(key));
+		}
+		return Optional.ofNullable(data.get(key));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The storage is presized for the entities, and new ids are taken from the index as one block.
+	 * Kept ids must be positive; entities with the same ids are replaced and the index is moved past the highest id.
+	 * If an entity fails to be stored, the entities stored before it are deleted and the claims of the rest are
+	 * released; replaced entities are not restored.
+	 * @throws IllegalArgumentException if the entities can't be saved, in which case none of them is saved
+	 */
+	@Override
+	public List<V> saveAll(Collection<V> values, boolean keepIds) {
+		var entities = new ArrayList<>(values);
+		if (entities.isEmpty()) {
+			return entities;
+		}
+		var storage = getStorage();
+		if (keepIds) {
+			var highestId = 0L;
+			for (var entity : entities) {
+				if (entity.getId() <= 0) {
+					throw new IllegalArgumentException("Kept entity id must be positive: " + entity.getId());
+				}
+				highestId = Math.max(highestId, entity.getId());
+			}
+			storage.restoreIndex(highestId);
+		} else {
+			var id = storage.getIndexes(entities.size());
+			for (var entity : entities) {
+				entity.setId(id++);
+			}
+		}
+		validateAll(entities);
+		var data = getData();
+		if (data instanceof LongMap) {
+			asLongMap(data).ensureCapacity(data.size() + entities.size());
+		}
+		for (int i = 0; i < entities.size(); i++) {
+			try {
+				put(entities.get(i).getId(), entities.get(i));
+			} catch (RuntimeException e) {
+				for (int stored = i - 1; stored >= 0; stored--) {
+					try {
+						delete(entities.get(stored).getId());
+					} catch (RuntimeException deleteFailure) {
+						e.addSuppressed(deleteFailure);
+					}
+				}
+				releaseAll(entities.subList(i, entities.size()));
+				throw e;
+			}
+		}
+		return entities;
+	}
+
+	/**
+	 * Validates the entities before they are saved in bulk and claims their unique keys, so concurrent saves can't
+	 * take them before the entities are stored. The entities have their ids. No validation is done by default.
+	 * @param values Entities to save
+	 * @throws IllegalArgumentException if the entities can't be saved, in which case nothing is claimed
+	 */
+	protected void validateAll(Collection<V> values) {
+	}
+
+	/**
+	 * Releases the claims made by {@link #validateAll(Collection)} for the entities that failed to be stored.
+	 * Nothing is claimed by default.
+	 * @param values Entities that were not stored
+	 */
+	protected void releaseAll(Collection<V> values) {
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -33,4 +164,153 @@ public abstract class InMemoryRepository<K, V> implements Repository<K, V> {
 	public boolean delete(K key) {
 		return getData().remove(key) != null;
 	}
+
+	/**
+	 * Deletes the entity by primitive id. The id is not boxed when the storage is keyed by primitive ids.
+	 * @param key Entity id
+	 * @return Boolean with information if deletion was successful or not.
+	 */
+	public boolean delete(long key) {
+		var data = getData();
+		if (data instanceof LongMap) {
+			return asLongMap(data).remove(key) != null;
+		}
+		return data.remove(key) != null;
+	}
+
+	/**
+	 * Puts the entity into the storage by primitive id.
+	 * @param key Entity id
+	 * @param value Entity
+	 */
+	@SuppressWarnings("unchecked")
+	protected void put(long key, V value) {
+		var data = getData();
+		if (data instanceof LongMap) {
+			asLongMap(data).put(key, value);
+		} else {
+			((Map<Long, V>) data).put(key, value);
+		}
+	}
+
+	/**
+	 * Declares the secondary indexes of the repository in the registry. No indexes are declared by default.
+	 * Declared indexes are built from the storage when the registry is first used and kept consistent with
+	 * the storage afterwards.
+	 * @param registry Index registry
+	 */
+	protected void declareIndexes(IndexRegistry<V> registry) {
+	}
+
+	/**
+	 * Gets the registry of the secondary indexes, creating it with the declared indexes on first use.
+	 * @return Index registry
+	 */
+	protected IndexRegistry<V> getIndexes() {
+		var registry = indexes;
+		if (registry == null) {
+			synchronized (indexLock) {
+				registry = indexes;
+				if (registry == null) {
+					registry = new IndexRegistry<>(getStorage());
+					declareIndexes(registry);
+					indexes = registry;
+				}
+			}
+		}
+		return registry;
+	}
+
+	/**
+	 * Gets a declared index for a lookup the query planner doesn't offer.
+	 * @param name Index name
+	 * @param <I> Type of the index
+	 * @return Index
+	 * @throws IllegalStateException if no index with the name is declared
+	 */
+	@SuppressWarnings("unchecked")
+	protected <I extends SecondaryIndex<V, ?>> I getIndex(String name) {
+		var index = getIndexes().get(name);
+		if (index == null) {
+			throw new IllegalStateException("Index is not declared: " + name);
+		}
+		// the declaring repository knows the type of its index
+		return (I) index;
+	}
+
+	/**
+	 * Finds the entities matching the query, using the most selective declared index.
+	 * @param query Query
+	 * @return Page of matching entities
+	 */
+	public List<V> find(Query<V> query) {
+		return explain(query).execute();
+	}
+
+	/**
+	 * Finds a page of the entities matching the query, following the cursor set by
+	 * {@link Query#after(Cursor, int)}. Sorted queries answered by a range of a sorted index start
+	 * the walk at the cursor, so every page costs the same.
+	 * @param query Query
+	 * @return Page of matching entities with the cursor of the next page
+	 * @throws IllegalArgumentException if the cursor was made for another query
+	 */
+	public Page<V> findPage(Query<V> query) {
+		return explain(query).executePage();
+	}
+
+	/**
+	 * Plans the query without running it.
+	 * @param query Query
+	 * @return Query plan, its {@link QueryPlan#toString()} describes the steps
+	 */
+	public QueryPlan<V> explain(Query<V> query) {
+		return new QueryPlanner<>(getIndexes(), getData().values(), id -> get(id), scanner).plan(query);
+	}
+
+	/**
+	 * Rebuilds all secondary indexes from the storage, while they keep serving queries.
+	 */
+	public void rebuildIndexes() {
+		getIndexes().rebuildAll();
+	}
+
+	/**
+	 * Estimates the memory taken by the secondary indexes.
+	 * @return Estimated sizes in bytes by index name
+	 */
+	public Map<String, Long> getIndexFootprints() {
+		return getIndexes().getFootprints();
+	}
+
+	/**
+	 * Gets the number of entities of a page read with a cursor.
+	 * @param pageSize Requested page size
+	 * @return Page size, at most the maximal page size
+	 * @throws IllegalArgumentException if the page size is not positive
+	 */
+	protected int pageLimit(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+		}
+		return Math.min(pageSize, maxPageSize);
+	}
+
+	/**
+	 * Gets the entities of a page of ids, skipping the ones removed meanwhile.
+	 * @param ids Page of entity ids
+	 * @return Page of entities with the same cursor of the next page
+	 */
+	protected Page<V> fetch(Page<Long> ids) {
+		var entities = ids.getItems().stream()
+				.map(id -> get(id.longValue()))
+				.flatMap(Optional::stream)
+				.collect(Collectors.toList());
+		return new Page<>(entities, ids.getNextCursor());
+	}
+
+	@SuppressWarnings("unchecked")
+	private LongMap<V> asLongMap(Map<K, V> data) {
+		return (LongMap<V>) data;
+	}
 }
@@ -1,6 +1,7 @@
 package org.example.dao;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface Repository<K, V> {
@@ -10,6 +11,14 @@ public interface Repository<K, V> {
 	 */
 	V save(V value);
 
+	/**
+	 * Saves the provided entities in bulk.
+	 * @param values Entities to save
+	 * @param keepIds Whether the entities keep their ids instead of getting new ones
+	 * @return Saved entities
+	 */
+	List<V> saveAll(Collection<V> values, boolean keepIds);
+
 	/**
 	 * Gets the entity by key.
 	 */
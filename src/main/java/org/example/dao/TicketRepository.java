@@ -1,5 +1,10 @@
 package org.example.dao;
 
+import org.example.dao.index.EventTicketIndex;
+import org.example.dao.index.SeatIndex;
+import org.example.dao.index.UserTicketIndex;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.User;
@@ -9,12 +14,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Repository for all operations on Tickets.
+ * The ticket pages by user and by event walk presorted indexes, so they never sort and don't use
+ * the top-K selection of {@link #find}.
  * @author Andrii Krokhta
  */
 @Repository
@@ -23,12 +32,30 @@ public class TicketRepository extends InMemoryRepository<Long, Ticket>{
 	private static final Logger logger = LoggerFactory.getLogger(TicketRepository.class);
 
 	private InMemoryStorage<Ticket> storage;
+	private UserTicketIndex userTicketIndex;
+	private EventTicketIndex eventTicketIndex;
+	private SeatIndex seatIndex;
 
 	@Autowired
 	public void setStorage(InMemoryStorage<Ticket> storage) {
 		this.storage = storage;
 	}
 
+	@Autowired
+	public void setUserTicketIndex(UserTicketIndex userTicketIndex) {
+		this.userTicketIndex = userTicketIndex;
+	}
+
+	@Autowired
+	public void setEventTicketIndex(EventTicketIndex eventTicketIndex) {
+		this.eventTicketIndex = eventTicketIndex;
+	}
+
+	@Autowired
+	public void setSeatIndex(SeatIndex seatIndex) {
+		this.seatIndex = seatIndex;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -41,16 +68,73 @@ public class TicketRepository extends InMemoryRepository<Long, Ticket>{
 	 * {@inheritDoc}
 	 */
 	@Override
+	protected InMemoryStorage<Ticket> getStorage() {
+		return storage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The seat is claimed in the seat index before the ticket is stored, so concurrent saves can't share a seat.
+	 *
+	 * @throws IllegalStateException if the place has already been booked
+	 */
+	@Override
 	public Ticket save(Ticket ticket) {
-		var index = storage.getIndex();
-		ticket.setId(index);
-		getData().put(index, ticket);
-		logger.info("Saved ticket with id {}.", index);
+		if (!seatIndex.claim(ticket.getEventId(), ticket.getCategory(), ticket.getPlace())) {
+			logger.error("Failed to book ticket. Place: {} of event: {} is already booked.", ticket.getPlace(), ticket.getEventId());
+			throw new IllegalStateException("Place " + ticket.getPlace() + " is already booked");
+		}
+		ticket.setId(storage.getIndex());
+		return publish(ticket);
+	}
+
+	/**
+	 * Stores the ticket whose seat has already been claimed in the seat index and whose id has been allocated.
+	 * The seat is assigned to the ticket and released if the ticket can't be stored. A failed put leaves
+	 * the storage unchanged, so the seat is never released under a stored ticket.
+	 *
+	 * @param ticket Ticket with the claimed seat and the allocated id.
+	 * @return Stored ticket.
+	 */
+	public Ticket publish(Ticket ticket) {
+		seatIndex.assign(ticket);
+		try {
+			put(ticket.getId(), ticket);
+		} catch (RuntimeException e) {
+			seatIndex.cancel(ticket);
+			throw e;
+		}
+		logger.debug("Saved ticket with id {}.", ticket.getId());
 		return ticket;
 	}
 
 	/**
-	 * Gets a list of tickets by user.
+	 * Claims the seats of the tickets in the seat index, so concurrent bookings can't take them before the tickets
+	 * are stored. The seats must be distinct and free.
+	 *
+	 * @throws IllegalStateException if a place has already been booked
+	 */
+	@Override
+	protected void validateAll(Collection<Ticket> tickets) {
+		var conflict = seatIndex.claimAll(tickets);
+		if (conflict.isPresent()) {
+			var ticket = conflict.get();
+			logger.error("Failed to book tickets. Place: {} of event: {} is already booked.", ticket.getPlace(), ticket.getEventId());
+			throw new IllegalStateException("Place " + ticket.getPlace() + " is already booked");
+		}
+	}
+
+	/**
+	 * Releases the seats of the tickets that failed to be stored.
+	 */
+	@Override
+	protected void releaseAll(Collection<Ticket> tickets) {
+		seatIndex.cancelAll(tickets);
+	}
+
+	/**
+	 * Gets a list of tickets by user, sorted by event date in descending order.
+	 * The page walks past the tickets of the previous pages, use the cursor overload for deep pages.
 	 *
 	 * @param user User.
 	 * @param pageSize Number of ticket entries per page.
@@ -58,15 +142,27 @@ public class TicketRepository extends InMemoryRepository<Long, Ticket>{
 	 * @return List of tickets or empty list if no tickets for the provided user are found.
 	 */
 	public List<Ticket> getBookedTickets(User user, int pageSize, int pageNum) {
-		return getAll().stream()
-				.filter(ticket -> ticket.getUserId() == user.getId())
-				.skip(pageSize * (pageNum - 1L))
-				.limit(pageSize)
+		return userTicketIndex.getTicketIds(user.getId(), pageSize * (pageNum - 1L), pageSize).stream()
+				.map(this::get)
+				.flatMap(Optional::stream)
 				.collect(Collectors.toList());
 	}
 
 	/**
-	 * Gets a list of tickets by event.
+	 * Gets a page of tickets by user, sorted by event date in descending order, following the cursor.
+	 *
+	 * @param user User.
+	 * @param cursor Cursor of the last ticket of the previous page or null for the first page.
+	 * @param pageSize Number of ticket entries per page, cut to the maximal page size.
+	 * @return Page of tickets with the cursor of the next page.
+	 */
+	public Page<Ticket> getBookedTickets(User user, Cursor cursor, int pageSize) {
+		return fetch(userTicketIndex.getTicketIds(user.getId(), cursor, pageLimit(pageSize)));
+	}
+
+	/**
+	 * Gets a list of tickets by event, sorted by user email in ascending order.
+	 * The page walks past the tickets of the previous pages, use the cursor overload for deep pages.
 	 *
 	 * @param event Event.
 	 * @param pageSize Number of ticket entries per page.
@@ -74,10 +170,21 @@ public class TicketRepository extends InMemoryRepository<Long, Ticket>{
 	 * @return List of tickets or empty list if no tickets for the provided event are found.
 	 */
 	public List<Ticket> getBookedTickets(Event event, int pageSize, int pageNum) {
-		return getAll().stream()
-				.filter(ticket -> ticket.getEventId() == event.getId())
-				.skip(pageSize * (pageNum - 1L))
-				.limit(pageSize)
+		return eventTicketIndex.getTicketIds(event.getId(), pageSize * (pageNum - 1L), pageSize).stream()
+				.map(this::get)
+				.flatMap(Optional::stream)
 				.collect(Collectors.toList());
 	}
+
+	/**
+	 * Gets a page of tickets by event, sorted by user email in ascending order, following the cursor.
+	 *
+	 * @param event Event.
+	 * @param cursor Cursor of the last ticket of the previous page or null for the first page.
+	 * @param pageSize Number of ticket entries per page, cut to the maximal page size.
+	 * @return Page of tickets with the cursor of the next page.
+	 */
+	public Page<Ticket> getBookedTickets(Event event, Cursor cursor, int pageSize) {
+		return fetch(eventTicketIndex.getTicketIds(event.getId(), cursor, pageLimit(pageSize)));
+	}
 }
@@ -1,5 +1,9 @@
 package org.example.dao;
 
+import org.example.dao.index.EmailIndex;
+import org.example.dao.index.NameTrigramIndex;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
 import org.example.exception.EntityNotFoundException;
 import org.example.model.User;
 import org.example.repository.InMemoryStorage;
@@ -9,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,13 +26,17 @@ public class UserRepository extends InMemoryRepository<Long, User>{
 	private static final Logger logger = LoggerFactory.getLogger(UserRepository.class);
 
 	private final InMemoryStorage<User> storage;
+	private final EmailIndex emailIndex;
+	private final NameTrigramIndex nameIndex;
 
 	@Value("${users.source}")
 	private String usersFile;
 
 	@Autowired
-	public UserRepository(InMemoryStorage<User> storage) {
+	public UserRepository(InMemoryStorage<User> storage, EmailIndex emailIndex, NameTrigramIndex nameIndex) {
 		this.storage = storage;
+		this.emailIndex = emailIndex;
+		this.nameIndex = nameIndex;
 	}
 
 	/**
@@ -41,20 +51,64 @@ public class UserRepository extends InMemoryRepository<Long, User>{
 	 * {@inheritDoc}
 	 */
 	@Override
+	protected InMemoryStorage<User> getStorage() {
+		return storage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The email is claimed in the email index before the user is stored, so concurrent saves can't share an email.
+	 * The user id is taken only once the email is claimed.
+	 */
+	@Override
 	public User save(User user) {
-		if (isEmailUnique(user.getEmail())) {
-			var index = storage.getIndex();
-			user.setId(index);
-			getData().put(index, user);
-			logger.info("Saved user with id {}.", index);
-			return user;
+		var claimed = emailIndex.claim(user.getEmail(), storage::getIndex);
+		if (claimed.isEmpty()) {
+			logger.error("Failed to create user. Email: {} is already taken.", user.getEmail());
+			throw new IllegalArgumentException("User email must be unique");
+		}
+		var index = claimed.getAsLong();
+		user.setId(index);
+		try {
+			put(index, user);
+		} catch (RuntimeException e) {
+			emailIndex.release(user.getEmail(), index);
+			throw e;
+		}
+		logger.debug("Saved user with id {}.", index);
+		return user;
+	}
+
+	/**
+	 * Claims the emails of the users with their ids in the email index, so the emails must be unique among
+	 * the users and the saved users. The claims are released if any email is taken.
+	 */
+	@Override
+	protected void validateAll(Collection<User> users) {
+		var claimed = new ArrayList<User>(users.size());
+		for (var user : users) {
+			if (!emailIndex.claim(user.getEmail(), user.getId())) {
+				releaseAll(claimed);
+				logger.error("Failed to create users. Email: {} is already taken.", user.getEmail());
+				throw new IllegalArgumentException("User email must be unique");
+			}
+			claimed.add(user);
+		}
+	}
+
+	/**
+	 * Releases the emails of the users that failed to be stored.
+	 */
+	@Override
+	protected void releaseAll(Collection<User> users) {
+		for (var user : users) {
+			emailIndex.release(user.getEmail(), user.getId());
 		}
-		logger.error("Failed to create user. Email: {} is already taken.", user.getEmail());
-		throw new IllegalArgumentException("User email must be unique");
 	}
 
 	/**
 	 * Updates a user by user id. If user email is to be updated, it must be unique.
+	 * The stored user is replaced by an updated copy, so the change is journaled before readers can see it.
 	 *
 	 * @param updatedUser Updated user with the same id.
 	 * @return Updated user.
@@ -62,11 +116,12 @@ public class UserRepository extends InMemoryRepository<Long, User>{
 	public User update(User updatedUser) {
 		User oldUser = get(updatedUser.getId())
 				.orElseThrow(() -> new EntityNotFoundException("User not found by id: " + updatedUser.getId()));
+		var user = new User(oldUser.getId(), oldUser.getName(), oldUser.getEmail());
 
 		var email = updatedUser.getEmail();
 		if (!email.isEmpty() && !oldUser.getEmail().equals(email)){
-			if (isEmailUnique(email)){
-				oldUser.setEmail(email);
+			if (emailIndex.claim(email, oldUser.getId())){
+				user.setEmail(email);
 			} else {
 				logger.error("Failed to create user. Email: {} is already taken.", email);
 				throw new IllegalArgumentException("User email must be unique");
@@ -74,23 +129,18 @@ public class UserRepository extends InMemoryRepository<Long, User>{
 		}
 
 		if (!updatedUser.getName().isEmpty()) {
-			oldUser.setName(updatedUser.getName());
+			user.setName(updatedUser.getName());
+		}
+		try {
+			put(user.getId(), user);
+		} catch (RuntimeException e) {
+			emailIndex.release(user.getEmail(), user.getId());
+			throw e;
 		}
 
 		logger.info("Updated user with id {}.", updatedUser.getId());
 
-		return oldUser;
-	}
-
-	/**
-	 * Checks if there isn't a created user with the provided email.
-	 * @param email
-	 * @return true if no user with the provided email is found, otherwise - false
-	 */
-	private boolean isEmailUnique(String email) {
-		return getAll().stream()
-				.map(User::getEmail)
-				.noneMatch(email::equals);
+		return user;
 	}
 
 	/**
@@ -100,13 +150,13 @@ public class UserRepository extends InMemoryRepository<Long, User>{
 	 * @return Optional of user.
 	 */
 	public Optional<User> getUserByEmail(String email) {
-		return getAll().stream()
-				.filter(user -> email.equals(user.getEmail()))
-				.findAny();
+		return emailIndex.getUserId(email)
+				.flatMap(id -> get(id.longValue()));
 	}
 
 	/**
-	 * Gets a list of users by name. Name is matched using 'contains' approach.
+	 * Gets a list of users by name, sorted by user id. Name is matched using 'contains' approach.
+	 * The users are narrowed down by the name trigram index before the names are matched.
 	 *
 	 * @param name User name.
 	 * @param pageSize Number of ticket entries per page.
@@ -114,10 +164,36 @@ public class UserRepository extends InMemoryRepository<Long, User>{
 	 * @return List of users or empty list if no users for the provided name are found.
 	 */
 	public List<User> getUsersByName(String name, int pageSize, int pageNum) {
-		return getAll().stream()
-				.filter(user -> user.getName().contains(name))
+		return nameIndex.getCandidateIds(name)
+				.map(id -> get(id.longValue()))
+				.flatMap(Optional::stream)
+				.filter(user -> user.getName() != null && user.getName().contains(name))
 				.skip(pageSize * (pageNum - 1L))
 				.limit(pageSize)
 				.collect(Collectors.toList());
 	}
+
+	/**
+	 * Gets a page of users by name, sorted by user id, following the cursor. Name is matched using 'contains'
+	 * approach. The candidates of the name trigram index are walked from the id of the cursor.
+	 *
+	 * @param name User name.
+	 * @param cursor Cursor of the last user of the previous page or null for the first page.
+	 * @param pageSize Number of user entries per page, cut to the maximal page size.
+	 * @return Page of users with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor was not made for this list
+	 */
+	public Page<User> getUsersByName(String name, Cursor cursor, int pageSize) {
+		if (cursor != null && cursor.size() != 1) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+		var limit = pageLimit(pageSize);
+		var fetched = nameIndex.getCandidateIds(name, cursor == null ? Long.MIN_VALUE : cursor.getLong(0))
+				.map(id -> get(id.longValue()))
+				.flatMap(Optional::stream)
+				.filter(user -> user.getName() != null && user.getName().contains(name))
+				.limit(limit + 1L)
+				.collect(Collectors.toList());
+		return Page.of(fetched, limit, user -> Cursor.of(user.getId()));
+	}
 }
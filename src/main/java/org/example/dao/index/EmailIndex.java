@@ -0,0 +1,144 @@
+package org.example.dao.index;
+
+import org.example.model.User;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Hash index of user ids by email. An email is claimed by a user before the user is stored, and the claim is
+ * atomic, so two concurrent signups can't both take the same email. The index follows the user storage,
+ * releasing the email of a user when the user is removed or changes the email, and rejecting a stored user
+ * whose email belongs to another user.
+ * Emails are optionally compared ignoring case.
+ */
+@Component
+public class EmailIndex {
+
+	private final Map<String, Long> userIds = new ConcurrentHashMap<>();
+	private final Map<Long, String> emails = new ConcurrentHashMap<>();
+	private final boolean ignoreCase;
+
+	@Autowired
+	public EmailIndex(InMemoryStorage<User> userStorage, @Value("${users.email.ignore.case:false}") boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+		userStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, User user) {
+				put(id, user.getEmail());
+			}
+
+			@Override
+			public void onRemove(long id, User user) {
+				remove(id);
+			}
+		});
+		userStorage.getData().forEach((id, user) -> put(id, user.getEmail()));
+	}
+
+	/**
+	 * Claims the email for the user.
+	 * @param email User email
+	 * @param userId User id
+	 * @return true if the email is free or already belongs to the user, otherwise - false
+	 */
+	public boolean claim(String email, long userId) {
+		if (email == null) {
+			return true;
+		}
+		var owner = userIds.putIfAbsent(normalize(email), userId);
+		return owner == null || owner == userId;
+	}
+
+	/**
+	 * Claims the email for a new user, taking the id of the user only if the email is free, so a taken email
+	 * doesn't use up an id.
+	 * @param email User email
+	 * @param newUserId Supplier of the id of the new user
+	 * @return Optional of the id of the new user, empty if the email is taken
+	 */
+	public OptionalLong claim(String email, LongSupplier newUserId) {
+		if (email == null) {
+			return OptionalLong.of(newUserId.getAsLong());
+		}
+		var claimed = new long[1];
+		var owner = userIds.computeIfAbsent(normalize(email), key -> claimed[0] = newUserId.getAsLong());
+		return owner == claimed[0] ? OptionalLong.of(owner) : OptionalLong.empty();
+	}
+
+	/**
+	 * Releases the email claimed for the user, unless the stored user has the email.
+	 * @param email User email
+	 * @param userId User id
+	 */
+	public void release(String email, long userId) {
+		if (email == null) {
+			return;
+		}
+		var key = normalize(email);
+		if (!key.equals(emails.get(userId))) {
+			userIds.remove(key, userId);
+		}
+	}
+
+	/**
+	 * Checks if the email belongs to any user.
+	 * @param email User email
+	 * @return true if the email is taken, otherwise - false
+	 */
+	public boolean isTaken(String email) {
+		return email != null && userIds.containsKey(normalize(email));
+	}
+
+	/**
+	 * Gets the id of the user with the email.
+	 * @param email User email
+	 * @return Optional of user id
+	 */
+	public Optional<Long> getUserId(String email) {
+		return email == null ? Optional.empty() : Optional.ofNullable(userIds.get(normalize(email)));
+	}
+
+	/**
+	 * Normalizes the email for comparison.
+	 * @param email User email
+	 * @return Email as it is compared by the index
+	 */
+	public String normalize(String email) {
+		return ignoreCase ? email.toLowerCase(Locale.ROOT) : email;
+	}
+
+	/**
+	 * Indexes the email of the stored user.
+	 * @throws IllegalArgumentException if the email belongs to another user, which rejects the stored user
+	 */
+	private void put(long userId, String email) {
+		var key = email == null ? null : normalize(email);
+		if (key != null) {
+			var owner = userIds.putIfAbsent(key, userId);
+			if (owner != null && owner != userId) {
+				throw new IllegalArgumentException("User email must be unique");
+			}
+		}
+		var previous = key == null ? emails.remove(userId) : emails.put(userId, key);
+		if (previous != null && !previous.equals(key)) {
+			userIds.remove(previous, userId);
+		}
+	}
+
+	private void remove(long userId) {
+		var previous = emails.remove(userId);
+		if (previous != null) {
+			userIds.remove(previous, userId);
+		}
+	}
+}
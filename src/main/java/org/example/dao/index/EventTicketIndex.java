@@ -0,0 +1,23 @@
+package org.example.dao.index;
+
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.InMemoryStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Index of the tickets of every event, ordered by the email of the ticket user in ascending order.
+ * Tickets of users without an email come last.
+ */
+@Component
+public class EventTicketIndex extends SortedTicketIndex<User, String> {
+
+	@Autowired
+	public EventTicketIndex(InMemoryStorage<Ticket> ticketStorage, InMemoryStorage<User> userStorage) {
+		super(ticketStorage, userStorage, Ticket::getEventId, Ticket::getUserId, User::getEmail,
+				String.class, Comparator.naturalOrder());
+	}
+}
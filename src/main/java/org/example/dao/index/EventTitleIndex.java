@@ -0,0 +1,194 @@
+package org.example.dao.index;
+
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
+import org.example.dao.query.TopK;
+import org.example.model.Event;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index of event titles. Titles are split into lower case word tokens, and every token keeps the ids
+ * of the events with the number of its occurrences in their titles. An event matches a query if its title has
+ * all query tokens, the last one of them matched as a token prefix, so a query matches while it is typed.
+ * Matches are ranked by tf-idf: rare tokens weigh more than common ones, and a token weighs more in a short
+ * title than in a long one.
+ */
+@Component
+public class EventTitleIndex {
+
+	private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final int STRIPES = 64;
+	private static final Comparator<Map.Entry<Long, Double>> RELEVANCE = Map.Entry.<Long, Double>comparingByValue()
+			.reversed()
+			.thenComparing(Map.Entry.comparingByKey());
+
+	private final ConcurrentNavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+	private final Map<Long, List<String>> tokensByEvent = new ConcurrentHashMap<>();
+	private final Object[] locks = new Object[STRIPES];
+
+	@Autowired
+	public EventTitleIndex(InMemoryStorage<Event> eventStorage) {
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+		eventStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Event event) {
+				put(id, event.getTitle());
+			}
+
+			@Override
+			public void onRemove(long id, Event event) {
+				put(id, null);
+			}
+		});
+		eventStorage.getData().forEach((id, event) -> put(id, event.getTitle()));
+	}
+
+	/**
+	 * Searches the events by title and ranks them by relevance, equally relevant events are sorted by id.
+	 * @param query Search query
+	 * @param offset Number of events to skip
+	 * @param limit Maximal number of events
+	 * @return Ids of matching events, the most relevant first, or empty list if the query has no tokens
+	 */
+	public List<Long> search(String query, long offset, int limit) {
+		return rank(query).entrySet().stream()
+				.collect(TopK.first(offset + limit, RELEVANCE)).stream()
+				.skip(offset)
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Searches the events by title like {@link #search(String, long, int)}, starting after the cursor.
+	 * The cursor is made of the relevance and the id of the last event of the previous page.
+	 * @param query Search query
+	 * @param after Cursor of the last event of the previous page or null for the first page
+	 * @param limit Maximal number of events
+	 * @return Ids of matching events with the cursor of the next page
+	 * @throws IllegalArgumentException if the cursor was not made by this index
+	 */
+	public Page<Long> search(String query, Cursor after, int limit) {
+		var hits = rank(query).entrySet().stream();
+		if (after != null) {
+			if (after.size() != 2 || after.get(0, Double.class) == null) {
+				throw new IllegalArgumentException("Invalid cursor: " + after);
+			}
+			var last = Map.entry(after.getLong(1), after.get(0, Double.class));
+			hits = hits.filter(hit -> RELEVANCE.compare(hit, last) > 0);
+		}
+		var fetched = hits.collect(TopK.first(limit + 1L, RELEVANCE));
+		return Page.of(fetched, limit, hit -> Cursor.of(hit.getValue(), hit.getKey())).map(Map.Entry::getKey);
+	}
+
+	/**
+	 * Scores the events matching the query.
+	 * @return Scores by event id
+	 */
+	private Map<Long, Double> rank(String query) {
+		var terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+		if (terms.isEmpty()) {
+			return Map.of();
+		}
+		var documents = Math.max(1, tokensByEvent.size());
+		var termScores = new ArrayList<Map<Long, Double>>(terms.size());
+		for (int i = 0; i < terms.size(); i++) {
+			var term = terms.get(i);
+			var matches = i == terms.size() - 1
+					? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+					: postings.subMap(term, true, term, true);
+			var scores = new HashMap<Long, Double>();
+			matches.values().forEach(posting -> {
+				var idf = Math.log(1 + (double) documents / Math.max(1, posting.size()));
+				posting.forEach((eventId, frequency) -> scores.merge(eventId, idf * weight(eventId, frequency), Math::max));
+			});
+			if (scores.isEmpty()) {
+				return Map.of();
+			}
+			termScores.add(scores);
+		}
+		termScores.sort(Comparator.comparingInt(Map::size));
+		var ranked = new HashMap<Long, Double>();
+		var rarest = termScores.get(0);
+		var others = termScores.subList(1, termScores.size());
+		rarest.forEach((eventId, score) -> {
+			var total = score;
+			for (var scores : others) {
+				var termScore = scores.get(eventId);
+				if (termScore == null) {
+					return;
+				}
+				total += termScore;
+			}
+			ranked.put(eventId, total);
+		});
+		return ranked;
+	}
+
+	/**
+	 * Splits the text into lower case word tokens.
+	 * @param text Text
+	 * @return Tokens in text order
+	 */
+	public static List<String> tokenize(String text) {
+		if (text == null) {
+			return List.of();
+		}
+		var tokens = new ArrayList<String>();
+		for (var token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Weight of a token in the title, growing slower than the token frequency and shrinking with the title length.
+	 */
+	private double weight(long eventId, int frequency) {
+		var tokens = tokensByEvent.get(eventId);
+		var length = tokens == null ? 1 : Math.max(1, tokens.size());
+		return (1 + Math.log(frequency)) / Math.sqrt(length);
+	}
+
+	private void put(long eventId, String title) {
+		synchronized (lockFor(eventId)) {
+			var tokens = tokenize(title);
+			var previous = tokens.isEmpty() ? tokensByEvent.remove(eventId) : tokensByEvent.put(eventId, tokens);
+			if (previous != null) {
+				for (var token : previous) {
+					var posting = postings.get(token);
+					if (posting != null) {
+						posting.remove(eventId);
+					}
+				}
+			}
+			for (var token : tokens) {
+				postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).merge(eventId, 1, Integer::sum);
+			}
+		}
+	}
+
+	private Object lockFor(long eventId) {
+		return locks[(int) (eventId & (STRIPES - 1))];
+	}
+}
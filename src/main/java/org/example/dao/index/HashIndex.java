@@ -0,0 +1,87 @@
+package org.example.dao.index;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hash index of entity ids by key. Entities with a null key are not indexed.
+ * @param <V> Type of indexed entities
+ * @param <K> Type of the key
+ */
+public class HashIndex<V, K> extends SecondaryIndex<V, HashIndex<V, K>.HashStore> {
+
+	private final Function<V, K> keyExtractor;
+
+	/**
+	 * Creates the index.
+	 * @param name Index name
+	 * @param keyExtractor Key of an entity
+	 */
+	public HashIndex(String name, Function<V, K> keyExtractor) {
+		super(name);
+		this.keyExtractor = keyExtractor;
+	}
+
+	/**
+	 * Gets the ids of the entities with the key.
+	 * @param key Key
+	 * @return Unmodifiable view of entity ids in no particular order
+	 */
+	public Set<Long> getIds(K key) {
+		var ids = store().ids.get(key);
+		return ids == null ? Set.of() : Collections.unmodifiableSet(ids);
+	}
+
+	@Override
+	protected HashStore newStore() {
+		return new HashStore();
+	}
+
+	/**
+	 * Ids by key, with the key of every id to find its entry on change.
+	 */
+	protected class HashStore implements Store<V> {
+
+		private final Map<K, Set<Long>> ids = new ConcurrentHashMap<>();
+		private final Map<Long, K> keys = new ConcurrentHashMap<>();
+
+		@Override
+		public void put(long id, V value) {
+			var key = keyExtractor.apply(value);
+			var previous = key == null ? keys.remove(id) : keys.put(id, key);
+			if (previous != null && !previous.equals(key)) {
+				unindex(previous, id);
+			}
+			if (key != null) {
+				ids.compute(key, (k, set) -> {
+					var result = set == null ? ConcurrentHashMap.<Long>newKeySet() : set;
+					result.add(id);
+					return result;
+				});
+			}
+		}
+
+		@Override
+		public void remove(long id) {
+			var previous = keys.remove(id);
+			if (previous != null) {
+				unindex(previous, id);
+			}
+		}
+
+		@Override
+		public long footprint() {
+			return keys.size() * (MAP_ENTRY_BYTES + SET_ENTRY_BYTES) + ids.size() * MAP_ENTRY_BYTES;
+		}
+
+		private void unindex(K key, long id) {
+			ids.computeIfPresent(key, (k, set) -> {
+				set.remove(id);
+				return set.isEmpty() ? null : set;
+			});
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package org.example.dao.index;
+
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of the secondary indexes of a repository. The registry listens to the entity storage and applies
+ * every change to all registered indexes, so repositories don't maintain their indexes by hand.
+ * @param <V> Type of indexed entities
+ */
+public class IndexRegistry<V> implements StorageListener<V> {
+
+	private static final Logger logger = LoggerFactory.getLogger(IndexRegistry.class);
+
+	private final Map<Long, V> data;
+	private final Map<String, SecondaryIndex<V, ?>> indexes = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Creates the registry and starts listening to the storage.
+	 * @param storage Entity storage
+	 */
+	public IndexRegistry(InMemoryStorage<V> storage) {
+		this.data = storage.getData();
+		storage.addListener(this);
+	}
+
+	/**
+	 * Registers the index and builds it from the stored entities.
+	 * @param index Index
+	 * @param <I> Type of the index
+	 * @return Registered index
+	 * @throws IllegalArgumentException if an index with the same name is registered
+	 */
+	public <I extends SecondaryIndex<V, ?>> I register(I index) {
+		if (indexes.putIfAbsent(index.getName(), index) != null) {
+			throw new IllegalArgumentException("Index is already registered: " + index.getName());
+		}
+		rebuild(index);
+		return index;
+	}
+
+	/**
+	 * Gets the registered index.
+	 * @param name Index name
+	 * @return Index or null if no index with the name is registered
+	 */
+	public SecondaryIndex<V, ?> get(String name) {
+		return indexes.get(name);
+	}
+
+	/**
+	 * Rebuilds the index from the stored entities. Queries and changes continue during the rebuild.
+	 * @param name Index name
+	 * @throws IllegalArgumentException if no index with the name is registered
+	 */
+	public void rebuild(String name) {
+		var index = indexes.get(name);
+		if (index == null) {
+			throw new IllegalArgumentException("Index is not registered: " + name);
+		}
+		rebuild(index);
+	}
+
+	/**
+	 * Rebuilds all indexes from the stored entities.
+	 */
+	public void rebuildAll() {
+		indexes.values().forEach(this::rebuild);
+	}
+
+	/**
+	 * Estimates the memory taken by every index.
+	 * @return Estimated sizes in bytes by index name
+	 */
+	public Map<String, Long> getFootprints() {
+		var footprints = new LinkedHashMap<String, Long>();
+		indexes.forEach((name, index) -> footprints.put(name, index.estimateFootprint()));
+		return footprints;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onPut(long id, V entity) {
+		for (var index : indexes.values()) {
+			index.put(id, entity);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onRemove(long id, V entity) {
+		for (var index : indexes.values()) {
+			index.remove(id);
+		}
+	}
+
+	private void rebuild(SecondaryIndex<V, ?> index) {
+		var start = System.nanoTime();
+		index.rebuild(data);
+		logger.debug("Rebuilt index {} in {} ms, about {} bytes.", index.getName(),
+				(System.nanoTime() - start) / 1_000_000, index.estimateFootprint());
+	}
+}
@@ -0,0 +1,100 @@
+package org.example.dao.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hash index of entity ids by several keys of every entity, e.g. the words of a title.
+ * @param <V> Type of indexed entities
+ * @param <K> Type of the keys
+ */
+public class MultiValuedIndex<V, K> extends SecondaryIndex<V, MultiValuedIndex<V, K>.MultiValuedStore> {
+
+	private final Function<V, ? extends Collection<K>> keysExtractor;
+
+	/**
+	 * Creates the index.
+	 * @param name Index name
+	 * @param keysExtractor Keys of an entity, null or empty if the entity has none
+	 */
+	public MultiValuedIndex(String name, Function<V, ? extends Collection<K>> keysExtractor) {
+		super(name);
+		this.keysExtractor = keysExtractor;
+	}
+
+	/**
+	 * Gets the ids of the entities having the key.
+	 * @param key Key
+	 * @return Unmodifiable view of entity ids in no particular order
+	 */
+	public Set<Long> getIds(K key) {
+		var ids = store().ids.get(key);
+		return ids == null ? Set.of() : Collections.unmodifiableSet(ids);
+	}
+
+	@Override
+	protected MultiValuedStore newStore() {
+		return new MultiValuedStore();
+	}
+
+	/**
+	 * Ids by key, with the keys of every id to find its entries on change.
+	 */
+	protected class MultiValuedStore implements Store<V> {
+
+		private final Map<K, Set<Long>> ids = new ConcurrentHashMap<>();
+		private final Map<Long, Set<K>> keys = new ConcurrentHashMap<>();
+
+		@Override
+		public void put(long id, V value) {
+			var extracted = keysExtractor.apply(value);
+			var current = extracted == null ? Set.<K>of() : Set.copyOf(extracted);
+			var previous = current.isEmpty() ? keys.remove(id) : keys.put(id, current);
+			if (previous != null) {
+				for (var key : previous) {
+					if (!current.contains(key)) {
+						unindex(key, id);
+					}
+				}
+			}
+			for (var key : current) {
+				if (previous == null || !previous.contains(key)) {
+					ids.compute(key, (k, set) -> {
+						var result = set == null ? ConcurrentHashMap.<Long>newKeySet() : set;
+						result.add(id);
+						return result;
+					});
+				}
+			}
+		}
+
+		@Override
+		public void remove(long id) {
+			var previous = keys.remove(id);
+			if (previous != null) {
+				previous.forEach(key -> unindex(key, id));
+			}
+		}
+
+		@Override
+		public long footprint() {
+			long entries = 0;
+			for (var entityKeys : keys.values()) {
+				entries += entityKeys.size();
+			}
+			return keys.size() * MAP_ENTRY_BYTES + entries * (SET_ENTRY_BYTES + Long.BYTES)
+					+ ids.size() * MAP_ENTRY_BYTES;
+		}
+
+		private void unindex(K key, long id) {
+			ids.computeIfPresent(key, (k, set) -> {
+				set.remove(id);
+				return set.isEmpty() ? null : set;
+			});
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package org.example.dao.index;
+
+import org.example.model.User;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Trigram index of user names for substring search. Every name is split into its overlapping three character
+ * fragments, and every fragment keeps the ids of the users whose names contain it. The candidates for a query
+ * are the users having all trigrams of the query, walked in the rarest trigram. Candidates still have to be
+ * verified, since sharing all trigrams doesn't mean containing the query. Queries shorter than a trigram walk
+ * all users. Ids are walked in ascending order, so pages are stable.
+ */
+@Component
+public class NameTrigramIndex {
+
+	private static final int GRAM = 3;
+	private static final int STRIPES = 64;
+
+	private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+	private final Map<Long, String> names = new ConcurrentHashMap<>();
+	private final NavigableSet<Long> allIds = new ConcurrentSkipListSet<>();
+	private final Object[] locks = new Object[STRIPES];
+
+	@Autowired
+	public NameTrigramIndex(InMemoryStorage<User> userStorage) {
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+		userStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, User user) {
+				put(id, user.getName());
+			}
+
+			@Override
+			public void onRemove(long id, User user) {
+				remove(id);
+			}
+		});
+		userStorage.getData().forEach((id, user) -> put(id, user.getName()));
+	}
+
+	/**
+	 * Gets the ids of the users whose names may contain the fragment, in ascending order.
+	 * Every user whose name contains the fragment is among the candidates.
+	 * @param fragment Name fragment
+	 * @return Candidate user ids
+	 */
+	public Stream<Long> getCandidateIds(String fragment) {
+		return getCandidateIds(fragment, Long.MIN_VALUE);
+	}
+
+	/**
+	 * Gets the ids of the users whose names may contain the fragment, greater than the provided id,
+	 * in ascending order. The walk starts at the id, so it costs the same for every page.
+	 * @param fragment Name fragment
+	 * @param afterId User id to start after
+	 * @return Candidate user ids
+	 */
+	public Stream<Long> getCandidateIds(String fragment, long afterId) {
+		if (fragment.length() < GRAM) {
+			return allIds.tailSet(afterId, false).stream();
+		}
+		var matched = new ArrayList<Posting>();
+		for (var gram : trigrams(fragment)) {
+			var posting = postings.get(gram);
+			if (posting == null) {
+				return Stream.empty();
+			}
+			matched.add(posting);
+		}
+		matched.sort(Comparator.comparingInt(posting -> posting.size.get()));
+		var rarest = matched.get(0);
+		var others = matched.subList(1, matched.size());
+		return rarest.ids.tailSet(afterId, false).stream().filter(id -> containedInAll(others, id));
+	}
+
+	private static boolean containedInAll(List<Posting> postings, Long userId) {
+		for (var posting : postings) {
+			if (!posting.ids.contains(userId)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void put(long userId, String name) {
+		synchronized (lockFor(userId)) {
+			var previous = name == null ? names.remove(userId) : names.put(userId, name);
+			allIds.add(userId);
+			if (name != null && name.equals(previous)) {
+				return;
+			}
+			var removed = previous == null ? Set.<String>of() : trigrams(previous);
+			var added = name == null ? Set.<String>of() : trigrams(name);
+			for (var gram : removed) {
+				if (!added.contains(gram)) {
+					unpost(gram, userId);
+				}
+			}
+			for (var gram : added) {
+				if (!removed.contains(gram)) {
+					postings.computeIfAbsent(gram, g -> new Posting()).add(userId);
+				}
+			}
+		}
+	}
+
+	private void remove(long userId) {
+		synchronized (lockFor(userId)) {
+			allIds.remove(userId);
+			var previous = names.remove(userId);
+			if (previous != null) {
+				for (var gram : trigrams(previous)) {
+					unpost(gram, userId);
+				}
+			}
+		}
+	}
+
+	private void unpost(String gram, long userId) {
+		var posting = postings.get(gram);
+		if (posting != null) {
+			posting.remove(userId);
+		}
+	}
+
+	private Object lockFor(long userId) {
+		return locks[(int) (userId & (STRIPES - 1))];
+	}
+
+	private static Set<String> trigrams(String text) {
+		var grams = new HashSet<String>();
+		for (int i = 0; i + GRAM <= text.length(); i++) {
+			grams.add(text.substring(i, i + GRAM));
+		}
+		return grams;
+	}
+
+	/**
+	 * Sorted user ids of a trigram with their count, since the size of a skip list set is not constant time.
+	 */
+	private static final class Posting {
+		private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+		private final AtomicInteger size = new AtomicInteger();
+
+		private void add(long userId) {
+			if (ids.add(userId)) {
+				size.incrementAndGet();
+			}
+		}
+
+		private void remove(long userId) {
+			if (ids.remove(userId)) {
+				size.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package org.example.dao.index;
+
+import org.example.model.Ticket;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Occupancy bitmaps of the seats of events, one bit per place. A seat is claimed by a ticket before the ticket
+ * is stored, and the claim is a compare-and-set of the bit, so two concurrent bookings can't both take the same seat
+ * and the check never looks at other tickets. The claimed seat is assigned to the ticket, and storing the ticket takes
+ * the seat over; a ticket stored without an assigned seat claims its seat when stored and is rejected if the seat is
+ * taken. The index follows the ticket storage, releasing the seat of a ticket when the ticket is removed or replaced.
+ * Places are numbered per event, or per event and category if the categories have separate seats.
+ * Tickets don't change their seat once stored.
+ */
+@Component
+public class SeatIndex {
+
+	private static final int CHUNK_BITS = 10;
+	private static final int WORDS_PER_CHUNK = (1 << CHUNK_BITS) / Long.SIZE;
+
+	private final Map<Section, Seats> sections = new ConcurrentHashMap<>();
+	private final Set<Ticket> assigned = ConcurrentHashMap.newKeySet();
+	private final boolean byCategory;
+
+	@Autowired
+	public SeatIndex(InMemoryStorage<Ticket> ticketStorage, @Value("${tickets.seats.by.category:true}") boolean byCategory) {
+		this.byCategory = byCategory;
+		ticketStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Ticket ticket) {
+				occupy(ticket);
+			}
+
+			@Override
+			public void onRemove(long id, Ticket ticket) {
+				release(ticket.getEventId(), ticket.getCategory(), ticket.getPlace());
+			}
+		});
+		ticketStorage.getData().values().forEach(this::occupy);
+	}
+
+	/**
+	 * Claims the seat.
+	 * @param eventId Event id
+	 * @param category Ticket category
+	 * @param place Place number
+	 * @return true if the seat was free, otherwise - false
+	 * @throws IllegalArgumentException if the place number is negative
+	 */
+	public boolean claim(long eventId, Ticket.Category category, int place) {
+		checkPlace(place);
+		return sections.computeIfAbsent(section(eventId, category), key -> new Seats()).claim(place);
+	}
+
+	/**
+	 * Releases the seat.
+	 * @param eventId Event id
+	 * @param category Ticket category
+	 * @param place Place number
+	 * @return true if the seat was taken, otherwise - false
+	 */
+	public boolean release(long eventId, Ticket.Category category, int place) {
+		var seats = sections.get(section(eventId, category));
+		return place >= 0 && seats != null && seats.release(place);
+	}
+
+	/**
+	 * Checks if the seat is taken.
+	 * @param eventId Event id
+	 * @param category Ticket category
+	 * @param place Place number
+	 * @return true if the seat is taken, otherwise - false
+	 */
+	public boolean isTaken(long eventId, Ticket.Category category, int place) {
+		var seats = sections.get(section(eventId, category));
+		return place >= 0 && seats != null && seats.isTaken(place);
+	}
+
+	/**
+	 * Assigns the claimed seat to the ticket about to be stored, so storing the ticket takes the seat over instead of
+	 * claiming it again. The seat must be released with {@link #cancel(Ticket)} if the ticket fails to be stored.
+	 * Tickets are told apart by identity.
+	 * @param ticket Ticket whose seat is claimed
+	 */
+	public void assign(Ticket ticket) {
+		if (ticket.getPlace() >= 0) {
+			assigned.add(ticket);
+		}
+	}
+
+	/**
+	 * Releases the seat assigned to the ticket, unless storing the ticket took the seat over.
+	 * @param ticket Ticket whose seat is assigned
+	 * @return true if the seat was released, otherwise - false
+	 */
+	public boolean cancel(Ticket ticket) {
+		return assigned.remove(ticket) && release(ticket.getEventId(), ticket.getCategory(), ticket.getPlace());
+	}
+
+	/**
+	 * Claims the seats of the tickets and assigns them to the tickets, or claims none of them if a seat is taken,
+	 * either by a stored ticket or by a preceding ticket of the collection. Tickets without a place are skipped.
+	 * @param tickets Tickets
+	 * @return Optional of the first ticket whose seat is taken
+	 */
+	public Optional<Ticket> claimAll(Collection<Ticket> tickets) {
+		var claimed = new ArrayList<Ticket>(tickets.size());
+		for (var ticket : tickets) {
+			if (ticket.getPlace() < 0) {
+				continue;
+			}
+			if (!claim(ticket.getEventId(), ticket.getCategory(), ticket.getPlace())) {
+				for (int i = claimed.size() - 1; i >= 0; i--) {
+					var released = claimed.get(i);
+					release(released.getEventId(), released.getCategory(), released.getPlace());
+				}
+				return Optional.of(ticket);
+			}
+			claimed.add(ticket);
+		}
+		assigned.addAll(claimed);
+		return Optional.empty();
+	}
+
+	/**
+	 * Releases the seats assigned to the tickets, except the ones taken over by storing the tickets.
+	 * @param tickets Tickets whose seats are assigned
+	 */
+	public void cancelAll(Collection<Ticket> tickets) {
+		tickets.forEach(this::cancel);
+	}
+
+	/**
+	 * Takes over the seat assigned to the stored ticket, or claims the seat if none is assigned.
+	 * @throws IllegalStateException if the seat is taken, which rejects the stored ticket
+	 */
+	private void occupy(Ticket ticket) {
+		var place = ticket.getPlace();
+		if (place < 0 || assigned.remove(ticket)) {
+			return;
+		}
+		if (!claim(ticket.getEventId(), ticket.getCategory(), place)) {
+			throw new IllegalStateException("Place " + place + " is already booked");
+		}
+	}
+
+	private Section section(long eventId, Ticket.Category category) {
+		return new Section(eventId, byCategory ? category : null);
+	}
+
+	private static void checkPlace(int place) {
+		if (place < 0) {
+			throw new IllegalArgumentException("Invalid place: " + place);
+		}
+	}
+
+	/**
+	 * Event, or event and category, whose places are numbered together.
+	 */
+	private static final class Section {
+		private final long eventId;
+		private final Ticket.Category category;
+
+		private Section(long eventId, Ticket.Category category) {
+			this.eventId = eventId;
+			this.category = category;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Section)) {
+				return false;
+			}
+			var other = (Section) o;
+			return eventId == other.eventId && category == other.category;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(eventId, category);
+		}
+	}
+
+	/**
+	 * Bitmap of the seats of a section. The bitmap is split into chunks of 1024 places that are allocated on first use,
+	 * and growing the bitmap copies the chunk references only, so no claim is lost while it grows.
+	 */
+	private static final class Seats {
+
+		private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+		private boolean claim(int place) {
+			var chunk = chunkFor(place);
+			var word = word(place);
+			var bit = bit(place);
+			while (true) {
+				var current = chunk.get(word);
+				if ((current & bit) != 0) {
+					return false;
+				}
+				if (chunk.compareAndSet(word, current, current | bit)) {
+					return true;
+				}
+			}
+		}
+
+		private boolean release(int place) {
+			var chunk = chunkOrNull(place);
+			if (chunk == null) {
+				return false;
+			}
+			var word = word(place);
+			var bit = bit(place);
+			while (true) {
+				var current = chunk.get(word);
+				if ((current & bit) == 0) {
+					return false;
+				}
+				if (chunk.compareAndSet(word, current, current & ~bit)) {
+					return true;
+				}
+			}
+		}
+
+		private boolean isTaken(int place) {
+			var chunk = chunkOrNull(place);
+			return chunk != null && (chunk.get(word(place)) & bit(place)) != 0;
+		}
+
+		private AtomicLongArray chunkOrNull(int place) {
+			var current = chunks;
+			var chunkIndex = place >>> CHUNK_BITS;
+			return chunkIndex < current.length ? current[chunkIndex] : null;
+		}
+
+		private AtomicLongArray chunkFor(int place) {
+			var chunk = chunkOrNull(place);
+			if (chunk != null) {
+				return chunk;
+			}
+			var chunkIndex = place >>> CHUNK_BITS;
+			synchronized (this) {
+				var current = chunks;
+				if (chunkIndex < current.length && current[chunkIndex] != null) {
+					return current[chunkIndex];
+				}
+				var grown = Arrays.copyOf(current, Math.max(current.length, chunkIndex + 1));
+				grown[chunkIndex] = new AtomicLongArray(WORDS_PER_CHUNK);
+				chunks = grown;
+				return grown[chunkIndex];
+			}
+		}
+
+		private static int word(int place) {
+			return (place & ((1 << CHUNK_BITS) - 1)) >>> 6;
+		}
+
+		private static long bit(int place) {
+			return 1L << (place & (Long.SIZE - 1));
+		}
+	}
+}
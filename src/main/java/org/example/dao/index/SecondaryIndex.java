@@ -0,0 +1,169 @@
+package org.example.dao.index;
+
+import java.util.Map;
+
+/**
+ * Secondary index of repository entities by a key taken from the entity with a key extractor.
+ * Indexes are registered in an {@link IndexRegistry}, which keeps them consistent with the entity storage.
+ * <p>
+ * The entries live in a store that can be rebuilt online: a fresh store is filled from the primary map
+ * while changes keep being applied to both stores, and replaces the current one when it is complete.
+ * Changes of an entity and its rebuild are serialized by lock stripes on the entity id, and the rebuild
+ * reads the entity under the stripe, so the fresh store can't miss a change or keep a stale value.
+ * A change reads the store being built before the current store, and the rebuild publishes the fresh store
+ * before it stops building it, so a change that races with the swap still reaches the fresh store.
+ * @param <V> Type of indexed entities
+ * @param <S> Type of the index store
+ */
+public abstract class SecondaryIndex<V, S extends SecondaryIndex.Store<V>> {
+
+	/**
+	 * Estimated size of a hash map entry with a boxed id.
+	 */
+	protected static final long MAP_ENTRY_BYTES = 64;
+	/**
+	 * Estimated size of a hash set entry with a boxed id.
+	 */
+	protected static final long SET_ENTRY_BYTES = 48;
+	/**
+	 * Estimated size of a skip list entry with its index nodes.
+	 */
+	protected static final long SKIP_LIST_ENTRY_BYTES = 72;
+
+	private static final int STRIPES = 64;
+
+	private final String name;
+	private final Object[] locks = new Object[STRIPES];
+	private volatile S store;
+	private volatile S building;
+
+	protected SecondaryIndex(String name) {
+		this.name = name;
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Gets the name of the index, unique within its registry.
+	 * @return Index name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Estimates the memory taken by the index entries. Keys are not counted, since they are
+	 * usually shared with the entities.
+	 * @return Estimated size in bytes
+	 */
+	public long estimateFootprint() {
+		var current = store;
+		return current == null ? 0 : current.footprint();
+	}
+
+	/**
+	 * Indexes the entity, replacing the previous entries of the entity id.
+	 * @param id Entity id
+	 * @param value Entity
+	 */
+	void put(long id, V value) {
+		synchronized (lockFor(id)) {
+			var fresh = building;
+			var current = store;
+			if (current != null) {
+				current.put(id, value);
+			}
+			if (fresh != null && fresh != current) {
+				fresh.put(id, value);
+			}
+		}
+	}
+
+	/**
+	 * Removes the entries of the entity id.
+	 * @param id Entity id
+	 */
+	void remove(long id) {
+		synchronized (lockFor(id)) {
+			var fresh = building;
+			var current = store;
+			if (current != null) {
+				current.remove(id);
+			}
+			if (fresh != null && fresh != current) {
+				fresh.remove(id);
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the index from the primary map while the map keeps changing.
+	 * @param data Primary map of entities by id
+	 */
+	synchronized void rebuild(Map<Long, V> data) {
+		var fresh = newStore();
+		building = fresh;
+		for (var id : data.keySet()) {
+			synchronized (lockFor(id)) {
+				var value = data.get(id);
+				if (value == null) {
+					fresh.remove(id);
+				} else {
+					fresh.put(id, value);
+				}
+			}
+		}
+		store = fresh;
+		building = null;
+	}
+
+	/**
+	 * Gets the current store for queries.
+	 * @return Index store
+	 * @throws IllegalStateException if the index was not built yet
+	 */
+	protected S store() {
+		var current = store;
+		if (current == null) {
+			throw new IllegalStateException("Index " + name + " is not built");
+		}
+		return current;
+	}
+
+	/**
+	 * Creates an empty store of the index.
+	 * @return Index store
+	 */
+	protected abstract S newStore();
+
+	private Object lockFor(long id) {
+		return locks[(int) (id & (STRIPES - 1))];
+	}
+
+	/**
+	 * Entries of an index. Calls for the same entity id are serialized by the index.
+	 * @param <V> Type of indexed entities
+	 */
+	protected interface Store<V> {
+
+		/**
+		 * Indexes the entity, replacing the previous entries of the entity id.
+		 * @param id Entity id
+		 * @param value Entity
+		 */
+		void put(long id, V value);
+
+		/**
+		 * Removes the entries of the entity id.
+		 * @param id Entity id
+		 */
+		void remove(long id);
+
+		/**
+		 * Estimates the memory taken by the entries.
+		 * @return Estimated size in bytes
+		 */
+		long footprint();
+	}
+}
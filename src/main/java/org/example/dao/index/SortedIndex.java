@@ -0,0 +1,151 @@
+package org.example.dao.index;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Sorted index of entity ids by key, answering key range queries by walking the range only.
+ * Entries with equal keys are sorted by entity id. Entities with a null key are not indexed.
+ * @param <V> Type of indexed entities
+ * @param <K> Type of the key
+ */
+public class SortedIndex<V, K extends Comparable<? super K>> extends SecondaryIndex<V, SortedIndex<V, K>.SortedStore> {
+
+	private final Function<V, K> keyExtractor;
+	private final Comparator<Entry<K>> order = Comparator
+			.comparing((Entry<K> entry) -> entry.key)
+			.thenComparingLong(entry -> entry.id);
+
+	/**
+	 * Creates the index.
+	 * @param name Index name
+	 * @param keyExtractor Key of an entity
+	 */
+	public SortedIndex(String name, Function<V, K> keyExtractor) {
+		super(name);
+		this.keyExtractor = keyExtractor;
+	}
+
+	/**
+	 * Gets the ids of the entities with keys between the provided ones, inclusive.
+	 * @param from Lowest key
+	 * @param to Highest key
+	 * @return Entity ids in key order, lazily walked
+	 */
+	public Stream<Long> range(K from, K to) {
+		if (from.compareTo(to) > 0) {
+			return Stream.empty();
+		}
+		return store().entries
+				.subSet(new Entry<>(from, Long.MIN_VALUE), true, new Entry<>(to, Long.MAX_VALUE), true)
+				.stream()
+				.map(entry -> entry.id);
+	}
+
+	/**
+	 * Gets the ids of the entities with keys between the provided ones, inclusive, that follow the entry
+	 * of the provided key and id, e.g. the last entry of the previous page.
+	 * @param from Lowest key
+	 * @param to Highest key
+	 * @param afterKey Key of the entry to start after
+	 * @param afterId Entity id of the entry to start after
+	 * @return Entity ids in key order, lazily walked
+	 */
+	public Stream<Long> range(K from, K to, K afterKey, long afterId) {
+		if (afterKey.compareTo(from) < 0) {
+			return range(from, to);
+		}
+		if (afterKey.compareTo(to) > 0) {
+			return Stream.empty();
+		}
+		return store().entries
+				.subSet(new Entry<>(afterKey, afterId), false, new Entry<>(to, Long.MAX_VALUE), true)
+				.stream()
+				.map(entry -> entry.id);
+	}
+
+	/**
+	 * Gets the ids of all indexed entities that follow the entry of the provided key and id.
+	 * @param afterKey Key of the entry to start after
+	 * @param afterId Entity id of the entry to start after
+	 * @return Entity ids in key order, lazily walked
+	 */
+	public Stream<Long> ascending(K afterKey, long afterId) {
+		return store().entries.tailSet(new Entry<>(afterKey, afterId), false).stream().map(entry -> entry.id);
+	}
+
+	/**
+	 * Gets the ids of all indexed entities.
+	 * @return Entity ids in key order, lazily walked
+	 */
+	public Stream<Long> ascending() {
+		return store().entries.stream().map(entry -> entry.id);
+	}
+
+	/**
+	 * Checks if the entity has a key, entities without a key are not indexed.
+	 * @param entity Entity
+	 * @return true if the entity is indexed, otherwise - false
+	 */
+	public boolean covers(V entity) {
+		return keyExtractor.apply(entity) != null;
+	}
+
+	@Override
+	protected SortedStore newStore() {
+		return new SortedStore();
+	}
+
+	/**
+	 * Entries sorted by key, with the entry of every id to find it on change.
+	 */
+	protected class SortedStore implements Store<V> {
+
+		private final NavigableSet<Entry<K>> entries = new ConcurrentSkipListSet<>(order);
+		private final Map<Long, Entry<K>> entriesById = new ConcurrentHashMap<>();
+
+		@Override
+		public void put(long id, V value) {
+			var key = keyExtractor.apply(value);
+			var entry = key == null ? null : new Entry<>(key, id);
+			var previous = entry == null ? entriesById.remove(id) : entriesById.put(id, entry);
+			if (previous != null) {
+				entries.remove(previous);
+			}
+			if (entry != null) {
+				entries.add(entry);
+			}
+		}
+
+		@Override
+		public void remove(long id) {
+			var previous = entriesById.remove(id);
+			if (previous != null) {
+				entries.remove(previous);
+			}
+		}
+
+		@Override
+		public long footprint() {
+			return entriesById.size() * (MAP_ENTRY_BYTES + SKIP_LIST_ENTRY_BYTES);
+		}
+	}
+
+	/**
+	 * Key of an entity in the index.
+	 */
+	private static final class Entry<K> {
+		private final K key;
+		private final long id;
+
+		private Entry(K key, long id) {
+			this.key = key;
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package org.example.dao.index;
+
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
+import org.example.model.Ticket;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Index of tickets grouped by one entity the ticket refers to and sorted by an attribute of another one,
+ * e.g. the tickets of a user sorted by the event date. The index follows the ticket storage and the storage
+ * of the sorting entity, so a ticket is re-sorted when the attribute of its sorting entity changes.
+ * A page that follows a cursor seeks to the key of the cursor, so it costs the page size only. A page read with
+ * an offset walks past the skipped tickets of its group, because the skip list can't seek by position; it is
+ * independent of the number of all tickets, but deep pages of a large group should be read with cursors.
+ * @param <S> Type of the entity that defines the ticket order
+ * @param <A> Type of the sorting attribute
+ */
+public abstract class SortedTicketIndex<S, A> {
+
+	private static final int STRIPES = 64;
+
+	private final ToLongFunction<Ticket> groupOf;
+	private final ToLongFunction<Ticket> sourceOf;
+	private final Function<S, A> attributeOf;
+	private final Class<A> attributeType;
+	private final Comparator<Key<A>> order;
+
+	private final Map<Long, NavigableSet<Key<A>>> ticketsByGroup = new ConcurrentHashMap<>();
+	private final Map<Long, Key<A>> keysByTicket = new ConcurrentHashMap<>();
+	private final Map<Long, Set<Long>> ticketsBySource = new ConcurrentHashMap<>();
+	private final Map<Long, A> attributes = new ConcurrentHashMap<>();
+	private final Object[] locks = new Object[STRIPES];
+
+	/**
+	 * Creates the index and fills it with the existing tickets.
+	 * @param ticketStorage Ticket storage
+	 * @param sourceStorage Storage of the entities that define the ticket order
+	 * @param groupOf Id of the group of a ticket
+	 * @param sourceOf Id of the entity that defines the order of a ticket
+	 * @param attributeOf Sorting attribute of an entity, null attributes are sorted last
+	 * @param attributeType Type of the sorting attribute, one of the {@link Cursor} key types
+	 * @param attributeOrder Order of the attributes
+	 */
+	protected SortedTicketIndex(InMemoryStorage<Ticket> ticketStorage, InMemoryStorage<S> sourceStorage,
+								ToLongFunction<Ticket> groupOf, ToLongFunction<Ticket> sourceOf,
+								Function<S, A> attributeOf, Class<A> attributeType, Comparator<A> attributeOrder) {
+		this.groupOf = groupOf;
+		this.sourceOf = sourceOf;
+		this.attributeOf = attributeOf;
+		this.attributeType = attributeType;
+		this.order = Comparator
+				.comparing((Key<A> key) -> key.attribute, Comparator.nullsLast(attributeOrder))
+				.thenComparingLong(key -> key.sourceId)
+				.thenComparingLong(key -> key.ticketId);
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+		sourceStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, S source) {
+				attributeChanged(id, attributeOf.apply(source));
+			}
+
+			@Override
+			public void onRemove(long id, S source) {
+				attributeChanged(id, null);
+			}
+		});
+		ticketStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Ticket ticket) {
+				put(id, ticket);
+			}
+
+			@Override
+			public void onRemove(long id, Ticket ticket) {
+				remove(id);
+			}
+		});
+		sourceStorage.getData().forEach((id, source) -> attributeChanged(id, attributeOf.apply(source)));
+		ticketStorage.getData().forEach(this::put);
+	}
+
+	/**
+	 * Gets a page of the ticket ids of the group in the index order. The page costs its offset plus its size.
+	 * @param groupId Group id
+	 * @param offset Number of tickets to skip
+	 * @param limit Maximal number of tickets
+	 * @return Ticket ids
+	 */
+	public List<Long> getTicketIds(long groupId, long offset, int limit) {
+		var keys = ticketsByGroup.get(groupId);
+		if (keys == null) {
+			return List.of();
+		}
+		return keys.stream()
+				.skip(offset)
+				.limit(limit)
+				.map(key -> key.ticketId)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets a page of the ticket ids of the group in the index order, starting after the cursor.
+	 * @param groupId Group id
+	 * @param after Cursor of the last ticket of the previous page or null for the first page
+	 * @param limit Maximal number of tickets
+	 * @return Ticket ids with the cursor of the next page
+	 * @throws IllegalArgumentException if the cursor was not made by this index
+	 */
+	public Page<Long> getTicketIds(long groupId, Cursor after, int limit) {
+		NavigableSet<Key<A>> keys = ticketsByGroup.get(groupId);
+		if (keys == null) {
+			return Page.empty();
+		}
+		if (after != null) {
+			if (after.size() != 3) {
+				throw new IllegalArgumentException("Invalid cursor: " + after);
+			}
+			var key = new Key<>(after.get(0, attributeType), after.getLong(1), after.getLong(2), groupId);
+			keys = keys.tailSet(key, false);
+		}
+		var fetched = keys.stream()
+				.limit(limit + 1L)
+				.collect(Collectors.toList());
+		return Page.of(fetched, limit, key -> Cursor.of(key.attribute, key.sourceId, key.ticketId))
+				.map(key -> key.ticketId);
+	}
+
+	private void put(long ticketId, Ticket ticket) {
+		var groupId = groupOf.applyAsLong(ticket);
+		var sourceId = sourceOf.applyAsLong(ticket);
+		synchronized (lockFor(ticketId)) {
+			var old = keysByTicket.get(ticketId);
+			if (old != null) {
+				if (old.groupId == groupId && old.sourceId == sourceId) {
+					return;
+				}
+				unindex(old);
+			}
+			// registered before the attribute is read, so a concurrent attribute change either sees the ticket
+			// or is seen by it
+			register(sourceId, ticketId);
+			index(new Key<>(attributes.get(sourceId), sourceId, ticketId, groupId));
+		}
+	}
+
+	private void remove(long ticketId) {
+		synchronized (lockFor(ticketId)) {
+			var old = keysByTicket.get(ticketId);
+			if (old != null) {
+				unindex(old);
+			}
+		}
+	}
+
+	private void attributeChanged(long sourceId, A attribute) {
+		var previous = attribute == null ? attributes.remove(sourceId) : attributes.put(sourceId, attribute);
+		if (Objects.equals(previous, attribute)) {
+			return;
+		}
+		for (var ticketId : ticketsBySource.getOrDefault(sourceId, Set.of())) {
+			synchronized (lockFor(ticketId)) {
+				var old = keysByTicket.get(ticketId);
+				var current = attributes.get(sourceId);
+				if (old != null && old.sourceId == sourceId && !Objects.equals(old.attribute, current)) {
+					unindex(old);
+					register(sourceId, ticketId);
+					index(new Key<>(current, sourceId, ticketId, old.groupId));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the key to the set of its group. The set is changed inside the map update, so it can't be dropped
+	 * as empty by a concurrent removal while the key is added.
+	 */
+	private void index(Key<A> key) {
+		ticketsByGroup.compute(key.groupId, (id, keys) -> {
+			var groupKeys = keys == null ? new ConcurrentSkipListSet<>(order) : keys;
+			groupKeys.add(key);
+			return groupKeys;
+		});
+		keysByTicket.put(key.ticketId, key);
+	}
+
+	/**
+	 * Removes the key from the set of its group and the ticket from the set of its source,
+	 * dropping the sets that become empty.
+	 */
+	private void unindex(Key<A> key) {
+		ticketsByGroup.computeIfPresent(key.groupId, (id, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+		keysByTicket.remove(key.ticketId);
+		ticketsBySource.computeIfPresent(key.sourceId, (id, tickets) -> {
+			tickets.remove(key.ticketId);
+			return tickets.isEmpty() ? null : tickets;
+		});
+	}
+
+	private void register(long sourceId, long ticketId) {
+		ticketsBySource.compute(sourceId, (id, tickets) -> {
+			var sourceTickets = tickets == null ? ConcurrentHashMap.<Long>newKeySet() : tickets;
+			sourceTickets.add(ticketId);
+			return sourceTickets;
+		});
+	}
+
+	/**
+	 * Gets the number of groups with indexed tickets.
+	 * @return Number of groups
+	 */
+	int groupCount() {
+		return ticketsByGroup.size();
+	}
+
+	private Object lockFor(long ticketId) {
+		return locks[(int) (ticketId & (STRIPES - 1))];
+	}
+
+	/**
+	 * Position of a ticket in the index.
+	 */
+	private static final class Key<A> {
+		private final A attribute;
+		private final long sourceId;
+		private final long ticketId;
+		private final long groupId;
+
+		private Key(A attribute, long sourceId, long ticketId, long groupId) {
+			this.attribute = attribute;
+			this.sourceId = sourceId;
+			this.ticketId = ticketId;
+			this.groupId = groupId;
+		}
+	}
+}
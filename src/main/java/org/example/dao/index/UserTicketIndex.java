@@ -0,0 +1,24 @@
+package org.example.dao.index;
+
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.repository.InMemoryStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Index of the tickets of every user, ordered by the date of the ticket event in descending order.
+ * Tickets of events without a date come last.
+ */
+@Component
+public class UserTicketIndex extends SortedTicketIndex<Event, LocalDate> {
+
+	@Autowired
+	public UserTicketIndex(InMemoryStorage<Ticket> ticketStorage, InMemoryStorage<Event> eventStorage) {
+		super(ticketStorage, eventStorage, Ticket::getUserId, Ticket::getEventId, Event::getDate,
+				LocalDate.class, Comparator.reverseOrder());
+	}
+}
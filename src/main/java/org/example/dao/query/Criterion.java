@@ -0,0 +1,257 @@
+package org.example.dao.query;
+
+import org.example.dao.index.HashIndex;
+import org.example.dao.index.MultiValuedIndex;
+import org.example.dao.index.SecondaryIndex;
+import org.example.dao.index.SortedIndex;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Predicate on an entity attribute. The attribute is named, so the planner can look up an index of the same name.
+ * @param <V> Type of entities
+ */
+public abstract class Criterion<V> {
+
+	private final String attribute;
+
+	private Criterion(String attribute) {
+		this.attribute = attribute;
+	}
+
+	/**
+	 * Matches the entities with the attribute equal to the value.
+	 * Can be answered by a {@link HashIndex} or a {@link SortedIndex} of the attribute.
+	 * @param attribute Attribute name
+	 * @param extractor Attribute of an entity
+	 * @param value Attribute value
+	 * @param <V> Type of entities
+	 * @param <K> Type of the attribute
+	 * @return Criterion
+	 */
+	public static <V, K> Criterion<V> equalTo(String attribute, Function<V, K> extractor, K value) {
+		return new Equal<>(attribute, extractor, Objects.requireNonNull(value));
+	}
+
+	/**
+	 * Matches the entities with the attribute between the values, inclusive.
+	 * Can be answered by a {@link SortedIndex} of the attribute.
+	 * @param attribute Attribute name
+	 * @param extractor Attribute of an entity
+	 * @param from Lowest value
+	 * @param to Highest value
+	 * @param <V> Type of entities
+	 * @param <K> Type of the attribute
+	 * @return Criterion
+	 */
+	public static <V, K extends Comparable<? super K>> Criterion<V> between(String attribute, Function<V, K> extractor,
+																			K from, K to) {
+		return new Range<>(attribute, extractor, Objects.requireNonNull(from), Objects.requireNonNull(to));
+	}
+
+	/**
+	 * Matches the entities with the value among the attribute values.
+	 * Can be answered by a {@link MultiValuedIndex} of the attribute.
+	 * @param attribute Attribute name
+	 * @param extractor Attribute values of an entity
+	 * @param value Attribute value
+	 * @param <V> Type of entities
+	 * @param <K> Type of the attribute values
+	 * @return Criterion
+	 */
+	public static <V, K> Criterion<V> hasElement(String attribute, Function<V, ? extends Collection<K>> extractor,
+												 K value) {
+		return new Element<>(attribute, extractor, Objects.requireNonNull(value));
+	}
+
+	/**
+	 * Matches the entities with the text attribute containing the fragment. Always evaluated as a filter.
+	 * @param attribute Attribute name
+	 * @param extractor Attribute of an entity
+	 * @param fragment Text fragment
+	 * @param <V> Type of entities
+	 * @return Criterion
+	 */
+	public static <V> Criterion<V> contains(String attribute, Function<V, String> extractor, String fragment) {
+		return new Contains<>(attribute, extractor, Objects.requireNonNull(fragment));
+	}
+
+	/**
+	 * Gets the name of the attribute.
+	 * @return Attribute name
+	 */
+	public String getAttribute() {
+		return attribute;
+	}
+
+	/**
+	 * Checks if the entity matches.
+	 * @param entity Entity
+	 * @return true if the entity matches, otherwise - false
+	 */
+	public abstract boolean test(V entity);
+
+	/**
+	 * Looks up the ids of candidate entities in the index of the attribute.
+	 * @param index Index with the attribute name
+	 * @return Candidate ids in index order, or null if the index can't answer the criterion
+	 */
+	abstract Stream<Long> lookup(SecondaryIndex<V, ?> index);
+
+	/**
+	 * Looks up the ids of candidate entities that follow the cursor in the index of the attribute.
+	 * Only ordered lookups skip the preceding candidates, other lookups return all candidates.
+	 * @param index Index with the attribute name
+	 * @param afterKey Attribute value of the cursor
+	 * @param afterId Entity id of the cursor
+	 * @return Candidate ids in index order, or null if the index can't answer the criterion
+	 */
+	Stream<Long> lookup(SecondaryIndex<V, ?> index, Object afterKey, long afterId) {
+		return lookup(index);
+	}
+
+	/**
+	 * Checks if the ids looked up in a sorted index come in the order of the attribute.
+	 * @return true if the lookup is a range walk of a sorted index, otherwise - false
+	 */
+	boolean isOrderedLookup() {
+		return false;
+	}
+
+	private static final class Equal<V, K> extends Criterion<V> {
+		private final Function<V, K> extractor;
+		private final K value;
+
+		private Equal(String attribute, Function<V, K> extractor, K value) {
+			super(attribute);
+			this.extractor = extractor;
+			this.value = value;
+		}
+
+		@Override
+		public boolean test(V entity) {
+			return value.equals(extractor.apply(entity));
+		}
+
+		@Override
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Stream<Long> lookup(SecondaryIndex<V, ?> index) {
+			if (index instanceof HashIndex) {
+				return ((HashIndex<V, K>) index).getIds(value).stream();
+			}
+			if (index instanceof SortedIndex && value instanceof Comparable) {
+				var comparable = (Comparable) value;
+				return ((SortedIndex) index).range(comparable, comparable);
+			}
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return getAttribute() + " = " + value;
+		}
+	}
+
+	private static final class Range<V, K extends Comparable<? super K>> extends Criterion<V> {
+		private final Function<V, K> extractor;
+		private final K from;
+		private final K to;
+
+		private Range(String attribute, Function<V, K> extractor, K from, K to) {
+			super(attribute);
+			this.extractor = extractor;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean test(V entity) {
+			var value = extractor.apply(entity);
+			return value != null && value.compareTo(from) >= 0 && value.compareTo(to) <= 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Stream<Long> lookup(SecondaryIndex<V, ?> index) {
+			return index instanceof SortedIndex ? ((SortedIndex<V, K>) index).range(from, to) : null;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Stream<Long> lookup(SecondaryIndex<V, ?> index, Object afterKey, long afterId) {
+			if (!(index instanceof SortedIndex)) {
+				return null;
+			}
+			// entities without the attribute come last, so none of the range follows them
+			return afterKey == null ? Stream.empty() : ((SortedIndex<V, K>) index).range(from, to, (K) afterKey, afterId);
+		}
+
+		@Override
+		boolean isOrderedLookup() {
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return getAttribute() + " BETWEEN " + from + " AND " + to;
+		}
+	}
+
+	private static final class Element<V, K> extends Criterion<V> {
+		private final Function<V, ? extends Collection<K>> extractor;
+		private final K value;
+
+		private Element(String attribute, Function<V, ? extends Collection<K>> extractor, K value) {
+			super(attribute);
+			this.extractor = extractor;
+			this.value = value;
+		}
+
+		@Override
+		public boolean test(V entity) {
+			var values = extractor.apply(entity);
+			return values != null && values.contains(value);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Stream<Long> lookup(SecondaryIndex<V, ?> index) {
+			return index instanceof MultiValuedIndex ? ((MultiValuedIndex<V, K>) index).getIds(value).stream() : null;
+		}
+
+		@Override
+		public String toString() {
+			return value + " IN " + getAttribute();
+		}
+	}
+
+	private static final class Contains<V> extends Criterion<V> {
+		private final Function<V, String> extractor;
+		private final String fragment;
+
+		private Contains(String attribute, Function<V, String> extractor, String fragment) {
+			super(attribute);
+			this.extractor = extractor;
+			this.fragment = fragment;
+		}
+
+		@Override
+		public boolean test(V entity) {
+			var value = extractor.apply(entity);
+			return value != null && value.contains(fragment);
+		}
+
+		@Override
+		Stream<Long> lookup(SecondaryIndex<V, ?> index) {
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return getAttribute() + " CONTAINS '" + fragment + "'";
+		}
+	}
+}
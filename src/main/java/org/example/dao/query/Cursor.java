@@ -0,0 +1,203 @@
+package org.example.dao.query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Position in a sorted list of entities, made of the sort key of the last entity of a page.
+ * The next page starts right after the key, so it costs the same however deep it is, and entities added
+ * or removed before the key don't shift it. Cursors are passed to clients as opaque url-safe tokens.
+ * Keys are made of longs, integers, doubles, strings, dates and nulls.
+ */
+public final class Cursor {
+
+	private static final byte VERSION = 1;
+	private static final byte NULL = 0;
+	private static final byte LONG = 1;
+	private static final byte INTEGER = 2;
+	private static final byte DOUBLE = 3;
+	private static final byte STRING = 4;
+	private static final byte DATE = 5;
+
+	private final List<Object> keys;
+
+	private Cursor(List<Object> keys) {
+		this.keys = keys;
+	}
+
+	/**
+	 * Creates the cursor.
+	 * @param keys Sort key of the last entity of a page
+	 * @return Cursor
+	 * @throws IllegalArgumentException if a key is of an unsupported type
+	 */
+	public static Cursor of(Object... keys) {
+		for (var key : keys) {
+			if (key != null && !(key instanceof Long || key instanceof Integer || key instanceof Double
+					|| key instanceof String || key instanceof LocalDate)) {
+				throw new IllegalArgumentException("Unsupported cursor key: " + key.getClass().getName());
+			}
+		}
+		return new Cursor(Collections.unmodifiableList(Arrays.asList(keys.clone())));
+	}
+
+	/**
+	 * Decodes the token made by {@link #encode()}.
+	 * @param token Cursor token
+	 * @return Cursor or null if the token is null or empty, which stands for the first page
+	 * @throws IllegalArgumentException if the token is not a valid cursor
+	 */
+	public static Cursor decode(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		try {
+			var in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)));
+			if (in.readByte() != VERSION) {
+				throw new IllegalArgumentException("Invalid cursor: " + token);
+			}
+			var size = in.readUnsignedByte();
+			var keys = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				keys.add(readKey(in));
+			}
+			if (in.available() > 0) {
+				throw new IllegalArgumentException("Invalid cursor: " + token);
+			}
+			return new Cursor(Collections.unmodifiableList(keys));
+		} catch (IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + token, e);
+		}
+	}
+
+	/**
+	 * Encodes the cursor as an url-safe token.
+	 * @return Cursor token
+	 */
+	public String encode() {
+		var bytes = new ByteArrayOutputStream(32);
+		var out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(VERSION);
+			out.writeByte(keys.size());
+			for (var key : keys) {
+				writeKey(out, key);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * Gets the key at the position.
+	 * @param position Position of the key
+	 * @param type Expected type of the key
+	 * @param <T> Type of the key
+	 * @return Key, may be null
+	 * @throws IllegalArgumentException if the cursor has no such key or the key is of another type,
+	 * i.e. the cursor was made for another list
+	 */
+	public <T> T get(int position, Class<T> type) {
+		if (position >= keys.size()) {
+			throw new IllegalArgumentException("Invalid cursor: " + this);
+		}
+		var key = keys.get(position);
+		if (key != null && !type.isInstance(key)) {
+			throw new IllegalArgumentException("Invalid cursor: " + this);
+		}
+		return type.cast(key);
+	}
+
+	/**
+	 * Gets the key at the position that can't be null.
+	 * @param position Position of the key
+	 * @return Key
+	 * @throws IllegalArgumentException if the cursor has no such key or the key is not a long
+	 */
+	public long getLong(int position) {
+		var key = get(position, Long.class);
+		if (key == null) {
+			throw new IllegalArgumentException("Invalid cursor: " + this);
+		}
+		return key;
+	}
+
+	/**
+	 * Gets the number of keys.
+	 * @return Number of keys
+	 */
+	public int size() {
+		return keys.size();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof Cursor && keys.equals(((Cursor) o).keys);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(keys);
+	}
+
+	/**
+	 * Gets the token of the cursor.
+	 */
+	@Override
+	public String toString() {
+		return encode();
+	}
+
+	private static void writeKey(DataOutputStream out, Object key) throws IOException {
+		if (key == null) {
+			out.writeByte(NULL);
+		} else if (key instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) key);
+		} else if (key instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) key);
+		} else if (key instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) key);
+		} else if (key instanceof String) {
+			out.writeByte(STRING);
+			out.writeUTF((String) key);
+		} else {
+			out.writeByte(DATE);
+			out.writeLong(((LocalDate) key).toEpochDay());
+		}
+	}
+
+	private static Object readKey(DataInputStream in) throws IOException {
+		var type = in.readByte();
+		switch (type) {
+			case NULL:
+				return null;
+			case LONG:
+				return in.readLong();
+			case INTEGER:
+				return in.readInt();
+			case DOUBLE:
+				return in.readDouble();
+			case STRING:
+				return in.readUTF();
+			case DATE:
+				return LocalDate.ofEpochDay(in.readLong());
+			default:
+				throw new IOException("Unknown cursor key type: " + type);
+		}
+	}
+}
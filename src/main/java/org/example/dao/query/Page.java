@@ -0,0 +1,76 @@
+package org.example.dao.query;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Page of a list read with a {@link Cursor}, with the token of the cursor of the next page.
+ * @param <T> Type of items
+ */
+public class Page<T> {
+
+	private final List<T> items;
+	private final String nextCursor;
+
+	/**
+	 * Creates the page.
+	 * @param items Items of the page
+	 * @param nextCursor Cursor token of the next page or null if this page is the last one
+	 */
+	public Page(List<T> items, String nextCursor) {
+		this.items = List.copyOf(items);
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Creates the page from the items read past the page, which tell if a next page exists.
+	 * @param fetched Items of the page followed by at least one more item if there is a next page
+	 * @param limit Page size
+	 * @param cursorOf Cursor of an item
+	 * @param <T> Type of items
+	 * @return Page of at most limit items
+	 */
+	public static <T> Page<T> of(List<T> fetched, int limit, Function<? super T, Cursor> cursorOf) {
+		if (fetched.size() <= limit) {
+			return new Page<>(fetched, null);
+		}
+		var items = fetched.subList(0, limit);
+		return new Page<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+	}
+
+	/**
+	 * Gets the empty last page.
+	 * @param <T> Type of items
+	 * @return Empty page
+	 */
+	public static <T> Page<T> empty() {
+		return new Page<>(List.of(), null);
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Checks if there is a next page.
+	 * @return true if there is a next page, otherwise - false
+	 */
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+
+	/**
+	 * Maps the items of the page, keeping the cursor of the next page.
+	 * @param mapper Item mapper
+	 * @param <R> Type of mapped items
+	 * @return Mapped page
+	 */
+	public <R> Page<R> map(Function<? super T, ? extends R> mapper) {
+		return new Page<>(items.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+	}
+}
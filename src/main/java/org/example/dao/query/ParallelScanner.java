@@ -0,0 +1,148 @@
+package org.example.dao.query;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Scanner of entity collections for queries without a usable index. Collections of at least the threshold size
+ * are split into partitions that are filtered on a dedicated fork-join pool, so the scan is bounded by the pool
+ * parallelism and doesn't take the threads of the common pool or of other requests. Matches are sorted by
+ * the provided order, which makes the result independent of how the partitions were scheduled.
+ * A scan for the first matches keeps only that many per partition, see {@link TopK}.
+ */
+@Component
+public class ParallelScanner {
+
+	private static final int MIN_PARTITION_SIZE = 1024;
+
+	private final int threshold;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates the scanner.
+	 * @param parallelism Maximal number of threads of a scan, 1 disables parallel scans
+	 * @param threshold Minimal size of collections that are scanned in parallel
+	 */
+	@Autowired
+	public ParallelScanner(@Value("${query.scan.parallelism:4}") int parallelism,
+						   @Value("${query.scan.threshold:50000}") int threshold) {
+		this.threshold = threshold;
+		this.pool = parallelism > 1 ? new ForkJoinPool(parallelism, ParallelScanner::newThread, null, false) : null;
+	}
+
+	/**
+	 * Creates the scanner that scans all collections on the calling thread.
+	 * @return Sequential scanner
+	 */
+	public static ParallelScanner sequential() {
+		return new ParallelScanner(1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Checks if a collection of the size is scanned in parallel.
+	 * @param size Collection size
+	 * @return true if the scan is parallel, otherwise - false
+	 */
+	public boolean isParallel(long size) {
+		return pool != null && size >= threshold;
+	}
+
+	/**
+	 * Gets the matching entities of the collection.
+	 * @param entities Entities
+	 * @param predicate Predicate of matching entities
+	 * @param order Total order of the result
+	 * @param <V> Type of entities
+	 * @return Matching entities sorted by the order
+	 */
+	public <V> List<V> filter(Collection<V> entities, Predicate<? super V> predicate, Comparator<? super V> order) {
+		return filter(entities, predicate, order, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Gets the first matching entities of the collection in the order.
+	 * @param entities Entities
+	 * @param predicate Predicate of matching entities
+	 * @param order Total order of the result
+	 * @param limit Maximal number of entities
+	 * @param <V> Type of entities
+	 * @return First matching entities sorted by the order
+	 */
+	public <V> List<V> filter(Collection<V> entities, Predicate<? super V> predicate, Comparator<? super V> order,
+							  long limit) {
+		if (!isParallel(entities.size())) {
+			return entities.stream().filter(predicate).collect(TopK.first(limit, order));
+		}
+		var partitionSize = Math.max(MIN_PARTITION_SIZE, entities.size() / (pool.getParallelism() * 4));
+		return pool.invoke(new ScanTask<>(entities.spliterator(), predicate, order, limit, partitionSize)).toList();
+	}
+
+	/**
+	 * Stops the scan threads.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+	}
+
+	private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+		var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("query-scan-" + thread.getPoolIndex());
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/**
+	 * Splits the partition in halves until it is small enough, then selects the first matches of it.
+	 */
+	private static final class ScanTask<V> extends RecursiveTask<TopK<V>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Spliterator<V> partition;
+		private final Predicate<? super V> predicate;
+		private final Comparator<? super V> order;
+		private final long limit;
+		private final long partitionSize;
+
+		private ScanTask(Spliterator<V> partition, Predicate<? super V> predicate, Comparator<? super V> order,
+						 long limit, long partitionSize) {
+			this.partition = partition;
+			this.predicate = predicate;
+			this.order = order;
+			this.limit = limit;
+			this.partitionSize = partitionSize;
+		}
+
+		@Override
+		protected TopK<V> compute() {
+			var prefix = partition.estimateSize() > partitionSize ? partition.trySplit() : null;
+			if (prefix == null) {
+				var matches = new TopK<V>(limit, order);
+				partition.forEachRemaining(entity -> {
+					if (predicate.test(entity)) {
+						matches.add(entity);
+					}
+				});
+				return matches;
+			}
+			var left = new ScanTask<>(prefix, predicate, order, limit, partitionSize);
+			left.fork();
+			var right = new ScanTask<>(partition, predicate, order, limit, partitionSize).compute();
+			return left.join().addAll(right);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package org.example.dao.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Query of repository entities: criteria that all have to match, an optional sort order and a page.
+ * A page is either numbered or starts after a {@link Cursor} made of the sort key and the id of an entity.
+ * @param <V> Type of entities
+ */
+public class Query<V> {
+
+	private final List<Criterion<V>> criteria = new ArrayList<>();
+	private String sortAttribute;
+	private Function<V, ?> sortKey;
+	private Comparator<Object> keyOrder;
+	private Comparator<V> comparator;
+	private boolean descending;
+	private long offset;
+	private int limit = Integer.MAX_VALUE;
+	private Cursor after;
+
+	/**
+	 * Adds the criterion.
+	 * @param criterion Criterion
+	 * @return This query
+	 */
+	public Query<V> where(Criterion<V> criterion) {
+		criteria.add(criterion);
+		return this;
+	}
+
+	/**
+	 * Sorts the entities by the attribute in ascending order, entities without the attribute come last.
+	 * @param attribute Attribute name
+	 * @param extractor Attribute of an entity
+	 * @param <K> Type of the attribute
+	 * @return This query
+	 */
+	public <K extends Comparable<? super K>> Query<V> orderBy(String attribute, Function<V, K> extractor) {
+		return orderBy(attribute, extractor, false);
+	}
+
+	/**
+	 * Sorts the entities by the attribute in descending order, entities without the attribute come last.
+	 * @param attribute Attribute name
+	 * @param extractor Attribute of an entity
+	 * @param <K> Type of the attribute
+	 * @return This query
+	 */
+	public <K extends Comparable<? super K>> Query<V> orderByDescending(String attribute, Function<V, K> extractor) {
+		return orderBy(attribute, extractor, true);
+	}
+
+	/**
+	 * Limits the result to a page.
+	 * @param pageSize Number of entities per page
+	 * @param pageNum Number of the page, starting from 1
+	 * @return This query
+	 */
+	public Query<V> page(int pageSize, int pageNum) {
+		offset = pageSize * (pageNum - 1L);
+		limit = pageSize;
+		return this;
+	}
+
+	/**
+	 * Limits the result to the entities following the cursor.
+	 * @param cursor Cursor of the last entity of the previous page or null for the first page
+	 * @param pageSize Number of entities per page
+	 * @return This query
+	 */
+	public Query<V> after(Cursor cursor, int pageSize) {
+		after = cursor;
+		offset = 0;
+		limit = pageSize;
+		return this;
+	}
+
+	public List<Criterion<V>> getCriteria() {
+		return Collections.unmodifiableList(criteria);
+	}
+
+	public String getSortAttribute() {
+		return sortAttribute;
+	}
+
+	public Function<V, ?> getSortKey() {
+		return sortKey;
+	}
+
+	/**
+	 * Gets the order of the sort keys, nulls last.
+	 * @return Key order or null if the query is not sorted
+	 */
+	public Comparator<Object> getKeyOrder() {
+		return keyOrder;
+	}
+
+	public Comparator<V> getComparator() {
+		return comparator;
+	}
+
+	public boolean isDescending() {
+		return descending;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public Cursor getAfter() {
+		return after;
+	}
+
+	/**
+	 * Gets the sort key the page starts after.
+	 * @return Sort key of the cursor, null if the query is not sorted or the key is null
+	 * @throws IllegalArgumentException if the cursor was made for another query
+	 */
+	public Object getAfterKey() {
+		checkCursor();
+		return sortKey == null ? null : after.get(0, Object.class);
+	}
+
+	/**
+	 * Gets the entity id the page starts after, among the entities with the sort key of the cursor.
+	 * @return Entity id of the cursor
+	 * @throws IllegalArgumentException if the cursor was made for another query
+	 */
+	public long getAfterId() {
+		checkCursor();
+		return after.getLong(after.size() - 1);
+	}
+
+	/**
+	 * Makes the cursor of the page that ends with the entity.
+	 * @param entity Last entity of the page
+	 * @param id Id of the entity
+	 * @return Cursor
+	 */
+	public Cursor cursorOf(V entity, long id) {
+		return sortKey == null ? Cursor.of(id) : Cursor.of(sortKey.apply(entity), id);
+	}
+
+	private void checkCursor() {
+		if (after == null || after.size() != (sortKey == null ? 1 : 2)) {
+			throw new IllegalArgumentException("Invalid cursor: " + after);
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private <K extends Comparable<? super K>> Query<V> orderBy(String attribute, Function<V, K> extractor,
+															   boolean descending) {
+		Comparator<K> direction = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+		Comparator<K> order = Comparator.nullsLast(direction);
+		this.sortAttribute = attribute;
+		this.sortKey = extractor;
+		this.keyOrder = (Comparator) order;
+		this.comparator = Comparator.comparing(extractor, order);
+		this.descending = descending;
+		return this;
+	}
+}
@@ -0,0 +1,223 @@
+package org.example.dao.query;
+
+import org.example.model.Identifiable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Plan of a query chosen by the {@link QueryPlanner}: where the candidate entities come from,
+ * which criteria filter them and whether they have to be sorted. Entities that are equal in the query order,
+ * or all entities of a query without one, come in id order, so pages of a query don't overlap.
+ * Candidates that have to be sorted are not sorted in full, only the first ones up to the end of the page are kept,
+ * see {@link TopK}.
+ * @param <V> Type of entities
+ */
+public class QueryPlan<V extends Identifiable> {
+
+	/**
+	 * Source of the candidate entities.
+	 */
+	public enum Access {
+		/**
+		 * Candidates are looked up in an index by one of the criteria.
+		 */
+		INDEX_LOOKUP,
+		/**
+		 * All entities are walked in the order of a sorted index.
+		 */
+		INDEX_ORDER,
+		/**
+		 * All entities are walked in storage order.
+		 */
+		FULL_SCAN
+	}
+
+	private final Query<V> query;
+	private final Access access;
+	private final String index;
+	private final long estimatedRows;
+	private final boolean sortedByIndex;
+	private final Supplier<Stream<V>> source;
+	private final Collection<V> entities;
+	private final ParallelScanner scanner;
+	private final Object afterKey;
+	private final long afterId;
+
+	/**
+	 * Creates the plan that reads the candidates from an index.
+	 */
+	QueryPlan(Query<V> query, Access access, String index, long estimatedRows, boolean sortedByIndex,
+			  Supplier<Stream<V>> source) {
+		this(query, access, index, estimatedRows, sortedByIndex, source, null, null);
+	}
+
+	/**
+	 * Creates the plan that scans all entities.
+	 */
+	QueryPlan(Query<V> query, Collection<V> entities, ParallelScanner scanner) {
+		this(query, Access.FULL_SCAN, null, entities.size(), false, null, entities, scanner);
+	}
+
+	private QueryPlan(Query<V> query, Access access, String index, long estimatedRows, boolean sortedByIndex,
+					  Supplier<Stream<V>> source, Collection<V> entities, ParallelScanner scanner) {
+		this.query = query;
+		this.access = access;
+		this.index = index;
+		this.estimatedRows = estimatedRows;
+		this.sortedByIndex = sortedByIndex;
+		this.source = source;
+		this.entities = entities;
+		this.scanner = scanner;
+		if (query.getAfter() != null) {
+			afterKey = query.getAfterKey();
+			afterId = query.getAfterId();
+		} else {
+			afterKey = null;
+			afterId = 0;
+		}
+	}
+
+	public Access getAccess() {
+		return access;
+	}
+
+	/**
+	 * Gets the name of the index the candidates come from.
+	 * @return Index name or null for a full scan
+	 */
+	public String getIndex() {
+		return index;
+	}
+
+	/**
+	 * Gets the estimated number of candidate entities, which is exact for hash index lookups and full scans.
+	 * @return Number of candidates
+	 */
+	public long getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	/**
+	 * Checks if the candidates already come in the query order, so the page is read without sorting.
+	 * @return true if no sort is required, otherwise - false
+	 */
+	public boolean isSortedByIndex() {
+		return sortedByIndex;
+	}
+
+	/**
+	 * Checks if the full scan runs in parallel.
+	 * @return true if the entities are scanned in parallel, otherwise - false
+	 */
+	public boolean isParallel() {
+		return scanner != null && scanner.isParallel(estimatedRows);
+	}
+
+	/**
+	 * Runs the plan.
+	 * @return Page of matching entities
+	 */
+	public List<V> execute() {
+		return matches(query.getOffset() + query.getLimit())
+				.skip(query.getOffset())
+				.limit(query.getLimit())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Runs the plan and makes the cursor of the next page.
+	 * @return Page of matching entities
+	 */
+	public Page<V> executePage() {
+		var fetched = matches(query.getOffset() + query.getLimit() + 1L)
+				.skip(query.getOffset())
+				.limit(query.getLimit() + 1L)
+				.collect(Collectors.toList());
+		return Page.of(fetched, query.getLimit(), entity -> query.cursorOf(entity, entity.getId()));
+	}
+
+	/**
+	 * Describes the plan, one step per line.
+	 */
+	@Override
+	public String toString() {
+		var plan = new StringBuilder();
+		plan.append(access);
+		if (index != null) {
+			plan.append(" ").append(index);
+		}
+		plan.append(" (~").append(estimatedRows).append(" rows");
+		if (isParallel()) {
+			plan.append(", parallel");
+		}
+		plan.append(")");
+		for (var criterion : query.getCriteria()) {
+			plan.append("\n  FILTER ").append(criterion);
+		}
+		if (query.getComparator() != null) {
+			plan.append(sortedByIndex ? "\n  ORDERED BY INDEX " : "\n  SORT ")
+					.append(query.getSortAttribute())
+					.append(query.isDescending() ? " DESC" : " ASC");
+			if (!sortedByIndex && query.getLimit() != Integer.MAX_VALUE) {
+				plan.append(" TOP ").append(query.getOffset() + query.getLimit());
+			}
+		}
+		if (query.getAfter() != null) {
+			plan.append("\n  PAGE after ");
+			if (query.getSortKey() != null) {
+				plan.append(afterKey).append(", ");
+			}
+			plan.append("id ").append(afterId).append(" limit ").append(query.getLimit());
+		} else if (query.getOffset() > 0 || query.getLimit() != Integer.MAX_VALUE) {
+			plan.append("\n  PAGE offset ").append(query.getOffset()).append(" limit ").append(query.getLimit());
+		}
+		return plan.toString();
+	}
+
+	/**
+	 * Gets the matching entities in the query order.
+	 * @param bound Number of the first entities that are read
+	 */
+	private Stream<V> matches(long bound) {
+		if (source == null) {
+			return scanner.filter(entities, this::matches, order(), bound).stream();
+		}
+		var matches = source.get().filter(this::matches);
+		return sortedByIndex ? matches : matches.collect(TopK.first(bound, order())).stream();
+	}
+
+	private boolean matches(V entity) {
+		if (query.getAfter() != null && !isAfterCursor(entity)) {
+			return false;
+		}
+		for (var criterion : query.getCriteria()) {
+			if (!criterion.test(entity)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isAfterCursor(V entity) {
+		if (query.getSortKey() == null) {
+			return entity.getId() > afterId;
+		}
+		int comparison;
+		try {
+			comparison = query.getKeyOrder().compare(query.getSortKey().apply(entity), afterKey);
+		} catch (ClassCastException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + query.getAfter(), e);
+		}
+		return comparison > 0 || comparison == 0 && entity.getId() > afterId;
+	}
+
+	private Comparator<V> order() {
+		Comparator<V> byId = Comparator.comparingLong(Identifiable::getId);
+		return query.getComparator() == null ? byId : query.getComparator().thenComparing(byId);
+	}
+}
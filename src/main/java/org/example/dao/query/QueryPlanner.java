@@ -0,0 +1,115 @@
+package org.example.dao.query;
+
+import org.example.dao.index.IndexRegistry;
+import org.example.dao.index.SortedIndex;
+import org.example.model.Identifiable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Planner of repository queries. Every criterion that an index of its attribute can answer is a candidate plan,
+ * and the one with the fewest candidate entities wins. Range sizes are counted by walking the range only as far
+ * as the best plan so far, so probing an unselective range stays cheap. Without a usable index, a query sorted
+ * by an attribute with a sorted index walks that index, otherwise the planner falls back to a full scan,
+ * which runs in parallel for large repositories.
+ * @param <V> Type of entities
+ */
+public class QueryPlanner<V extends Identifiable> {
+
+	private final IndexRegistry<V> indexes;
+	private final Collection<V> entities;
+	private final LongFunction<Optional<V>> lookup;
+	private final ParallelScanner scanner;
+
+	/**
+	 * Creates the planner.
+	 * @param indexes Indexes of the repository
+	 * @param entities All entities of the repository
+	 * @param lookup Entity by id
+	 * @param scanner Scanner of full scans
+	 */
+	public QueryPlanner(IndexRegistry<V> indexes, Collection<V> entities, LongFunction<Optional<V>> lookup,
+						ParallelScanner scanner) {
+		this.indexes = indexes;
+		this.entities = entities;
+		this.lookup = lookup;
+		this.scanner = scanner;
+	}
+
+	/**
+	 * Plans the query.
+	 * @param query Query
+	 * @return Query plan
+	 */
+	public QueryPlan<V> plan(Query<V> query) {
+		long total = entities.size();
+		Criterion<V> best = null;
+		long bestRows = total;
+		for (var criterion : query.getCriteria()) {
+			var index = indexes.get(criterion.getAttribute());
+			var ids = index == null ? null : criterion.lookup(index);
+			if (ids == null) {
+				continue;
+			}
+			var rows = ids.limit(bestRows + 1).count();
+			if (best == null || rows < bestRows) {
+				best = criterion;
+				bestRows = rows;
+			}
+		}
+		if (best != null) {
+			var chosen = best;
+			var index = indexes.get(chosen.getAttribute());
+			var sorted = query.getComparator() != null && !query.isDescending() && chosen.isOrderedLookup()
+					&& chosen.getAttribute().equals(query.getSortAttribute());
+			return new QueryPlan<>(query, QueryPlan.Access.INDEX_LOOKUP, chosen.getAttribute(), bestRows, sorted,
+					() -> fetch(sorted && query.getAfter() != null
+							? seek(query, () -> chosen.lookup(index, query.getAfterKey(), query.getAfterId()))
+							: chosen.lookup(index)));
+		}
+		var sortIndex = query.getSortAttribute() == null ? null : indexes.get(query.getSortAttribute());
+		if (sortIndex instanceof SortedIndex && !query.isDescending()) {
+			var ordered = (SortedIndex<?, ?>) sortIndex;
+			return new QueryPlan<>(query, QueryPlan.Access.INDEX_ORDER, sortIndex.getName(), total, true,
+					() -> fetchWithUnindexed(query, ordered));
+		}
+		return new QueryPlan<>(query, entities, scanner);
+	}
+
+	private Stream<V> fetch(Stream<Long> ids) {
+		return ids.map(id -> lookup.apply(id)).flatMap(Optional::stream);
+	}
+
+	/**
+	 * Walks the sorted index from the cursor, followed by the entities it doesn't index because their attribute
+	 * is null, which the query order puts last.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Stream<V> fetchWithUnindexed(Query<V> query, SortedIndex index) {
+		Stream<Long> ids;
+		if (query.getAfter() == null) {
+			ids = index.ascending();
+		} else {
+			var afterKey = query.getAfterKey();
+			ids = afterKey == null ? Stream.empty()
+					: seek(query, () -> index.ascending((Comparable) afterKey, query.getAfterId()));
+		}
+		var unindexed = entities.stream()
+				.filter(entity -> !index.covers(entity))
+				.sorted(Comparator.comparingLong(Identifiable::getId));
+		return Stream.concat(fetch(ids), unindexed);
+	}
+
+	private static Stream<Long> seek(Query<?> query, Supplier<Stream<Long>> ids) {
+		try {
+			return ids.get();
+		} catch (ClassCastException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + query.getAfter(), e);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package org.example.dao.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Selection of the first k entries of an order. The entries are kept in a heap whose root is the last kept entry,
+ * so an entry that doesn't precede the root is rejected with one comparison. Selecting the first k of n entries
+ * takes O(n log k) time and O(k) memory, instead of sorting all n entries to read a page of the first ones.
+ * A selection of {@link Integer#MAX_VALUE} or more entries is treated as unbounded: it keeps every entry and sorts
+ * them once.
+ * @param <T> Type of entries
+ */
+public final class TopK<T> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final long k;
+	private final Comparator<? super T> order;
+	private final PriorityQueue<T> heap;
+	private final List<T> entries;
+
+	/**
+	 * Creates an empty selection.
+	 * @param k Maximal number of kept entries
+	 * @param order Order of the entries
+	 */
+	public TopK(long k, Comparator<? super T> order) {
+		if (k < 0) {
+			throw new IllegalArgumentException("Invalid number of entries: " + k);
+		}
+		this.k = k;
+		this.order = order;
+		if (k < Integer.MAX_VALUE) {
+			heap = new PriorityQueue<>((int) Math.min(k + 1, INITIAL_CAPACITY), Collections.reverseOrder(order));
+			entries = null;
+		} else {
+			heap = null;
+			entries = new ArrayList<>();
+		}
+	}
+
+	/**
+	 * Creates the collector of the first entries of a stream.
+	 * @param k Maximal number of collected entries
+	 * @param order Order of the entries
+	 * @param <T> Type of entries
+	 * @return Collector of the sorted first entries
+	 */
+	public static <T> Collector<T, ?, List<T>> first(long k, Comparator<? super T> order) {
+		return Collector.of(() -> new TopK<T>(k, order), TopK::add, TopK::addAll, TopK::toList);
+	}
+
+	/**
+	 * Adds the entry, dropping the last kept entry if the entry precedes it and the selection is full.
+	 * @param entry Entry
+	 */
+	public void add(T entry) {
+		if (heap == null) {
+			entries.add(entry);
+		} else if (heap.size() < k) {
+			heap.add(entry);
+		} else if (k > 0 && order.compare(entry, heap.peek()) < 0) {
+			heap.poll();
+			heap.add(entry);
+		}
+	}
+
+	/**
+	 * Adds the kept entries of another selection.
+	 * @param other Selection of the same order
+	 * @return This selection
+	 */
+	public TopK<T> addAll(TopK<T> other) {
+		var kept = other.heap == null ? other.entries : other.heap;
+		if (heap == null) {
+			entries.addAll(kept);
+		} else {
+			kept.forEach(this::add);
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the number of kept entries.
+	 * @return Number of entries
+	 */
+	public int size() {
+		return heap == null ? entries.size() : heap.size();
+	}
+
+	/**
+	 * Gets the kept entries.
+	 * @return Entries sorted by the order
+	 */
+	public List<T> toList() {
+		var sorted = new ArrayList<T>(heap == null ? entries : heap);
+		sorted.sort(order);
+		return sorted;
+	}
+}
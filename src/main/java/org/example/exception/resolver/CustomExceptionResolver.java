@@ -31,6 +31,8 @@ public class CustomExceptionResolver extends AbstractHandlerExceptionResolver {
 			return handlePdfGenerationException((PdfGenerationException) ex);
 		} else if (ex instanceof IllegalArgumentException){
 			return handleIllegalArgumentException((IllegalArgumentException) ex);
+		} else if (ex instanceof IllegalStateException){
+			return handleIllegalStateException((IllegalStateException) ex);
 		} else{
 			return handleException(ex);
 		}
@@ -75,6 +77,19 @@ public class CustomExceptionResolver extends AbstractHandlerExceptionResolver {
 		return modelAndView;
 	}
 
+	/**
+	 * Handles IllegalStateException
+	 * @param ex thrown IllegalStateException
+	 * @return model with view name, response status, and message
+	 */
+	private ModelAndView handleIllegalStateException(IllegalStateException ex) {
+		var modelAndView = new ModelAndView();
+		modelAndView.setViewName(ERROR_VIEW_NAME);
+		modelAndView.setStatus(HttpStatus.CONFLICT);
+		modelAndView.addObject(MESSAGE, ex.getMessage());
+		return modelAndView;
+	}
+
 	/**
 	 * Handles generic exceptions
 	 * @param ex thrown Exception
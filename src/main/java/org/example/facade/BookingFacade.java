@@ -1,5 +1,6 @@
 package org.example.facade;
 
+import org.example.dao.query.Page;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.User;
@@ -21,7 +22,8 @@ public interface BookingFacade {
 	Event getEventById(long eventId);
 
 	/**
-	 * Get list of events by matching title. Title is matched using 'contains' approach.
+	 * Get list of events by matching title, the most relevant first. Title is matched by words ignoring case,
+	 * the event title must contain every word, the last word may be the beginning of a word.
 	 * In case nothing was found, empty list is returned.
 	 *
 	 * @param title    Event title or it's part.
@@ -31,6 +33,28 @@ public interface BookingFacade {
 	 */
 	List<Event> getEventsByTitle(String title, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of events by matching title, the most relevant first, following the cursor.
+	 * Title is matched like in {@link #getEventsByTitle(String, int, int)}.
+	 *
+	 * @param title    Event title or it's part.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of events to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Event> getEventsByTitle(String title, String cursor, int pageSize);
+
+	/**
+	 * Get events with titles starting with the prefix, to suggest them while the title is typed.
+	 * Titles are matched ignoring case and the events are sorted by title.
+	 *
+	 * @param prefix Title prefix.
+	 * @param limit  Maximal number of events to return, cut to the maximal page size.
+	 * @return List of events.
+	 */
+	List<Event> suggestEvents(String prefix, int limit);
+
 	/**
 	 * Get list of events for specified day.
 	 * In case nothing was found, empty list is returned.
@@ -42,6 +66,41 @@ public interface BookingFacade {
 	 */
 	List<Event> getEventsForDay(LocalDate day, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of events for specified day, following the cursor.
+	 *
+	 * @param day      Date object from which day information is extracted.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of events to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Event> getEventsForDay(LocalDate day, String cursor, int pageSize);
+
+	/**
+	 * Get list of events between the specified days, inclusive, sorted by date.
+	 * In case nothing was found, empty list is returned.
+	 *
+	 * @param from     First day.
+	 * @param to       Last day.
+	 * @param pageSize Pagination param. Number of events to return on a page.
+	 * @param pageNum  Pagination param. Number of the page to return. Starts from 1.
+	 * @return List of events.
+	 */
+	List<Event> getEventsBetween(LocalDate from, LocalDate to, int pageSize, int pageNum);
+
+	/**
+	 * Get a page of events between the specified days, inclusive, sorted by date, following the cursor.
+	 *
+	 * @param from     First day.
+	 * @param to       Last day.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of events to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Event> getEventsBetween(LocalDate from, LocalDate to, String cursor, int pageSize);
+
 	/**
 	 * Creates new event. Event id should be auto-generated.
 	 *
@@ -91,6 +150,17 @@ public interface BookingFacade {
 	 */
 	List<User> getUsersByName(String name, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of users by matching name, sorted by id, following the cursor. Name is matched using 'contains' approach.
+	 *
+	 * @param name     Users name or it's part.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of users to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<User> getUsersByName(String name, String cursor, int pageSize);
+
 	/**
 	 * Creates new user. User id should be auto-generated.
 	 *
@@ -127,6 +197,19 @@ public interface BookingFacade {
 	 */
 	Ticket bookTicket(long userId, long eventId, Ticket.Category category, int place);
 
+	/**
+	 * Book tickets for a group, claiming all the places of the event or none of them.
+	 *
+	 * @param userId   User Id.
+	 * @param eventId  Event Id.
+	 * @param category Service category.
+	 * @param places   Distinct place numbers.
+	 * @return Booked ticket objects in the order of the places.
+	 * @throws java.lang.IllegalStateException if any of the places has already been booked, in which case none of them is booked.
+	 * @throws java.lang.IllegalArgumentException if there are no places, or a place is repeated or negative.
+	 */
+	List<Ticket> bookTickets(long userId, long eventId, Ticket.Category category, List<Integer> places);
+
 	/**
 	 * Get all booked tickets for specified user. Tickets should be sorted by event date in descending order.
 	 *
@@ -137,6 +220,17 @@ public interface BookingFacade {
 	 */
 	List<Ticket> getBookedTickets(User user, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets for specified user, sorted by event date in descending order, following the cursor.
+	 *
+	 * @param user     User
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of tickets to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Ticket> getBookedTickets(User user, String cursor, int pageSize);
+
 	/**
 	 * Get all booked tickets for specified event. Tickets should be sorted in by user email in ascending order.
 	 *
@@ -147,6 +241,17 @@ public interface BookingFacade {
 	 */
 	List<Ticket> getBookedTickets(Event event, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets for specified event, sorted by user email in ascending order, following the cursor.
+	 *
+	 * @param event    Event
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of tickets to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Ticket> getBookedTickets(Event event, String cursor, int pageSize);
+
 	/**
 	 * Cancel ticket with a specified id.
 	 *
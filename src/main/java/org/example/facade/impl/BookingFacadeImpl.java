@@ -1,14 +1,16 @@
 package org.example.facade.impl;
 
+import org.example.dao.query.Page;
 import org.example.facade.BookingFacade;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.User;
-import org.example.preloader.DataPreloader;
+import org.example.preloader.PreloadOrchestrator;
 import org.example.service.EventService;
 import org.example.service.TicketService;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
@@ -16,6 +18,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Component
+@DependsOn("storageJournal")
 public class BookingFacadeImpl implements BookingFacade {
 
 
@@ -25,22 +28,22 @@ public class BookingFacadeImpl implements BookingFacade {
 
 	private final UserService userService;
 
-	private final List<DataPreloader<?>> dataPreloaders;
+	private final PreloadOrchestrator preloadOrchestrator;
 
 	@Autowired
-	public BookingFacadeImpl(EventService eventService, TicketService ticketService, UserService userService, List<DataPreloader<?>> dataPreloaders) {
+	public BookingFacadeImpl(EventService eventService, TicketService ticketService, UserService userService, PreloadOrchestrator preloadOrchestrator) {
 		this.eventService = eventService;
 		this.ticketService = ticketService;
 		this.userService = userService;
-		this.dataPreloaders = dataPreloaders;
+		this.preloadOrchestrator = preloadOrchestrator;
 	}
 
 	/**
-	 * Preloads data from xml files.
+	 * Preloads data from xml files. Runs after the storage journal was replayed.
 	 */
 	@PostConstruct
 	private void preloadData() {
-		dataPreloaders.forEach(DataPreloader::preloadData);
+		preloadOrchestrator.preload();
 	}
 
 	/**
@@ -59,6 +62,22 @@ public class BookingFacadeImpl implements BookingFacade {
 		return eventService.getEventsByTitle(title, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Event> getEventsByTitle(String title, String cursor, int pageSize) {
+		return eventService.getEventsByTitle(title, cursor, pageSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Event> suggestEvents(String prefix, int limit) {
+		return eventService.suggestEvents(prefix, limit);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -67,6 +86,30 @@ public class BookingFacadeImpl implements BookingFacade {
 		return eventService.getEventsForDay(day, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Event> getEventsForDay(LocalDate day, String cursor, int pageSize) {
+		return eventService.getEventsForDay(day, cursor, pageSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Event> getEventsBetween(LocalDate from, LocalDate to, int pageSize, int pageNum) {
+		return eventService.getEventsBetween(from, to, pageSize, pageNum);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Event> getEventsBetween(LocalDate from, LocalDate to, String cursor, int pageSize) {
+		return eventService.getEventsBetween(from, to, cursor, pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -115,6 +158,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return userService.getUsersByName(name, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<User> getUsersByName(String name, String cursor, int pageSize) {
+		return userService.getUsersByName(name, cursor, pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -147,6 +198,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return ticketService.bookTicket(userId, eventId, category, place);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Ticket> bookTickets(long userId, long eventId, Ticket.Category category, List<Integer> places) {
+		return ticketService.bookTickets(userId, eventId, category, places);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -155,6 +214,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return ticketService.getBookedTickets(user, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Ticket> getBookedTickets(User user, String cursor, int pageSize) {
+		return ticketService.getBookedTickets(user, cursor, pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -163,6 +230,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return ticketService.getBookedTickets(event, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Ticket> getBookedTickets(Event event, String cursor, int pageSize) {
+		return ticketService.getBookedTickets(event, cursor, pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -7,7 +7,7 @@ import java.time.LocalDate;
 /**
  * Event entity
  */
-public class Event {
+public class Event implements Identifiable {
 
 	private long id;
 
@@ -0,0 +1,11 @@
+package org.example.model;
+
+/**
+ * Entity identified by a numeric id.
+ */
+public interface Identifiable {
+
+	long getId();
+
+	void setId(long id);
+}
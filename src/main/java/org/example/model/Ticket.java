@@ -4,7 +4,7 @@ package org.example.model;
  * Ticket entity
  * @author Andrii Krokhta
  */
-public class Ticket {
+public class Ticket implements Identifiable {
 	public enum Category {STANDARD, PREMIUM, BAR}
 
 	private long id;
@@ -4,7 +4,7 @@ package org.example.model;
  * User entity
  * @author Andrii Krokhta
  */
-public class User {
+public class User implements Identifiable {
 
 	private long id;
 
@@ -6,7 +6,15 @@ public interface DataPreloader<T> {
 
 	/**
 	 * Preloads data for the type T.
-	 * @return
+	 * @return Number of preloaded entities
 	 */
-	List<T> preloadData();
+	long preloadData();
+
+	/**
+	 * Gets the preloaders whose data must be loaded before the data of this preloader.
+	 * @return Types of preloaders this preloader depends on
+	 */
+	default List<Class<? extends DataPreloader<?>>> getDependencies() {
+		return List.of();
+	}
 }
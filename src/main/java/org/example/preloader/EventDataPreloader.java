@@ -2,6 +2,7 @@ package org.example.preloader;
 
 import org.example.converter.XmlConverter;
 import org.example.model.Event;
+import org.example.repository.InMemoryStorage;
 import org.example.service.EventService;
 import org.example.service.UserService;
 import org.slf4j.Logger;
@@ -12,8 +13,6 @@ import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Data preloader for Event.
@@ -26,29 +25,40 @@ public class EventDataPreloader implements DataPreloader<Event>{
 	@Value("${events.source}")
 	private Resource eventsFile;
 
+	@Value("${preload.batch.size:1000}")
+	private int batchSize;
+
+	@Value("${preload.keep.ids:false}")
+	private boolean keepIds;
+
 	private final XmlConverter<Event> xmlConverter;
 	private final EventService eventService;
+	private final InMemoryStorage<Event> storage;
 
 	@Autowired
-	public EventDataPreloader(XmlConverter<Event> xmlConverter, EventService eventService) {
+	public EventDataPreloader(XmlConverter<Event> xmlConverter, EventService eventService, InMemoryStorage<Event> storage) {
 		this.xmlConverter = xmlConverter;
 		this.eventService = eventService;
+		this.storage = storage;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public List<Event> preloadData() {
-		List<Event> events = new ArrayList<>();
-		try {
-			events = xmlConverter.parseXmlToObjectList(eventsFile.getFile());
+	public long preloadData() {
+		if (storage.isRestored()) {
+			logger.info("Event storage was restored with {} entries, skipping event data preload.", storage.getData().size());
+			return 0;
+		}
+		long count = 0;
+		try (var inputStream = eventsFile.getInputStream()) {
+			count = xmlConverter.streamXmlObjectsInParallel(inputStream, batchSize, batch -> eventService.createEvents(batch, keepIds));
 		} catch (IOException e) {
 			logger.warn("Failed to load event data.");
 			e.printStackTrace();
 		}
-		events.forEach(eventService::createEvent);
-		logger.info("Loaded event data with {} entries.", events.size());
-		return events;
+		logger.info("Loaded event data with {} entries.", count);
+		return count;
 	}
 }
@@ -0,0 +1,104 @@
+package org.example.preloader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the data preloaders. Every preloader starts as soon as the preloaders it depends on are finished,
+ * so independent preloaders run in parallel.
+ */
+@Component
+public class PreloadOrchestrator {
+
+	private static final Logger logger = LoggerFactory.getLogger(PreloadOrchestrator.class);
+
+	private final List<DataPreloader<?>> dataPreloaders;
+
+	@Autowired
+	public PreloadOrchestrator(List<DataPreloader<?>> dataPreloaders) {
+		this.dataPreloaders = dataPreloaders;
+	}
+
+	/**
+	 * Runs all preloaders and waits for them to finish.
+	 * @return Number of preloaded entities
+	 */
+	public long preload() {
+		if (dataPreloaders.isEmpty()) {
+			logger.info("No data preloaders to run.");
+			return 0;
+		}
+		var start = System.nanoTime();
+		var threads = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(dataPreloaders.size(), runnable -> {
+			var thread = new Thread(runnable, "data-preloader-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			Map<DataPreloader<?>, CompletableFuture<Long>> phases = new HashMap<>();
+			for (var preloader : dataPreloaders) {
+				schedule(preloader, phases, new HashSet<>(), executor);
+			}
+			var entities = CompletableFuture.allOf(phases.values().toArray(CompletableFuture[]::new))
+					.thenApply(done -> phases.values().stream().mapToLong(CompletableFuture::join).sum())
+					.join();
+			logger.info("Preloaded {} entries in {} ms.", entities, elapsedMillis(start));
+			return entities;
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private CompletableFuture<Long> schedule(DataPreloader<?> preloader, Map<DataPreloader<?>, CompletableFuture<Long>> phases,
+											 Set<DataPreloader<?>> path, ExecutorService executor) {
+		var scheduled = phases.get(preloader);
+		if (scheduled != null) {
+			return scheduled;
+		}
+		if (!path.add(preloader)) {
+			throw new IllegalStateException("Cyclic dependency of data preloader " + preloader.getClass().getSimpleName());
+		}
+		var dependencies = preloader.getDependencies().stream()
+				.map(type -> schedule(find(type), phases, path, executor))
+				.toArray(CompletableFuture[]::new);
+		path.remove(preloader);
+		var phase = CompletableFuture.allOf(dependencies).thenApplyAsync(done -> run(preloader), executor);
+		phases.put(preloader, phase);
+		return phase;
+	}
+
+	private DataPreloader<?> find(Class<? extends DataPreloader<?>> type) {
+		return dataPreloaders.stream()
+				.filter(type::isInstance)
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("Missing data preloader " + type.getSimpleName()));
+	}
+
+	private static long run(DataPreloader<?> preloader) {
+		var start = System.nanoTime();
+		var entities = preloader.preloadData();
+		logger.info("{} finished in {} ms.", preloader.getClass().getSimpleName(), elapsedMillis(start));
+		return entities;
+	}
+
+	private static long elapsedMillis(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+}
@@ -2,6 +2,7 @@ package org.example.preloader;
 
 import org.example.converter.XmlConverter;
 import org.example.model.Ticket;
+import org.example.repository.InMemoryStorage;
 import org.example.service.TicketService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +12,6 @@ import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,29 +25,48 @@ public class TicketDataPreloader implements DataPreloader<Ticket>{
 	@Value("${tickets.source}")
 	private Resource ticketsFile;
 
+	@Value("${preload.batch.size:1000}")
+	private int batchSize;
+
+	@Value("${preload.keep.ids:false}")
+	private boolean keepIds;
+
 	private final XmlConverter<Ticket> xmlConverter;
 	private final TicketService ticketService;
+	private final InMemoryStorage<Ticket> storage;
 
 	@Autowired
-	public TicketDataPreloader(XmlConverter<Ticket> xmlConverter, TicketService ticketService) {
+	public TicketDataPreloader(XmlConverter<Ticket> xmlConverter, TicketService ticketService, InMemoryStorage<Ticket> storage) {
 		this.xmlConverter = xmlConverter;
 		this.ticketService = ticketService;
+		this.storage = storage;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public List<Ticket> preloadData() {
-		List<Ticket> tickets = new ArrayList<>();
-		try {
-			tickets = xmlConverter.parseXmlToObjectList(ticketsFile.getFile());
+	public long preloadData() {
+		if (storage.isRestored()) {
+			logger.info("Ticket storage was restored with {} entries, skipping ticket data preload.", storage.getData().size());
+			return 0;
+		}
+		long count = 0;
+		try (var inputStream = ticketsFile.getInputStream()) {
+			count = xmlConverter.streamXmlObjectsInParallel(inputStream, batchSize, batch -> ticketService.bookTickets(batch, keepIds));
 		} catch (IOException e) {
 			logger.warn("Failed to load ticket data.");
 			e.printStackTrace();
 		}
-		tickets.forEach(ticket -> ticketService.bookTicket(ticket.getUserId(), ticket.getEventId(), ticket.getCategory(), ticket.getPlace()));
-		logger.info("Loaded ticket data with {} entries.", tickets.size());
-		return tickets;
+		logger.info("Loaded ticket data with {} entries.", count);
+		return count;
+	}
+
+	/**
+	 * Tickets refer to users and events by the ids they get when they are preloaded.
+	 */
+	@Override
+	public List<Class<? extends DataPreloader<?>>> getDependencies() {
+		return List.of(UserDataPreloader.class, EventDataPreloader.class);
 	}
 }
@@ -2,6 +2,7 @@ package org.example.preloader;
 
 import org.example.converter.XmlConverter;
 import org.example.model.User;
+import org.example.repository.InMemoryStorage;
 import org.example.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,8 +12,6 @@ import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Data preloader for User.
@@ -25,29 +24,40 @@ public class UserDataPreloader implements DataPreloader<User>{
 	@Value("${users.source}")
 	private Resource usersFile;
 
+	@Value("${preload.batch.size:1000}")
+	private int batchSize;
+
+	@Value("${preload.keep.ids:false}")
+	private boolean keepIds;
+
 	private final XmlConverter<User> xmlConverter;
 	private final UserService userService;
+	private final InMemoryStorage<User> storage;
 
 	@Autowired
-	public UserDataPreloader(XmlConverter<User> xmlConverter, UserService userService) {
+	public UserDataPreloader(XmlConverter<User> xmlConverter, UserService userService, InMemoryStorage<User> storage) {
 		this.xmlConverter = xmlConverter;
 		this.userService = userService;
+		this.storage = storage;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public List<User> preloadData() {
-		List<User> users = new ArrayList<>();
-		try {
-			users = xmlConverter.parseXmlToObjectList(usersFile.getFile());
+	public long preloadData() {
+		if (storage.isRestored()) {
+			logger.info("User storage was restored with {} entries, skipping user data preload.", storage.getData().size());
+			return 0;
+		}
+		long count = 0;
+		try (var inputStream = usersFile.getInputStream()) {
+			count = xmlConverter.streamXmlObjectsInParallel(inputStream, batchSize, batch -> userService.createUsers(batch, keepIds));
 		} catch (IOException e) {
 			logger.warn("Failed to load user data.");
 			e.printStackTrace();
 		}
-		users.forEach(userService::createUser);
-		logger.info("Loaded user data with {} entries.", users.size());
-		return users;
+		logger.info("Loaded user data with {} entries.", count);
+		return count;
 	}
 }
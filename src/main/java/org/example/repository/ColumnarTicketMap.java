@@ -0,0 +1,449 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Ticket map with a columnar (struct-of-arrays) layout.
+ * Ticket fields are kept in parallel primitive columns with the category packed into a byte, so a stored ticket
+ * costs about 30 bytes of column space plus its id index slot instead of a ticket object, a map node and a boxed key.
+ * Rows of removed tickets are reused, which keeps the columns dense for sequential scans.
+ * Tickets returned by the map are copies of their row, read in one optimistic pass over the columns;
+ * changes to them are not written back.
+ * Writers are serialized by a single lock, readers are optimistic.
+ */
+public class ColumnarTicketMap extends AbstractMap<Long, Ticket> implements LongMap<Ticket> {
+
+	private static final byte FREE_ROW = 0;
+	private static final byte NO_CATEGORY = 1;
+	private static final Ticket.Category[] CATEGORIES = Ticket.Category.values();
+	private static final int MIN_CAPACITY = 16;
+
+	private final StampedLock lock = new StampedLock();
+
+	private RowIndex rowsById;
+	private long[] ids;
+	private long[] userIds;
+	private long[] eventIds;
+	private byte[] categories;
+	private int[] places;
+	private int[] freeRows;
+	private int freeCount;
+	private int rowCount;
+	private volatile int size;
+
+	public ColumnarTicketMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * Creates a map with columns presized for the expected number of tickets.
+	 * @param expectedSize Expected number of tickets
+	 */
+	public ColumnarTicketMap(int expectedSize) {
+		var capacity = Math.max(MIN_CAPACITY, expectedSize);
+		rowsById = new RowIndex(RowIndex.capacityFor(capacity));
+		ids = new long[capacity];
+		userIds = new long[capacity];
+		eventIds = new long[capacity];
+		categories = new byte[capacity];
+		places = new int[capacity];
+		freeRows = new int[MIN_CAPACITY];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket get(long key) {
+		var stamp = lock.tryOptimisticRead();
+		var ticket = read(key);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				ticket = read(key);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return ticket;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket put(long key, Ticket ticket) {
+		Objects.requireNonNull(ticket);
+		var userId = ticket.getUserId();
+		var eventId = ticket.getEventId();
+		var category = encode(ticket.getCategory());
+		var place = ticket.getPlace();
+
+		var stamp = lock.writeLock();
+		try {
+			var row = rowsById.get(key);
+			Ticket previous = null;
+			if (row < 0) {
+				row = allocateRow();
+				if (rowsById.isFull()) {
+					rowsById = rowsById.resize(RowIndex.capacityFor(size + 1));
+				}
+				rowsById.put(key, row);
+				size++;
+			} else {
+				previous = copyOf(row);
+			}
+			ids[row] = key;
+			userIds[row] = userId;
+			eventIds[row] = eventId;
+			places[row] = place;
+			categories[row] = category;
+			return previous;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void ensureCapacity(int expectedSize) {
+		var stamp = lock.writeLock();
+		try {
+			if (expectedSize > ids.length) {
+				growColumns(expectedSize);
+			}
+			var indexCapacity = RowIndex.capacityFor(expectedSize);
+			if (indexCapacity > rowsById.mask + 1) {
+				rowsById = rowsById.resize(indexCapacity);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket remove(long key) {
+		var stamp = lock.writeLock();
+		try {
+			var row = rowsById.remove(key);
+			if (row < 0) {
+				return null;
+			}
+			var removed = copyOf(row);
+			categories[row] = FREE_ROW;
+			if (freeCount == freeRows.length) {
+				freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+			}
+			freeRows[freeCount++] = row;
+			size--;
+			return removed;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public Ticket get(Object key) {
+		return key instanceof Long ? get(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Ticket put(Long key, Ticket value) {
+		return put(key.longValue(), value);
+	}
+
+	@Override
+	public Ticket remove(Object key) {
+		return key instanceof Long ? remove(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		var stamp = lock.writeLock();
+		try {
+			Arrays.fill(categories, FREE_ROW);
+			rowsById = new RowIndex(RowIndex.capacityFor(MIN_CAPACITY));
+			rowCount = 0;
+			freeCount = 0;
+			size = 0;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public Set<Entry<Long, Ticket>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Long, Ticket>> iterator() {
+				var rows = new RowIterator();
+				return new Iterator<>() {
+					@Override
+					public boolean hasNext() {
+						return rows.hasNext();
+					}
+
+					@Override
+					public Entry<Long, Ticket> next() {
+						var ticket = rows.next();
+						return new SimpleImmutableEntry<>(ticket.getId(), ticket);
+					}
+
+					@Override
+					public void remove() {
+						rows.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Collection<Ticket> values() {
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<Ticket> iterator() {
+				return new RowIterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Takes a free row or appends a new one, growing the columns if required. Must be called under the write lock.
+	 */
+	private int allocateRow() {
+		if (freeCount > 0) {
+			return freeRows[--freeCount];
+		}
+		if (rowCount == ids.length) {
+			growColumns(ids.length + (ids.length >> 1));
+		}
+		return rowCount++;
+	}
+
+	/**
+	 * Copies the columns into arrays of the provided capacity. Must be called under the write lock.
+	 */
+	private void growColumns(int capacity) {
+		ids = Arrays.copyOf(ids, capacity);
+		userIds = Arrays.copyOf(userIds, capacity);
+		eventIds = Arrays.copyOf(eventIds, capacity);
+		categories = Arrays.copyOf(categories, capacity);
+		places = Arrays.copyOf(places, capacity);
+	}
+
+	private Ticket copyOf(int row) {
+		return new Ticket(ids[row], userIds[row], eventIds[row], decode(categories[row]), places[row]);
+	}
+
+	private static byte encode(Ticket.Category category) {
+		return category == null ? NO_CATEGORY : (byte) (category.ordinal() + 2);
+	}
+
+	private static Ticket.Category decode(byte category) {
+		return category == NO_CATEGORY ? null : CATEGORIES[category - 2];
+	}
+
+	/**
+	 * Copies the row of the ticket. Optimistic readers must validate the result.
+	 */
+	private Ticket read(long key) {
+		var row = rowsById.get(key);
+		var ticket = row < 0 ? null : copyOfLive(row);
+		return ticket != null && ticket.getId() == key ? ticket : null;
+	}
+
+	/**
+	 * Copies a live row or returns null for a free row. Tolerates columns being grown by a writer,
+	 * so optimistic readers never fail before they validate.
+	 */
+	private Ticket copyOfLive(int row) {
+		var idColumn = ids;
+		var userIdColumn = userIds;
+		var eventIdColumn = eventIds;
+		var categoryColumn = categories;
+		var placeColumn = places;
+		if (row >= idColumn.length || row >= userIdColumn.length || row >= eventIdColumn.length
+				|| row >= categoryColumn.length || row >= placeColumn.length) {
+			return null;
+		}
+		var category = categoryColumn[row];
+		if (category == FREE_ROW) {
+			return null;
+		}
+		return new Ticket(idColumn[row], userIdColumn[row], eventIdColumn[row], decode(category), placeColumn[row]);
+	}
+
+	/**
+	 * Walks the rows in storage order and returns copies of live rows.
+	 */
+	private final class RowIterator implements Iterator<Ticket> {
+
+		private int row;
+		private Ticket next;
+		private Ticket last;
+
+		@Override
+		public boolean hasNext() {
+			while (next == null) {
+				var stamp = lock.tryOptimisticRead();
+				var end = row >= rowCount;
+				var ticket = end ? null : copyOfLive(row);
+				if (!lock.validate(stamp)) {
+					stamp = lock.readLock();
+					try {
+						end = row >= rowCount;
+						ticket = end ? null : copyOfLive(row);
+					} finally {
+						lock.unlockRead(stamp);
+					}
+				}
+				if (end) {
+					return false;
+				}
+				next = ticket;
+				row++;
+			}
+			return true;
+		}
+
+		@Override
+		public Ticket next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = null;
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			ColumnarTicketMap.this.remove(last.getId());
+			last = null;
+		}
+	}
+
+	/**
+	 * Open-addressing index from ticket id to row. Replaced as a whole on resize,
+	 * so optimistic readers never see arrays of different generations.
+	 */
+	private static final class RowIndex {
+
+		private static final int EMPTY = -1;
+		private static final int DELETED = -2;
+
+		private final long[] keys;
+		private final int[] rows;
+		private final int mask;
+		private int used;
+
+		RowIndex(int capacity) {
+			keys = new long[capacity];
+			rows = new int[capacity];
+			Arrays.fill(rows, EMPTY);
+			mask = capacity - 1;
+		}
+
+		static int capacityFor(int size) {
+			var needed = (int) Math.min(1 << 30, size * 4L / 3 + 1);
+			return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+		}
+
+		int get(long key) {
+			for (int i = slot(key), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+				var row = rows[i];
+				if (row == EMPTY) {
+					return -1;
+				}
+				if (row != DELETED && keys[i] == key) {
+					return row;
+				}
+			}
+			return -1;
+		}
+
+		boolean isFull() {
+			return used + 1 > (mask + 1) / 4 * 3;
+		}
+
+		void put(long key, int row) {
+			var i = slot(key);
+			while (rows[i] >= 0) {
+				i = (i + 1) & mask;
+			}
+			if (rows[i] == EMPTY) {
+				used++;
+			}
+			keys[i] = key;
+			rows[i] = row;
+		}
+
+		int remove(long key) {
+			for (int i = slot(key), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+				var row = rows[i];
+				if (row == EMPTY) {
+					return -1;
+				}
+				if (row != DELETED && keys[i] == key) {
+					rows[i] = DELETED;
+					return row;
+				}
+			}
+			return -1;
+		}
+
+		RowIndex resize(int capacity) {
+			var resized = new RowIndex(Math.max(capacity, mask + 1));
+			for (int i = 0; i <= mask; i++) {
+				if (rows[i] >= 0) {
+					resized.put(keys[i], rows[i]);
+				}
+			}
+			return resized;
+		}
+
+		private int slot(long key) {
+			return (int) (key * 0x9E3779B97F4A7C15L >>> 32) & mask;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+
+import java.util.Map;
+
+/**
+ * Ticket storage with a columnar layout, see {@link ColumnarTicketMap}.
+ */
+public class ColumnarTicketStorage extends InMemoryStorage<Ticket> {
+
+	private final LongMap<Ticket> tickets = observe(new ColumnarTicketMap());
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Long, Ticket> getData() {
+		return tickets;
+	}
+}
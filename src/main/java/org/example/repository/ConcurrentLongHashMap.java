@@ -0,0 +1,466 @@
+package org.example.repository;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent hash map with primitive long keys.
+ * Keys are spread over lock-striped segments; every segment is an open-addressing table with linear probing
+ * that keeps keys and values in parallel arrays, so an entry costs a long slot and a reference slot
+ * instead of a map node and a boxed key. Reads are optimistic and only take the segment read lock when they
+ * race with a writer of the same segment. Iteration is weakly consistent: every segment is copied under
+ * its read lock when the iterator reaches it. Null values are not supported.
+ */
+public class ConcurrentLongHashMap<V> extends AbstractMap<Long, V> implements LongMap<V> {
+
+	private static final Object TOMBSTONE = new Object();
+	private static final int SEGMENTS = 64;
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+	private final int segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+
+	public ConcurrentLongHashMap() {
+		this(0);
+	}
+
+	/**
+	 * Creates a map presized for the expected number of entries.
+	 * @param expectedSize Expected number of entries
+	 */
+	public ConcurrentLongHashMap(int expectedSize) {
+		var segmentCapacity = capacityFor(expectedSize / SEGMENTS + 1);
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment(segmentCapacity);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		var hash = hash(key);
+		return (V) segmentFor(hash).get(key, hash);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		Objects.requireNonNull(value);
+		var hash = hash(key);
+		return (V) segmentFor(hash).put(key, hash, value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		var hash = hash(key);
+		return (V) segmentFor(hash).remove(key, hash);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void ensureCapacity(int expectedSize) {
+		var segmentSize = expectedSize / SEGMENTS + 1;
+		for (Segment segment : segments) {
+			segment.ensureCapacity(segmentSize);
+		}
+	}
+
+	@Override
+	public V get(Object key) {
+		return key instanceof Long ? get(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public V put(Long key, V value) {
+		return put(key.longValue(), value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return key instanceof Long ? remove(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size;
+		}
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Segment segment : segments) {
+			if (segment.size > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+
+	@Override
+	public Set<Entry<Long, V>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Long, V>> iterator() {
+				return new SnapshotIterator<>() {
+					@Override
+					Entry<Long, V> element(long key, V value) {
+						return new WriteThroughEntry(key, value);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ConcurrentLongHashMap.this.size();
+			}
+
+			@Override
+			public void clear() {
+				ConcurrentLongHashMap.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<V> iterator() {
+				return new SnapshotIterator<>() {
+					@Override
+					V element(long key, V value) {
+						return value;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ConcurrentLongHashMap.this.size();
+			}
+
+			@Override
+			public void clear() {
+				ConcurrentLongHashMap.this.clear();
+			}
+		};
+	}
+
+	private Segment segmentFor(long hash) {
+		return segments[(int) (hash >>> segmentShift)];
+	}
+
+	/**
+	 * Mixes the key bits (murmur3 finalizer), sequential ids would otherwise cluster in one probe run.
+	 */
+	private static long hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	/**
+	 * Gets the power of two table capacity that keeps the load factor at or below 3/4.
+	 */
+	private static int capacityFor(int size) {
+		var needed = Math.max(MIN_SEGMENT_CAPACITY, (int) Math.min(1 << 30, size * 4L / 3 + 1));
+		return Integer.highestOneBit(needed - 1) << 1;
+	}
+
+	/**
+	 * Open-addressing table of a segment. Arrays are replaced together on rehash,
+	 * so an optimistic reader always sees keys and values of the same generation.
+	 */
+	private static final class Table {
+		final long[] keys;
+		final Object[] values;
+		final int mask;
+		final int threshold;
+
+		Table(int capacity) {
+			keys = new long[capacity];
+			values = new Object[capacity];
+			mask = capacity - 1;
+			threshold = capacity / 4 * 3;
+		}
+
+		/**
+		 * Gets the slot of the key or -1 if the key is absent.
+		 */
+		int indexOf(long key, long hash) {
+			for (int i = (int) hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+				var value = values[i];
+				if (value == null) {
+					return -1;
+				}
+				if (value != TOMBSTONE && keys[i] == key) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	private static final class Segment extends StampedLock {
+
+		private static final long serialVersionUID = 1L;
+
+		private Table table;
+		private volatile int size;
+		private int tombstones;
+
+		Segment(int capacity) {
+			table = new Table(capacity);
+		}
+
+		Object get(long key, long hash) {
+			var stamp = tryOptimisticRead();
+			var value = find(table, key, hash);
+			if (!validate(stamp)) {
+				stamp = readLock();
+				try {
+					value = find(table, key, hash);
+				} finally {
+					unlockRead(stamp);
+				}
+			}
+			return value;
+		}
+
+		Object put(long key, long hash, Object value) {
+			var stamp = writeLock();
+			try {
+				var current = table;
+				var existing = current.indexOf(key, hash);
+				if (existing >= 0) {
+					var previous = current.values[existing];
+					current.values[existing] = value;
+					return previous;
+				}
+				if (size + tombstones + 1 > current.threshold) {
+					current = rehash(size + 1);
+				}
+				insert(current, key, hash, value);
+				size++;
+				return null;
+			} finally {
+				unlockWrite(stamp);
+			}
+		}
+
+		Object remove(long key, long hash) {
+			var stamp = writeLock();
+			try {
+				var current = table;
+				var i = current.indexOf(key, hash);
+				if (i < 0) {
+					return null;
+				}
+				var previous = current.values[i];
+				if (current.values[(i + 1) & current.mask] == null) {
+					current.values[i] = null;
+				} else {
+					current.values[i] = TOMBSTONE;
+					tombstones++;
+				}
+				size--;
+				return previous;
+			} finally {
+				unlockWrite(stamp);
+			}
+		}
+
+		void ensureCapacity(int expectedSize) {
+			var stamp = writeLock();
+			try {
+				if (capacityFor(expectedSize) > table.values.length) {
+					rehash(expectedSize);
+				}
+			} finally {
+				unlockWrite(stamp);
+			}
+		}
+
+		void clear() {
+			var stamp = writeLock();
+			try {
+				table = new Table(MIN_SEGMENT_CAPACITY);
+				size = 0;
+				tombstones = 0;
+			} finally {
+				unlockWrite(stamp);
+			}
+		}
+
+		/**
+		 * Copies live entries of the segment under the read lock.
+		 */
+		Snapshot snapshot() {
+			var stamp = readLock();
+			try {
+				var current = table;
+				var snapshot = new Snapshot(size);
+				for (int i = 0; i < current.values.length; i++) {
+					var value = current.values[i];
+					if (value != null && value != TOMBSTONE) {
+						snapshot.add(current.keys[i], value);
+					}
+				}
+				return snapshot;
+			} finally {
+				unlockRead(stamp);
+			}
+		}
+
+		/**
+		 * Rebuilds the table without tombstones, growing it if required. Must be called under the write lock.
+		 */
+		private Table rehash(int expectedSize) {
+			var old = table;
+			var rehashed = new Table(Math.max(old.values.length, capacityFor(expectedSize)));
+			if (rehashed.values.length == old.values.length && tombstones == 0) {
+				rehashed = new Table(old.values.length << 1);
+			}
+			for (int i = 0; i < old.values.length; i++) {
+				var value = old.values[i];
+				if (value != null && value != TOMBSTONE) {
+					insert(rehashed, old.keys[i], hash(old.keys[i]), value);
+				}
+			}
+			tombstones = 0;
+			table = rehashed;
+			return rehashed;
+		}
+
+		private static Object find(Table table, long key, long hash) {
+			var i = table.indexOf(key, hash);
+			return i < 0 ? null : table.values[i];
+		}
+
+		private static void insert(Table table, long key, long hash, Object value) {
+			var i = (int) hash & table.mask;
+			while (table.values[i] != null && table.values[i] != TOMBSTONE) {
+				i = (i + 1) & table.mask;
+			}
+			table.keys[i] = key;
+			table.values[i] = value;
+		}
+	}
+
+	/**
+	 * Copy of the live entries of one segment.
+	 */
+	private static final class Snapshot {
+		final long[] keys;
+		final Object[] values;
+		int count;
+
+		Snapshot(int size) {
+			keys = new long[size];
+			values = new Object[size];
+		}
+
+		void add(long key, Object value) {
+			keys[count] = key;
+			values[count++] = value;
+		}
+	}
+
+	/**
+	 * Iterator that walks a copy of one segment at a time.
+	 */
+	private abstract class SnapshotIterator<E> implements Iterator<E> {
+
+		private Snapshot snapshot = new Snapshot(0);
+		private int segment = -1;
+		private int position;
+		private long lastKey;
+		private boolean canRemove;
+
+		abstract E element(long key, V value);
+
+		@Override
+		public boolean hasNext() {
+			while (position >= snapshot.count) {
+				if (++segment >= SEGMENTS) {
+					return false;
+				}
+				snapshot = segments[segment].snapshot();
+				position = 0;
+			}
+			return true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastKey = snapshot.keys[position];
+			canRemove = true;
+			return element(lastKey, (V) snapshot.values[position++]);
+		}
+
+		@Override
+		public void remove() {
+			if (!canRemove) {
+				throw new IllegalStateException();
+			}
+			ConcurrentLongHashMap.this.remove(lastKey);
+			canRemove = false;
+		}
+	}
+
+	private final class WriteThroughEntry extends SimpleEntry<Long, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		WriteThroughEntry(long key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey().longValue(), value);
+			return super.setValue(value);
+		}
+	}
+}
@@ -3,13 +3,12 @@ package org.example.repository;
 import org.example.model.Event;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @Component
 public class EventInMemoryStorage extends InMemoryStorage<Event>{
 
-	private Map<Long, Event> events = new HashMap<>();
+	private final LongMap<Event> events = observe(new ConcurrentLongHashMap<>());
 
 	/**
 	 * {@inheritDoc}
@@ -0,0 +1,54 @@
+package org.example.repository;
+
+/**
+ * Allocator of entity ids that reserves blocks of consecutive ids of a storage per thread, so threads that save
+ * entities concurrently touch the shared index of the storage once per block instead of once per entity.
+ * Ids are unique but not increasing across threads. A block that reaches the ids restored by
+ * {@link InMemoryStorage#restoreIndex(long)} is dropped, so kept ids saved meanwhile are not handed out again;
+ * only an id taken while the same id is being restored can still meet it.
+ * <p>
+ * The ids of dropped blocks and of blocks of ended threads are never used, so the ids are sparse. Storages that
+ * address their records by id, like {@link OffHeapTicketMap}, keep a record for every such id: at most
+ * {@code blockSize - 1} ids per live thread are reserved but unused at a time, plus {@code blockSize} ids per
+ * restore and per ended thread. Threads of a fixed pool bound the waste to the pool size times the block size.
+ */
+public class IdAllocator {
+
+	private final InMemoryStorage<?> storage;
+	private final int blockSize;
+	private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+	/**
+	 * Creates the allocator.
+	 * @param storage Storage whose index provides the ids
+	 * @param blockSize Number of ids reserved by a thread at once, 1 takes every id from the storage
+	 */
+	public IdAllocator(InMemoryStorage<?> storage, int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Invalid id block size: " + blockSize);
+		}
+		this.storage = storage;
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Provides the next id of the block of the calling thread, reserving a new block if it is used up.
+	 * @return Id
+	 */
+	public long next() {
+		var block = blocks.get();
+		if (block.next == block.end || block.next <= storage.getRestoredIndex()) {
+			block.next = storage.getIndexes(blockSize);
+			block.end = block.next + blockSize;
+		}
+		return block.next++;
+	}
+
+	/**
+	 * Ids of a thread that are not used yet.
+	 */
+	private static final class Block {
+		private long next;
+		private long end;
+	}
+}
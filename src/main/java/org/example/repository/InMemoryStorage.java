@@ -1,15 +1,26 @@
 package org.example.repository;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract storage of entities.
+ * Implementations are shared by all request threads, so the map returned by {@link #getData()} must be thread-safe.
  */
 public abstract class InMemoryStorage<T> {
 
 	protected AtomicLong index = new AtomicLong();
 
+	private final AtomicLong restoredIndex = new AtomicLong();
+
+	private final List<ObservableLongMap<T>> observed = new CopyOnWriteArrayList<>();
+	private volatile List<StorageListener<T>> listeners = List.of();
+	private volatile StorageListener<T> journal;
+	private volatile boolean restored;
+
 	/**
 	 * Provides the next index for entity.
 	 * @return index
@@ -18,8 +29,198 @@ public abstract class InMemoryStorage<T> {
 		return index.incrementAndGet();
 	}
 
+	/**
+	 * Provides a block of consecutive indexes for entities.
+	 * @param count Number of indexes
+	 * @return First index of the block
+	 */
+	public long getIndexes(int count) {
+		return index.getAndAdd(count) + 1;
+	}
+
+	/**
+	 * Gets the last provided index without advancing it.
+	 * @return Last provided index
+	 */
+	public long getLastIndex() {
+		return index.get();
+	}
+
+	/**
+	 * Moves the index past the provided id, so restored ids are not handed out again.
+	 * @param highestId Highest id in use
+	 */
+	public void restoreIndex(long highestId) {
+		restoredIndex.accumulateAndGet(highestId, Math::max);
+		index.accumulateAndGet(highestId, Math::max);
+	}
+
+	/**
+	 * Gets the highest id restored with {@link #restoreIndex(long)}. Ids reserved ahead, like the blocks of an
+	 * {@link IdAllocator}, must not be handed out if they are not above it.
+	 * @return Highest restored id
+	 */
+	public long getRestoredIndex() {
+		return restoredIndex.get();
+	}
+
+	/**
+	 * Checks if the storage came up with entities restored from a durable source,
+	 * in which case the entities must not be preloaded again.
+	 * @return true if entities were restored, otherwise - false
+	 */
+	public boolean isRestored() {
+		return restored;
+	}
+
+	/**
+	 * Marks the storage as restored from a durable source.
+	 */
+	public void markRestored() {
+		restored = true;
+	}
+
+	/**
+	 * Registers the listener of entity changes.
+	 * @param listener Storage listener
+	 */
+	public synchronized void addListener(StorageListener<T> listener) {
+		var registered = new ArrayList<>(listeners);
+		registered.add(listener);
+		listeners = List.copyOf(registered);
+	}
+
+	/**
+	 * Sets the journal of the storage. Unlike the listeners, the journal is told about a put or remove made through
+	 * the storage map before the map is changed, and the change is not applied if the journal fails.
+	 * @param journal Storage journal
+	 */
+	public void setJournal(StorageListener<T> journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Wraps the entity map, so that puts and removes made through the map are journaled and notify the listeners.
+	 * Storages return the wrapped map from {@link #getData()}.
+	 * @param map Entity map
+	 * @return Observed entity map
+	 */
+	protected LongMap<T> observe(LongMap<T> map) {
+		var observable = new ObservableLongMap<>(map, this);
+		observed.add(observable);
+		return observable;
+	}
+
+	/**
+	 * Waits for the changes in progress through the storage map to be applied. Changes that start after the call
+	 * are not waited for. The journal calls it after switching segments, so a change journaled to the old segment
+	 * is in the map before the map is written to a snapshot.
+	 */
+	public void awaitChanges() {
+		for (var map : observed) {
+			map.awaitChanges();
+		}
+	}
+
+	/**
+	 * Notifies the listeners that an entity was removed. All listeners are notified even if one of them fails.
+	 * @param id Entity id
+	 * @param entity Removed entity
+	 * @throws RuntimeException the failure of the first failed listener, with the later failures suppressed
+	 */
+	void fireRemove(long id, T entity) {
+		RuntimeException failure = null;
+		for (var listener : listeners) {
+			try {
+				listener.onRemove(id, entity);
+			} catch (RuntimeException e) {
+				failure = suppress(failure, e);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Notifies the listeners that an entity was saved in place of the previous one. The previous entity is removed
+	 * from a listener before the saved one is put. If a listener fails, the listeners that were already notified
+	 * are told to remove the saved entity and to put the previous one back, so they end up as before the change.
+	 * @param id Entity id
+	 * @param entity Saved entity
+	 * @param previous Replaced entity or null
+	 * @throws RuntimeException the failure of the listener, with the failures of undoing the change suppressed
+	 */
+	void firePut(long id, T entity, T previous) {
+		var current = listeners;
+		for (int i = 0; i < current.size(); i++) {
+			var listener = current.get(i);
+			var removed = false;
+			try {
+				if (previous != null) {
+					listener.onRemove(id, previous);
+					removed = true;
+				}
+				listener.onPut(id, entity);
+			} catch (RuntimeException e) {
+				if (removed) {
+					undo(() -> listener.onPut(id, previous), e);
+				}
+				for (int notified = i - 1; notified >= 0; notified--) {
+					var notifiedListener = current.get(notified);
+					undo(() -> notifiedListener.onRemove(id, entity), e);
+					if (previous != null) {
+						undo(() -> notifiedListener.onPut(id, previous), e);
+					}
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Journals the put of an entity before it is applied to the storage map.
+	 * @param id Entity id
+	 * @param entity Saved entity
+	 */
+	void journalPut(long id, T entity) {
+		var current = journal;
+		if (current != null) {
+			current.onPut(id, entity);
+		}
+	}
+
+	/**
+	 * Journals the removal of an entity before it is applied to the storage map.
+	 * @param id Entity id
+	 * @param entity Removed entity
+	 */
+	void journalRemove(long id, T entity) {
+		var current = journal;
+		if (current != null) {
+			current.onRemove(id, entity);
+		}
+	}
+
+	private static RuntimeException suppress(RuntimeException failure, RuntimeException next) {
+		if (failure == null) {
+			return next;
+		}
+		failure.addSuppressed(next);
+		return failure;
+	}
+
+	private static void undo(Runnable step, RuntimeException failure) {
+		try {
+			step.run();
+		} catch (RuntimeException e) {
+			failure.addSuppressed(e);
+		}
+	}
+
 	/**
 	 * Gets the map with entities mapped by entity id.
+	 * The map is accessed concurrently and must not require external synchronization.
 	 * @return Map of entities mapped by entity id
 	 */
 	public abstract Map<Long, T> getData();
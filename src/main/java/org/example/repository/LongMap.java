@@ -0,0 +1,48 @@
+package org.example.repository;
+
+import java.util.Map;
+
+/**
+ * Map keyed by entity ids that exposes primitive overloads, so lookups by id don't have to box the key.
+ */
+public interface LongMap<V> extends Map<Long, V> {
+
+	/**
+	 * Gets the value mapped to the key.
+	 * @param key Entity id
+	 * @return Mapped value or null if nothing is mapped to the key
+	 */
+	V get(long key);
+
+	/**
+	 * Maps the value to the key.
+	 * @param key Entity id
+	 * @param value Value to map, must not be null
+	 * @return Previously mapped value or null
+	 */
+	V put(long key, V value);
+
+	/**
+	 * Removes the mapping for the key.
+	 * @param key Entity id
+	 * @return Removed value or null if nothing was mapped to the key
+	 */
+	V remove(long key);
+
+	/**
+	 * Checks if a value is mapped to the key.
+	 * @param key Entity id
+	 * @return true if the key is mapped, otherwise - false
+	 */
+	default boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Prepares the map to hold the expected number of entries without growing on every insert.
+	 * Maps that don't need presizing ignore the call.
+	 * @param expectedSize Expected number of entries
+	 */
+	default void ensureCapacity(int expectedSize) {
+	}
+}
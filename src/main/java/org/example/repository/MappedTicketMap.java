@@ -0,0 +1,116 @@
+package org.example.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ticket map that keeps the fixed-width ticket records of {@link OffHeapTicketMap} in a memory-mapped file.
+ * The file starts with a header page followed by the record chunks. Reopening the file only maps the chunks,
+ * the records themselves are paged in by the OS on first access and the page cache holds the working set.
+ * The record counters are taken from the header after a clean {@link #close()}, otherwise they are recounted
+ * from the record states.
+ */
+public class MappedTicketMap extends OffHeapTicketMap implements Closeable {
+
+	private static final int HEADER_SIZE = 4096;
+	private static final int MAGIC = 0x5449434b;
+	private static final int VERSION = 1;
+
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int RECORD_SIZE_OFFSET = 8;
+	private static final int CLEAN_OFFSET = 12;
+	private static final int SIZE_OFFSET = 16;
+	private static final int HIGHEST_KEY_OFFSET = 24;
+
+	private static final byte DIRTY = 0;
+	private static final byte CLEAN = 1;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final List<MappedByteBuffer> mappedChunks = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Opens the ticket file, creating it if it doesn't exist.
+	 * @param file Path to the ticket file
+	 * @throws IOException if the file can't be opened or isn't a ticket file
+	 */
+	public MappedTicketMap(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		var fileSize = channel.size();
+		header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		header.order(BYTE_ORDER);
+
+		if (fileSize == 0) {
+			header.putInt(MAGIC_OFFSET, MAGIC);
+			header.putInt(VERSION_OFFSET, VERSION);
+			header.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+		} else if (header.getInt(MAGIC_OFFSET) != MAGIC
+				|| header.getInt(VERSION_OFFSET) != VERSION
+				|| header.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+			channel.close();
+			throw new IOException("Not a ticket storage file: " + file);
+		}
+
+		var chunkCount = (int) ((Math.max(0, fileSize - HEADER_SIZE) + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		if (chunkCount > 0) {
+			allocateChunks(chunkCount - 1);
+		}
+		if (header.get(CLEAN_OFFSET) == CLEAN) {
+			restoreCounters(header.getLong(SIZE_OFFSET), header.getLong(HIGHEST_KEY_OFFSET));
+		} else {
+			recount();
+		}
+		header.put(CLEAN_OFFSET, DIRTY);
+		header.force();
+	}
+
+	/**
+	 * Maps the region of the chunk, extending the file if required.
+	 */
+	@Override
+	protected ByteBuffer allocateChunk(int chunkIndex) {
+		try {
+			var chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+					HEADER_SIZE + (long) chunkIndex * CHUNK_SIZE, CHUNK_SIZE);
+			chunk.order(BYTE_ORDER);
+			mappedChunks.add(chunk);
+			return chunk;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to map ticket storage chunk " + chunkIndex, e);
+		}
+	}
+
+	/**
+	 * Writes modified records and the record counters to the file.
+	 */
+	public void flush() {
+		mappedChunks.forEach(MappedByteBuffer::force);
+		header.putLong(SIZE_OFFSET, size());
+		header.putLong(HIGHEST_KEY_OFFSET, getHighestKey());
+		header.force();
+	}
+
+	/**
+	 * Flushes the file and marks it as cleanly closed, so the next open can trust the saved counters.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+		header.put(CLEAN_OFFSET, CLEAN);
+		header.force();
+		channel.close();
+	}
+}
@@ -0,0 +1,43 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Ticket storage backed by a memory-mapped file, see {@link MappedTicketMap}.
+ * Tickets survive a restart, and the id index continues after the highest stored ticket id.
+ */
+public class MappedTicketStorage extends InMemoryStorage<Ticket> implements Closeable {
+
+	private final MappedTicketMap mappedTickets;
+	private final LongMap<Ticket> tickets;
+
+	public MappedTicketStorage(Path file) throws IOException {
+		mappedTickets = new MappedTicketMap(file);
+		tickets = observe(mappedTickets);
+		if (!mappedTickets.isEmpty()) {
+			markRestored();
+		}
+		restoreIndex(mappedTickets.getHighestKey());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Long, Ticket> getData() {
+		return tickets;
+	}
+
+	/**
+	 * Closes the ticket file.
+	 */
+	@Override
+	public void close() throws IOException {
+		mappedTickets.close();
+	}
+}
@@ -0,0 +1,240 @@
+package org.example.repository;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map decorator that journals every put and remove before applying it and notifies the listeners of the storage
+ * after it, including the ones made through the views of the map. See {@link InMemoryStorage#observe(LongMap)}.
+ * Changes of an entity id are serialized by lock stripes, so the journal records them in the order they are applied.
+ * A put is applied entirely or not at all: if the journal fails, the map is not changed, and if a listener fails,
+ * the previous entity is journaled and put back and the listeners are restored before the failure is thrown.
+ */
+class ObservableLongMap<V> extends AbstractMap<Long, V> implements LongMap<V> {
+
+	private static final int STRIPES = 64;
+
+	private final LongMap<V> map;
+	private final InMemoryStorage<V> storage;
+	private final Object[] locks = new Object[STRIPES];
+
+	ObservableLongMap(LongMap<V> map, InMemoryStorage<V> storage) {
+		this.map = map;
+		this.storage = storage;
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V get(long key) {
+		return map.get(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V put(long key, V value) {
+		synchronized (lockFor(key)) {
+			storage.journalPut(key, value);
+			var previous = map.put(key, value);
+			try {
+				storage.firePut(key, value, previous);
+			} catch (RuntimeException e) {
+				undoPut(key, value, previous, e);
+				throw e;
+			}
+			return previous;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V remove(long key) {
+		synchronized (lockFor(key)) {
+			var current = map.get(key);
+			if (current == null) {
+				return null;
+			}
+			storage.journalRemove(key, current);
+			var removed = map.remove(key);
+			if (removed != null) {
+				storage.fireRemove(key, removed);
+			}
+			return removed;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(long key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void ensureCapacity(int expectedSize) {
+		map.ensureCapacity(expectedSize);
+	}
+
+	/**
+	 * Restores the previous entity after a listener rejected the put. The map is restored even if the journal fails
+	 * to record it, so the rejected entity is never left visible.
+	 */
+	private void undoPut(long key, V value, V previous, RuntimeException failure) {
+		try {
+			if (previous == null) {
+				storage.journalRemove(key, value);
+			} else {
+				storage.journalPut(key, previous);
+			}
+		} catch (RuntimeException e) {
+			failure.addSuppressed(e);
+		}
+		if (previous == null) {
+			map.remove(key);
+		} else {
+			map.put(key, previous);
+		}
+	}
+
+	/**
+	 * Waits for the changes in progress to be applied, including their listener notifications and the undo of
+	 * a rejected put. Every change holds its stripe from the journal append to the end, so a change that was
+	 * journaled before the call is finished once all stripes have been entered.
+	 */
+	void awaitChanges() {
+		for (var lock : locks) {
+			synchronized (lock) {
+				// the change holding the stripe has finished
+			}
+		}
+	}
+
+	private Object lockFor(long key) {
+		return locks[(int) (key & (STRIPES - 1))];
+	}
+
+	@Override
+	public V get(Object key) {
+		return key instanceof Long ? get(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Long && containsKey(((Long) key).longValue());
+	}
+
+	@Override
+	public V put(Long key, V value) {
+		return put(key.longValue(), value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return key instanceof Long ? remove(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public Set<Entry<Long, V>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Long, V>> iterator() {
+				var entries = map.entrySet().iterator();
+				return new Iterator<>() {
+					private Entry<Long, V> last;
+
+					@Override
+					public boolean hasNext() {
+						return entries.hasNext();
+					}
+
+					@Override
+					public Entry<Long, V> next() {
+						last = entries.next();
+						return new ObservedEntry(last);
+					}
+
+					@Override
+					public void remove() {
+						var key = last.getKey().longValue();
+						synchronized (lockFor(key)) {
+							storage.journalRemove(key, last.getValue());
+							entries.remove();
+							storage.fireRemove(key, last.getValue());
+						}
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return map.size();
+			}
+		};
+	}
+
+	/**
+	 * Entry that notifies the listeners when its value is replaced.
+	 */
+	private final class ObservedEntry implements Entry<Long, V> {
+
+		private final Entry<Long, V> entry;
+
+		private ObservedEntry(Entry<Long, V> entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public Long getKey() {
+			return entry.getKey();
+		}
+
+		@Override
+		public V getValue() {
+			return entry.getValue();
+		}
+
+		@Override
+		public V setValue(V value) {
+			return put(entry.getKey().longValue(), value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			var other = (Map.Entry<?, ?>) o;
+			return getKey().equals(other.getKey()) && getValue().equals(other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return getKey().hashCode() ^ getValue().hashCode();
+		}
+	}
+}
@@ -0,0 +1,369 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Ticket map that keeps tickets as fixed-width records outside of the java heap.
+ * Records live in direct buffers of {@link #RECORDS_PER_CHUNK} records each, and the record of a ticket is
+ * addressed by its id, so no per-ticket index is kept on the heap. Ids are expected to be the dense sequence
+ * produced by {@link InMemoryStorage#getIndex()}; every id skipped in the sequence, like the unused ids of an
+ * {@link IdAllocator}, leaves an empty record behind. Records are guarded by lock stripes; readers are optimistic.
+ * Tickets returned by the map are copies, changes to them are not written back.
+ */
+public class OffHeapTicketMap extends AbstractMap<Long, Ticket> implements LongMap<Ticket> {
+
+	protected static final int RECORD_SIZE = 24;
+	protected static final int CHUNK_BITS = 16;
+	protected static final int RECORDS_PER_CHUNK = 1 << CHUNK_BITS;
+	protected static final int CHUNK_SIZE = RECORD_SIZE * RECORDS_PER_CHUNK;
+	protected static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	private static final int STATE_OFFSET = 0;
+	private static final int CATEGORY_OFFSET = 1;
+	private static final int PLACE_OFFSET = 4;
+	private static final int USER_ID_OFFSET = 8;
+	private static final int EVENT_ID_OFFSET = 16;
+
+	private static final byte EMPTY = 0;
+	private static final byte LIVE = 1;
+	private static final byte NO_CATEGORY = 0;
+	private static final Ticket.Category[] CATEGORIES = Ticket.Category.values();
+	private static final int STRIPES = 64;
+
+	private final StampedLock[] locks = new StampedLock[STRIPES];
+	private final Object chunkLock = new Object();
+	private final LongAdder size = new LongAdder();
+	private final AtomicLong highestKey = new AtomicLong(-1);
+	private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+	public OffHeapTicketMap() {
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new StampedLock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket get(long key) {
+		var chunk = chunkOrNull(key);
+		if (chunk == null) {
+			return null;
+		}
+		var offset = offset(key);
+		var lock = lockFor(key);
+		var stamp = lock.tryOptimisticRead();
+		var ticket = read(chunk, offset, key);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				ticket = read(chunk, offset, key);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return ticket;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket put(long key, Ticket ticket) {
+		Objects.requireNonNull(ticket);
+		var chunk = chunkFor(key);
+		var offset = offset(key);
+		var lock = lockFor(key);
+		var stamp = lock.writeLock();
+		try {
+			var previous = read(chunk, offset, key);
+			chunk.putLong(offset + USER_ID_OFFSET, ticket.getUserId());
+			chunk.putLong(offset + EVENT_ID_OFFSET, ticket.getEventId());
+			chunk.putInt(offset + PLACE_OFFSET, ticket.getPlace());
+			chunk.put(offset + CATEGORY_OFFSET, encode(ticket.getCategory()));
+			chunk.put(offset + STATE_OFFSET, LIVE);
+			if (previous == null) {
+				size.increment();
+				highestKey.accumulateAndGet(key, Math::max);
+			}
+			return previous;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket remove(long key) {
+		var chunk = chunkOrNull(key);
+		if (chunk == null) {
+			return null;
+		}
+		var offset = offset(key);
+		var lock = lockFor(key);
+		var stamp = lock.writeLock();
+		try {
+			var previous = read(chunk, offset, key);
+			if (previous != null) {
+				chunk.put(offset + STATE_OFFSET, EMPTY);
+				size.decrement();
+			}
+			return previous;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public Ticket get(Object key) {
+		return key instanceof Long ? get(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Ticket put(Long key, Ticket value) {
+		return put(key.longValue(), value);
+	}
+
+	@Override
+	public Ticket remove(Object key) {
+		return key instanceof Long ? remove(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public int size() {
+		return size.intValue();
+	}
+
+	@Override
+	public void clear() {
+		for (long key = 0; key <= highestKey.get(); key++) {
+			remove(key);
+		}
+	}
+
+	@Override
+	public Set<Entry<Long, Ticket>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Long, Ticket>> iterator() {
+				var records = new RecordIterator();
+				return new Iterator<>() {
+					@Override
+					public boolean hasNext() {
+						return records.hasNext();
+					}
+
+					@Override
+					public Entry<Long, Ticket> next() {
+						var ticket = records.next();
+						return new SimpleImmutableEntry<>(ticket.getId(), ticket);
+					}
+
+					@Override
+					public void remove() {
+						records.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return OffHeapTicketMap.this.size();
+			}
+		};
+	}
+
+	@Override
+	public Collection<Ticket> values() {
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<Ticket> iterator() {
+				return new RecordIterator();
+			}
+
+			@Override
+			public int size() {
+				return OffHeapTicketMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Allocates the buffer for the chunk with the provided index.
+	 * @param chunkIndex Index of the chunk
+	 * @return Zero-filled buffer of {@link #CHUNK_SIZE} bytes
+	 */
+	protected ByteBuffer allocateChunk(int chunkIndex) {
+		return ByteBuffer.allocateDirect(CHUNK_SIZE).order(BYTE_ORDER);
+	}
+
+	/**
+	 * Gets the highest id ever stored in the map.
+	 * @return Highest id or -1 if nothing was stored
+	 */
+	public long getHighestKey() {
+		return highestKey.get();
+	}
+
+	/**
+	 * Allocates all chunks up to the provided index, used when the chunks come with existing records.
+	 * @param lastChunkIndex Index of the last chunk to allocate
+	 */
+	protected void allocateChunks(int lastChunkIndex) {
+		for (int chunkIndex = 0; chunkIndex <= lastChunkIndex; chunkIndex++) {
+			chunkFor((long) chunkIndex << CHUNK_BITS);
+		}
+	}
+
+	/**
+	 * Restores the counters of existing records from previously saved values.
+	 * @param liveRecords Number of live records
+	 * @param highest Highest stored id
+	 */
+	protected void restoreCounters(long liveRecords, long highest) {
+		size.reset();
+		size.add(liveRecords);
+		highestKey.set(highest);
+	}
+
+	/**
+	 * Restores the counters of existing records by scanning the record states of all allocated chunks.
+	 */
+	protected void recount() {
+		var current = chunks;
+		long liveRecords = 0;
+		long highest = -1;
+		for (int chunkIndex = 0; chunkIndex < current.length; chunkIndex++) {
+			var chunk = current[chunkIndex];
+			for (int record = 0; chunk != null && record < RECORDS_PER_CHUNK; record++) {
+				if (chunk.get(record * RECORD_SIZE + STATE_OFFSET) == LIVE) {
+					liveRecords++;
+					highest = ((long) chunkIndex << CHUNK_BITS) + record;
+				}
+			}
+		}
+		restoreCounters(liveRecords, highest);
+	}
+
+	private ByteBuffer chunkOrNull(long key) {
+		if (key < 0) {
+			return null;
+		}
+		var current = chunks;
+		var chunkIndex = key >>> CHUNK_BITS;
+		return chunkIndex < current.length ? current[(int) chunkIndex] : null;
+	}
+
+	private ByteBuffer chunkFor(long key) {
+		var chunk = chunkOrNull(key);
+		if (chunk != null) {
+			return chunk;
+		}
+		if (key < 0 || (key >>> CHUNK_BITS) >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Ticket id is out of the off-heap storage range: " + key);
+		}
+		var chunkIndex = (int) (key >>> CHUNK_BITS);
+		synchronized (chunkLock) {
+			var current = chunks;
+			if (chunkIndex < current.length && current[chunkIndex] != null) {
+				return current[chunkIndex];
+			}
+			var grown = Arrays.copyOf(current, Math.max(current.length, chunkIndex + 1));
+			grown[chunkIndex] = allocateChunk(chunkIndex);
+			chunks = grown;
+			return grown[chunkIndex];
+		}
+	}
+
+	private StampedLock lockFor(long key) {
+		return locks[(int) (key & (STRIPES - 1))];
+	}
+
+	private static int offset(long key) {
+		return (int) (key & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+	}
+
+	private static Ticket read(ByteBuffer chunk, int offset, long key) {
+		if (chunk.get(offset + STATE_OFFSET) != LIVE) {
+			return null;
+		}
+		return new Ticket(key,
+				chunk.getLong(offset + USER_ID_OFFSET),
+				chunk.getLong(offset + EVENT_ID_OFFSET),
+				decode(chunk.get(offset + CATEGORY_OFFSET)),
+				chunk.getInt(offset + PLACE_OFFSET));
+	}
+
+	private static byte encode(Ticket.Category category) {
+		return category == null ? NO_CATEGORY : (byte) (category.ordinal() + 1);
+	}
+
+	private static Ticket.Category decode(byte category) {
+		return category <= NO_CATEGORY || category > CATEGORIES.length ? null : CATEGORIES[category - 1];
+	}
+
+	/**
+	 * Walks the records in id order and returns copies of the live ones.
+	 */
+	private final class RecordIterator implements Iterator<Ticket> {
+
+		private long key;
+		private Ticket next;
+		private Ticket last;
+
+		@Override
+		public boolean hasNext() {
+			var highest = highestKey.get();
+			while (next == null && key <= highest) {
+				if (chunkOrNull(key) == null) {
+					key = ((key >>> CHUNK_BITS) + 1) << CHUNK_BITS;
+					continue;
+				}
+				next = get(key++);
+			}
+			return next != null;
+		}
+
+		@Override
+		public Ticket next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = null;
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			OffHeapTicketMap.this.remove(last.getId());
+			last = null;
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+
+import java.util.Map;
+
+/**
+ * Ticket storage that keeps tickets outside of the java heap, see {@link OffHeapTicketMap}.
+ * The off-heap footprint is limited by the -XX:MaxDirectMemorySize JVM option.
+ */
+public class OffHeapTicketStorage extends InMemoryStorage<Ticket> {
+
+	private final LongMap<Ticket> tickets = observe(new OffHeapTicketMap());
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Long, Ticket> getData() {
+		return tickets;
+	}
+}
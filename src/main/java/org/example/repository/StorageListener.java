@@ -0,0 +1,26 @@
+package org.example.repository;
+
+/**
+ * Listener of entity changes, see {@link InMemoryStorage#addListener(StorageListener)}.
+ * Listeners are notified about puts and removes on the storage map. Listeners are called on the thread that made
+ * the change, after the storage map was changed. A listener may reject a put by throwing, in which case the put is
+ * undone; a listener set as the journal of a storage is called before the storage map is changed instead,
+ * see {@link InMemoryStorage#setJournal(StorageListener)}.
+ */
+public interface StorageListener<T> {
+
+	/**
+	 * Called after an entity was saved or updated. An entity that replaces another one is preceded by
+	 * {@link #onRemove(long, Object)} of the replaced entity.
+	 * @param id Entity id
+	 * @param entity Saved entity
+	 */
+	void onPut(long id, T entity);
+
+	/**
+	 * Called after an entity was removed.
+	 * @param id Entity id
+	 * @param entity Removed entity
+	 */
+	void onRemove(long id, T entity);
+}
@@ -0,0 +1,27 @@
+package org.example.repository;
+
+/**
+ * Available layouts of the ticket storage.
+ */
+public enum TicketStorageMode {
+
+	/**
+	 * Ticket objects in a primitive-keyed hash map.
+	 */
+	HEAP,
+
+	/**
+	 * Ticket fields in parallel primitive columns.
+	 */
+	COLUMNAR,
+
+	/**
+	 * Fixed-width ticket records in direct buffers outside of the java heap.
+	 */
+	OFF_HEAP,
+
+	/**
+	 * Fixed-width ticket records in a memory-mapped file that survives restarts.
+	 */
+	MAPPED
+}
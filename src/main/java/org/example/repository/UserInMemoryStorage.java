@@ -3,13 +3,12 @@ package org.example.repository;
 import org.example.model.User;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @Component
 public class UserInMemoryStorage extends InMemoryStorage<User> {
 
-	private Map<Long, User> users = new HashMap<>();
+	private final LongMap<User> users = observe(new ConcurrentLongHashMap<>());
 
 	/**
 	 * {@inheritDoc}
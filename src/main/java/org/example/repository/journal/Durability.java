@@ -0,0 +1,29 @@
+package org.example.repository.journal;
+
+/**
+ * Durability of the changes written to the storage journal.
+ */
+public enum Durability {
+
+	/**
+	 * Changes are not journaled and are lost on restart.
+	 */
+	NONE,
+
+	/**
+	 * Changes are appended to the journal in background batches, the caller doesn't wait for the fsync.
+	 * A crash may lose the most recent changes.
+	 */
+	ASYNC,
+
+	/**
+	 * Changes are appended to the journal in background batches, the caller waits until the batch is fsynced.
+	 * Concurrent callers share one fsync per batch.
+	 */
+	GROUP,
+
+	/**
+	 * Every change is written and fsynced by the caller before it returns.
+	 */
+	SYNC
+}
@@ -0,0 +1,39 @@
+package org.example.repository.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of an entity in the storage journal. The entity id is written by the journal itself.
+ */
+interface EntityCodec<T> {
+
+	/**
+	 * Writes the fields of the entity except for its id.
+	 * @param entity Entity
+	 * @param out Journal record
+	 * @throws IOException if the record can't be written
+	 */
+	void write(T entity, DataOutput out) throws IOException;
+
+	/**
+	 * Reads the entity written by {@link #write(Object, DataOutput)}.
+	 * @param id Entity id
+	 * @param in Journal record
+	 * @return Entity
+	 * @throws IOException if the record can't be read
+	 */
+	T read(long id, DataInput in) throws IOException;
+
+	static void writeNullableString(String value, DataOutput out) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	static String readNullableString(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
@@ -0,0 +1,30 @@
+package org.example.repository.journal;
+
+import org.example.model.Event;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Journal encoding of events.
+ */
+class EventCodec implements EntityCodec<Event> {
+
+	@Override
+	public void write(Event event, DataOutput out) throws IOException {
+		EntityCodec.writeNullableString(event.getTitle(), out);
+		out.writeBoolean(event.getDate() != null);
+		if (event.getDate() != null) {
+			out.writeLong(event.getDate().toEpochDay());
+		}
+	}
+
+	@Override
+	public Event read(long id, DataInput in) throws IOException {
+		var title = EntityCodec.readNullableString(in);
+		var date = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+		return new Event(id, title, date);
+	}
+}
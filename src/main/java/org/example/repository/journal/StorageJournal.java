@@ -0,0 +1,416 @@
+package org.example.repository.journal;
+
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.StorageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Journal of the changes made to the entity storages.
+ * Changes made through the storage maps are appended ahead of being applied to numbered log segments as records of the storage,
+ * the operation, the entity id and the encoded entity. A snapshot switches the journal to a new segment, waits for
+ * the changes journaled to the old segment to reach the storage maps and then writes all entities and id indexes,
+ * while writers keep appending to the new segment. The snapshot is fuzzy,
+ * but replaying the segments that follow it makes it consistent again, so older segments are deleted after it.
+ * On startup the latest snapshot is loaded and the following segments are replayed into the storages.
+ */
+@Component
+public class StorageJournal {
+
+	private static final Logger logger = LoggerFactory.getLogger(StorageJournal.class);
+
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+
+	private static final int SNAPSHOT_MAGIC = 0x534e4150;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final byte SNAPSHOT_ENTITY = 1;
+	private static final byte SNAPSHOT_END = 0;
+	private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.log");
+	private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.dat");
+
+	private final Durability durability;
+	private final Path directory;
+	private final long snapshotInterval;
+	private final List<JournaledStorage<?>> storages;
+	private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+	private final LongAdder appendedRecords = new LongAdder();
+
+	private WriteAheadLog log;
+	private long segment;
+	private ScheduledExecutorService scheduler;
+
+	@Autowired
+	public StorageJournal(@Value("${journal.durability:NONE}") Durability durability,
+						  @Value("${journal.directory:data/journal}") String directory,
+						  @Value("${journal.snapshot.interval:300}") long snapshotInterval,
+						  InMemoryStorage<Event> eventStorage,
+						  InMemoryStorage<User> userStorage,
+						  InMemoryStorage<Ticket> ticketStorage) {
+		this.durability = durability;
+		this.directory = Path.of(directory);
+		this.snapshotInterval = snapshotInterval;
+		this.storages = List.of(
+				new JournaledStorage<>(0, eventStorage, new EventCodec()),
+				new JournaledStorage<>(1, userStorage, new UserCodec()),
+				new JournaledStorage<>(2, ticketStorage, new TicketCodec()));
+	}
+
+	/**
+	 * Loads the latest snapshot, replays the following segments into the storages and starts journaling their changes.
+	 * @throws IOException if the journal can't be opened or read
+	 */
+	@PostConstruct
+	public void open() throws IOException {
+		if (durability == Durability.NONE) {
+			logger.info("Storage journal is disabled.");
+			return;
+		}
+		Files.createDirectories(directory);
+		var snapshot = latest(SNAPSHOT_FILE);
+		segment = snapshot.isPresent() ? loadSnapshot(snapshot.getAsLong()) : 0;
+
+		long records = 0;
+		for (var replayed : list(SEGMENT_FILE)) {
+			if (replayed < segment) {
+				continue;
+			}
+			if (log != null) {
+				log.close();
+			}
+			segment = replayed;
+			log = new WriteAheadLog(segmentFile(segment), durability);
+			records += log.replay(this::apply);
+		}
+		if (log == null) {
+			log = new WriteAheadLog(segmentFile(segment), durability);
+		}
+		var restored = snapshot.isPresent() || records > 0;
+		for (var storage : storages) {
+			storage.restore(restored);
+		}
+		logger.info("Restored storages from {} with {} replayed records, {} durability.", directory, records, durability);
+
+		if (snapshotInterval > 0) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				var thread = new Thread(runnable, "storage-snapshot");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the storages, unless nothing was journaled since the last one,
+	 * and deletes the segments and snapshots it replaces.
+	 * @return true if a snapshot was taken, otherwise - false
+	 * @throws IOException if the snapshot can't be written
+	 */
+	public synchronized boolean snapshot() throws IOException {
+		if (log == null || appendedRecords.sum() == 0) {
+			return false;
+		}
+		var start = System.nanoTime();
+		long snapshotSegment;
+		WriteAheadLog previous;
+		segmentLock.writeLock().lock();
+		try {
+			previous = log;
+			snapshotSegment = segment + 1;
+			log = new WriteAheadLog(segmentFile(snapshotSegment), durability);
+			segment = snapshotSegment;
+			appendedRecords.reset();
+		} finally {
+			segmentLock.writeLock().unlock();
+		}
+		previous.close();
+		for (var storage : storages) {
+			storage.awaitChanges();
+		}
+
+		var entities = writeSnapshot(snapshotSegment);
+		for (var old : list(SEGMENT_FILE)) {
+			if (old < snapshotSegment) {
+				Files.deleteIfExists(segmentFile(old));
+			}
+		}
+		for (var old : list(SNAPSHOT_FILE)) {
+			if (old < snapshotSegment) {
+				Files.deleteIfExists(snapshotFile(old));
+			}
+		}
+		logger.info("Took snapshot {} with {} entities in {} ms.",
+				snapshotSegment, entities, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return true;
+	}
+
+	/**
+	 * Stops taking snapshots, writes the pending records and closes the journal.
+	 * @throws IOException if the journal can't be written
+	 */
+	@PreDestroy
+	public synchronized void close() throws IOException {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		segmentLock.writeLock().lock();
+		try {
+			if (log != null) {
+				log.close();
+				log = null;
+			}
+		} finally {
+			segmentLock.writeLock().unlock();
+		}
+	}
+
+	private void scheduledSnapshot() {
+		try {
+			snapshot();
+		} catch (IOException | RuntimeException e) {
+			logger.error("Failed to take storage snapshot.", e);
+		}
+	}
+
+	private void apply(DataInput record) throws IOException {
+		var storage = storages.get(record.readByte());
+		var operation = record.readByte();
+		var id = record.readLong();
+		if (operation == PUT) {
+			storage.replayPut(id, record);
+		} else {
+			storage.replayRemove(id);
+		}
+	}
+
+	private void append(byte[] record) {
+		segmentLock.readLock().lock();
+		try {
+			if (log == null) {
+				throw new IllegalStateException("Storage journal is closed");
+			}
+			log.append(record);
+			appendedRecords.increment();
+		} finally {
+			segmentLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes the snapshot to a temporary file and moves it in place once it is on disk.
+	 */
+	private long writeSnapshot(long snapshotSegment) throws IOException {
+		var file = snapshotFile(snapshotSegment);
+		var temporary = directory.resolve(file.getFileName() + ".tmp");
+		long entities = 0;
+		try (var fileOut = Files.newOutputStream(temporary)) {
+			var checked = new CheckedOutputStream(new BufferedOutputStream(fileOut, 1 << 16), new CRC32());
+			var out = new DataOutputStream(checked);
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeLong(snapshotSegment);
+			for (var storage : storages) {
+				entities += storage.writeSnapshot(out);
+			}
+			out.flush();
+			out.writeLong(checked.getChecksum().getValue());
+			out.flush();
+		}
+		try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		return entities;
+	}
+
+	/**
+	 * Loads the snapshot into the storages.
+	 * @return Number of the first segment to replay after the snapshot
+	 */
+	private long loadSnapshot(long snapshotSegment) throws IOException {
+		var file = snapshotFile(snapshotSegment);
+		try (var fileIn = Files.newInputStream(file)) {
+			var checked = new CheckedInputStream(new BufferedInputStream(fileIn, 1 << 16), new CRC32());
+			var in = new DataInputStream(checked);
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION || in.readLong() != snapshotSegment) {
+				throw new IOException("Not a storage snapshot: " + file);
+			}
+			long entities = 0;
+			for (var storage : storages) {
+				entities += storage.loadSnapshot(in);
+			}
+			var checksum = checked.getChecksum().getValue();
+			if (in.readLong() != checksum) {
+				throw new IOException("Storage snapshot is corrupted: " + file);
+			}
+			logger.info("Loaded snapshot {} with {} entities.", snapshotSegment, entities);
+		}
+		return snapshotSegment;
+	}
+
+	private List<Long> list(Pattern pattern) throws IOException {
+		try (var files = Files.list(directory)) {
+			return files.map(file -> pattern.matcher(file.getFileName().toString()))
+					.filter(matcher -> matcher.matches())
+					.map(matcher -> Long.parseLong(matcher.group(1)))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	private OptionalLong latest(Pattern pattern) throws IOException {
+		return list(pattern).stream().mapToLong(Long::longValue).max();
+	}
+
+	private Path segmentFile(long number) {
+		return directory.resolve(String.format("segment-%012d.log", number));
+	}
+
+	private Path snapshotFile(long number) {
+		return directory.resolve(String.format("snapshot-%012d.dat", number));
+	}
+
+	/**
+	 * Storage with its journal encoding, set as the journal of the storage, so every change is appended to the journal
+	 * before the storage map is changed and a change that fails to append is not applied.
+	 */
+	private final class JournaledStorage<T> implements StorageListener<T> {
+
+		private final byte type;
+		private final InMemoryStorage<T> storage;
+		private final EntityCodec<T> codec;
+		private long highestId;
+
+		private JournaledStorage(int type, InMemoryStorage<T> storage, EntityCodec<T> codec) {
+			this.type = (byte) type;
+			this.storage = storage;
+			this.codec = codec;
+		}
+
+		@Override
+		public void onPut(long id, T entity) {
+			append(encode(PUT, id, entity));
+		}
+
+		@Override
+		public void onRemove(long id, T entity) {
+			append(encode(REMOVE, id, null));
+		}
+
+		private void replayPut(long id, DataInput record) throws IOException {
+			storage.getData().put(id, codec.read(id, record));
+			highestId = Math.max(highestId, id);
+		}
+
+		private void replayRemove(long id) {
+			storage.getData().remove(id);
+			highestId = Math.max(highestId, id);
+		}
+
+		private void awaitChanges() {
+			storage.awaitChanges();
+		}
+
+		private void restore(boolean restored) {
+			storage.restoreIndex(highestId);
+			if (restored) {
+				storage.markRestored();
+			}
+			storage.setJournal(this);
+		}
+
+		/**
+		 * Writes the id index and the entities of the storage.
+		 * @return Number of written entities
+		 */
+		private long writeSnapshot(DataOutputStream out) throws IOException {
+			out.writeByte(type);
+			out.writeLong(storage.getLastIndex());
+			var buffer = new ByteArrayOutputStream(64);
+			var entity = new DataOutputStream(buffer);
+			long entities = 0;
+			for (var entry : storage.getData().entrySet()) {
+				buffer.reset();
+				codec.write(entry.getValue(), entity);
+				out.writeByte(SNAPSHOT_ENTITY);
+				out.writeLong(entry.getKey());
+				buffer.writeTo(out);
+				entities++;
+			}
+			out.writeByte(SNAPSHOT_END);
+			return entities;
+		}
+
+		/**
+		 * Reads the id index and the entities written by {@link #writeSnapshot(DataOutputStream)}.
+		 * @return Number of loaded entities
+		 */
+		private long loadSnapshot(DataInput in) throws IOException {
+			if (in.readByte() != type) {
+				throw new IOException("Unexpected storage in snapshot");
+			}
+			var lastIndex = in.readLong();
+			long entities = 0;
+			var data = storage.getData();
+			while (in.readByte() == SNAPSHOT_ENTITY) {
+				var id = in.readLong();
+				data.put(id, codec.read(id, in));
+				entities++;
+			}
+			highestId = Math.max(highestId, lastIndex);
+			return entities;
+		}
+
+		private byte[] encode(byte operation, long id, T entity) {
+			var bytes = new ByteArrayOutputStream(64);
+			var out = new DataOutputStream(bytes);
+			try {
+				out.writeByte(type);
+				out.writeByte(operation);
+				out.writeLong(id);
+				if (entity != null) {
+					codec.write(entity, out);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return bytes.toByteArray();
+		}
+	}
+}
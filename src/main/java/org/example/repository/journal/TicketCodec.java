@@ -0,0 +1,33 @@
+package org.example.repository.journal;
+
+import org.example.model.Ticket;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Journal encoding of tickets.
+ */
+class TicketCodec implements EntityCodec<Ticket> {
+
+	private static final byte NO_CATEGORY = -1;
+	private static final Ticket.Category[] CATEGORIES = Ticket.Category.values();
+
+	@Override
+	public void write(Ticket ticket, DataOutput out) throws IOException {
+		out.writeLong(ticket.getUserId());
+		out.writeLong(ticket.getEventId());
+		out.writeByte(ticket.getCategory() == null ? NO_CATEGORY : ticket.getCategory().ordinal());
+		out.writeInt(ticket.getPlace());
+	}
+
+	@Override
+	public Ticket read(long id, DataInput in) throws IOException {
+		var userId = in.readLong();
+		var eventId = in.readLong();
+		var category = in.readByte();
+		var place = in.readInt();
+		return new Ticket(id, userId, eventId, category == NO_CATEGORY ? null : CATEGORIES[category], place);
+	}
+}
@@ -0,0 +1,26 @@
+package org.example.repository.journal;
+
+import org.example.model.User;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Journal encoding of users.
+ */
+class UserCodec implements EntityCodec<User> {
+
+	@Override
+	public void write(User user, DataOutput out) throws IOException {
+		EntityCodec.writeNullableString(user.getName(), out);
+		EntityCodec.writeNullableString(user.getEmail(), out);
+	}
+
+	@Override
+	public User read(long id, DataInput in) throws IOException {
+		var name = EntityCodec.readNullableString(in);
+		var email = EntityCodec.readNullableString(in);
+		return new User(id, name, email);
+	}
+}
@@ -0,0 +1,261 @@
+package org.example.repository.journal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of binary records.
+ * Every record is framed by its length and CRC32, so a record torn by a crash is detected and cut off on replay.
+ * With {@link Durability#GROUP} and {@link Durability#ASYNC} records are collected into batches that a single
+ * flusher thread writes with one fsync each; with {@link Durability#SYNC} the caller writes and fsyncs its record.
+ */
+public class WriteAheadLog implements Closeable {
+
+	/**
+	 * Handler of replayed records.
+	 */
+	@FunctionalInterface
+	public interface RecordHandler {
+
+		/**
+		 * Handles the record.
+		 * @param record Record payload
+		 * @throws IOException if the record can't be read
+		 */
+		void handle(DataInput record) throws IOException;
+	}
+
+	private static final int FRAME_HEADER_SIZE = 8;
+	private static final int MAX_RECORD_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	private final OutputStream channelOut;
+	private final Durability durability;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition pending = lock.newCondition();
+	private final Condition synced = lock.newCondition();
+	private final Thread flusher;
+
+	private ByteArrayOutputStream batch = new ByteArrayOutputStream();
+	private ByteArrayOutputStream spare = new ByteArrayOutputStream();
+	private long appendedRecords;
+	private long syncedRecords;
+	private IOException failure;
+	private boolean closed;
+
+	/**
+	 * Opens the log file, creating it if it doesn't exist. New records are appended after the existing ones,
+	 * so {@link #replay(RecordHandler)} must be called first if the file may end with a torn record.
+	 * @param file Path to the log file
+	 * @param durability Durability of appended records
+	 * @throws IOException if the file can't be opened
+	 */
+	public WriteAheadLog(Path file, Durability durability) throws IOException {
+		if (durability == Durability.NONE) {
+			throw new IllegalArgumentException("Write-ahead log requires a durability other than " + durability);
+		}
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		this.durability = durability;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		channelOut = Channels.newOutputStream(channel);
+		if (durability == Durability.SYNC) {
+			flusher = null;
+		} else {
+			flusher = new Thread(this::flushBatches, "write-ahead-log-flusher");
+			flusher.setDaemon(true);
+			flusher.start();
+		}
+	}
+
+	/**
+	 * Reads all records from the start of the file. Reading stops at the first torn or corrupted record,
+	 * which is cut off together with everything after it.
+	 * @param handler Handler of records
+	 * @return Number of replayed records
+	 * @throws IOException if the file can't be read or the handler fails
+	 */
+	public long replay(RecordHandler handler) throws IOException {
+		lock.lock();
+		try {
+			channel.position(0);
+			var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			var crc = new CRC32();
+			long position = 0;
+			long records = 0;
+			while (true) {
+				byte[] payload;
+				try {
+					var length = in.readInt();
+					var checksum = in.readInt();
+					if (length <= 0 || length > MAX_RECORD_SIZE) {
+						break;
+					}
+					payload = new byte[length];
+					in.readFully(payload);
+					crc.reset();
+					crc.update(payload);
+					if ((int) crc.getValue() != checksum) {
+						break;
+					}
+				} catch (EOFException e) {
+					break;
+				}
+				handler.handle(new DataInputStream(new ByteArrayInputStream(payload)));
+				position += FRAME_HEADER_SIZE + payload.length;
+				records++;
+			}
+			channel.truncate(position);
+			channel.position(position);
+			return records;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends the record. Returns once the record is as durable as the configured {@link Durability}.
+	 * @param payload Record payload
+	 * @throws UncheckedIOException if the log failed to write a record
+	 */
+	public void append(byte[] payload) {
+		if (payload.length == 0 || payload.length > MAX_RECORD_SIZE) {
+			throw new IllegalArgumentException("Invalid record size: " + payload.length);
+		}
+		var frame = frame(payload);
+		lock.lock();
+		try {
+			checkOpen();
+			if (durability == Durability.SYNC) {
+				while (frame.hasRemaining()) {
+					channel.write(frame);
+				}
+				channel.force(false);
+				return;
+			}
+			batch.write(frame.array(), 0, frame.limit());
+			var record = ++appendedRecords;
+			pending.signal();
+			if (durability == Durability.GROUP) {
+				while (syncedRecords < record && failure == null) {
+					synced.awaitUninterruptibly();
+				}
+				if (syncedRecords < record) {
+					throw new UncheckedIOException("Write-ahead log failed to write a record", failure);
+				}
+			}
+		} catch (IOException e) {
+			failure = e;
+			throw new UncheckedIOException("Failed to append to the write-ahead log", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the pending records and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			closed = true;
+			pending.signal();
+		} finally {
+			lock.unlock();
+		}
+		if (flusher != null) {
+			try {
+				flusher.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (channel.isOpen()) {
+			channel.force(false);
+			channel.close();
+		}
+	}
+
+	private void checkOpen() {
+		if (failure != null) {
+			throw new UncheckedIOException("Write-ahead log failed to write a record", failure);
+		}
+		if (closed) {
+			throw new IllegalStateException("Write-ahead log is closed");
+		}
+	}
+
+	/**
+	 * Writes the collected batches until the log is closed. The lock is released during the write and fsync,
+	 * so callers keep filling the next batch meanwhile.
+	 */
+	private void flushBatches() {
+		lock.lock();
+		try {
+			while (true) {
+				while (batch.size() == 0 && !closed) {
+					pending.awaitUninterruptibly();
+				}
+				if (batch.size() == 0) {
+					return;
+				}
+				var records = appendedRecords;
+				var data = batch;
+				batch = spare;
+				lock.unlock();
+				IOException error = null;
+				try {
+					data.writeTo(channelOut);
+					channel.force(false);
+				} catch (IOException e) {
+					error = e;
+				} finally {
+					data.reset();
+					lock.lock();
+				}
+				spare = data;
+				if (error != null) {
+					failure = error;
+				} else {
+					syncedRecords = records;
+				}
+				synced.signalAll();
+				if (error != null) {
+					return;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static ByteBuffer frame(byte[] payload) {
+		var crc = new CRC32();
+		crc.update(payload);
+		var frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+		frame.putInt(payload.length);
+		frame.putInt((int) crc.getValue());
+		frame.put(payload);
+		return frame.flip();
+	}
+}
@@ -1,8 +1,10 @@
 package org.example.service;
 
+import org.example.dao.query.Page;
 import org.example.model.Event;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface EventService {
@@ -15,7 +17,8 @@ public interface EventService {
 	Event getEventById(long eventId);
 
 	/**
-	 * Get list of events by matching title. Title is matched using 'contains' approach.
+	 * Get list of events by matching title, the most relevant first. Title is matched by words ignoring case,
+	 * the event title must contain every word, the last word may be the beginning of a word.
 	 * In case nothing was found, empty list is returned.
 	 *
 	 * @param title    Event title or it's part.
@@ -25,6 +28,28 @@ public interface EventService {
 	 */
 	List<Event> getEventsByTitle(String title, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of events by matching title, the most relevant first, following the cursor.
+	 * Title is matched like in {@link #getEventsByTitle(String, int, int)}.
+	 *
+	 * @param title    Event title or it's part.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of events to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Event> getEventsByTitle(String title, String cursor, int pageSize);
+
+	/**
+	 * Get events with titles starting with the prefix, to suggest them while the title is typed.
+	 * Titles are matched ignoring case and the events are sorted by title.
+	 *
+	 * @param prefix Title prefix.
+	 * @param limit  Maximal number of events to return, cut to the maximal page size.
+	 * @return List of events.
+	 */
+	List<Event> suggestEvents(String prefix, int limit);
+
 	/**
 	 * Get list of events for specified day.
 	 * In case nothing was found, empty list is returned.
@@ -36,6 +61,41 @@ public interface EventService {
 	 */
 	List<Event> getEventsForDay(LocalDate day, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of events for specified day, following the cursor.
+	 *
+	 * @param day      Date object from which day information is extracted.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of events to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Event> getEventsForDay(LocalDate day, String cursor, int pageSize);
+
+	/**
+	 * Get list of events between the specified days, inclusive, sorted by date.
+	 * In case nothing was found, empty list is returned.
+	 *
+	 * @param from     First day.
+	 * @param to       Last day.
+	 * @param pageSize Pagination param. Number of events to return on a page.
+	 * @param pageNum  Pagination param. Number of the page to return. Starts from 1.
+	 * @return List of events.
+	 */
+	List<Event> getEventsBetween(LocalDate from, LocalDate to, int pageSize, int pageNum);
+
+	/**
+	 * Get a page of events between the specified days, inclusive, sorted by date, following the cursor.
+	 *
+	 * @param from     First day.
+	 * @param to       Last day.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of events to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Event> getEventsBetween(LocalDate from, LocalDate to, String cursor, int pageSize);
+
 	/**
 	 * Creates new event. Event id is be auto-generated.
 	 *
@@ -44,6 +104,15 @@ public interface EventService {
 	 */
 	Event createEvent(Event event);
 
+	/**
+	 * Creates new events in bulk.
+	 *
+	 * @param events Event data.
+	 * @param keepIds Whether events keep their ids instead of getting auto-generated ones.
+	 * @return Created Event objects.
+	 */
+	List<Event> createEvents(Collection<Event> events, boolean keepIds);
+
 	/**
 	 * Updates event using given data.
 	 *
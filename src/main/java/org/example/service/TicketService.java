@@ -1,9 +1,11 @@
 package org.example.service;
 
+import org.example.dao.query.Page;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TicketService {
@@ -20,6 +22,29 @@ public interface TicketService {
 	 */
 	Ticket bookTicket(long userId, long eventId, Ticket.Category category, int place);
 
+	/**
+	 * Book tickets in bulk.
+	 *
+	 * @param tickets Tickets to book.
+	 * @param keepIds Whether tickets keep their ids instead of getting auto-generated ones.
+	 * @return Booked ticket objects.
+	 * @throws java.lang.IllegalStateException if any of the places has already been booked, in which case none of the tickets is booked.
+	 */
+	List<Ticket> bookTickets(Collection<Ticket> tickets, boolean keepIds);
+
+	/**
+	 * Book tickets for a group, claiming all the places of the event or none of them.
+	 *
+	 * @param userId   User Id.
+	 * @param eventId  Event Id.
+	 * @param category Service category.
+	 * @param places   Distinct place numbers.
+	 * @return Booked ticket objects in the order of the places.
+	 * @throws java.lang.IllegalStateException if any of the places has already been booked, in which case none of them is booked.
+	 * @throws java.lang.IllegalArgumentException if there are no places, or a place is repeated or negative.
+	 */
+	List<Ticket> bookTickets(long userId, long eventId, Ticket.Category category, List<Integer> places);
+
 	/**
 	 * Get all booked tickets for specified user. Tickets should be sorted by event date in descending order.
 	 *
@@ -30,6 +55,17 @@ public interface TicketService {
 	 */
 	List<Ticket> getBookedTickets(User user, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets for specified user, sorted by event date in descending order, following the cursor.
+	 *
+	 * @param user     User
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of tickets to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Ticket> getBookedTickets(User user, String cursor, int pageSize);
+
 	/**
 	 * Get all booked tickets for specified event. Tickets should be sorted in by user email in ascending order.
 	 *
@@ -40,6 +76,17 @@ public interface TicketService {
 	 */
 	List<Ticket> getBookedTickets(Event event, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets for specified event, sorted by user email in ascending order, following the cursor.
+	 *
+	 * @param event    Event
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of tickets to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<Ticket> getBookedTickets(Event event, String cursor, int pageSize);
+
 	/**
 	 * Cancel ticket with a specified id.
 	 *
@@ -1,7 +1,9 @@
 package org.example.service;
 
+import org.example.dao.query.Page;
 import org.example.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserService {
@@ -31,6 +33,17 @@ public interface UserService {
 	 */
 	List<User> getUsersByName(String name, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of users by matching name, sorted by id, following the cursor. Name is matched using 'contains' approach.
+	 *
+	 * @param name     Users name or it's part.
+	 * @param cursor   Pagination param. Cursor of the next page returned with the previous page, null for the first page.
+	 * @param pageSize Pagination param. Number of users to return on a page, cut to the maximal page size.
+	 * @return Page with the cursor of the next page.
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	Page<User> getUsersByName(String name, String cursor, int pageSize);
+
 	/**
 	 * Creates new user. User id is be auto-generated.
 	 *
@@ -39,6 +52,16 @@ public interface UserService {
 	 */
 	User createUser(User user);
 
+	/**
+	 * Creates new users in bulk. Either all users are created or none of them.
+	 *
+	 * @param users User data.
+	 * @param keepIds Whether users keep their ids instead of getting auto-generated ones.
+	 * @return Created User objects.
+	 * @throws IllegalArgumentException if a user email is not unique.
+	 */
+	List<User> createUsers(Collection<User> users, boolean keepIds);
+
 	/**
 	 * Updates user using given data.
 	 *
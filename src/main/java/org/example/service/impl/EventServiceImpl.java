@@ -1,6 +1,8 @@
 package org.example.service.impl;
 
 import org.example.dao.EventRepository;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
 import org.example.exception.EntityNotFoundException;
 import org.example.model.Event;
 import org.example.service.EventService;
@@ -8,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -33,6 +36,22 @@ public class EventServiceImpl implements EventService {
 		return repository.getEventsByTitle(title, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Event> getEventsByTitle(String title, String cursor, int pageSize) {
+		return repository.getEventsByTitle(title, Cursor.decode(cursor), pageSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Event> suggestEvents(String prefix, int limit) {
+		return repository.getEventsByTitlePrefix(prefix, limit);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -41,6 +60,30 @@ public class EventServiceImpl implements EventService {
 		return repository.getEventsForDay(day, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Event> getEventsForDay(LocalDate day, String cursor, int pageSize) {
+		return repository.getEventsForDay(day, Cursor.decode(cursor), pageSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Event> getEventsBetween(LocalDate from, LocalDate to, int pageSize, int pageNum) {
+		return repository.getEventsBetween(from, to, pageSize, pageNum);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Event> getEventsBetween(LocalDate from, LocalDate to, String cursor, int pageSize) {
+		return repository.getEventsBetween(from, to, Cursor.decode(cursor), pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -49,6 +92,14 @@ public class EventServiceImpl implements EventService {
 		return repository.save(event);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Event> createEvents(Collection<Event> events, boolean keepIds) {
+		return repository.saveAll(events, keepIds);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
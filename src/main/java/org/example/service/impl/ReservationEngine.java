@@ -0,0 +1,132 @@
+package org.example.service.impl;
+
+import org.example.dao.TicketRepository;
+import org.example.dao.index.SeatIndex;
+import org.example.model.Ticket;
+import org.example.repository.IdAllocator;
+import org.example.repository.InMemoryStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Engine of ticket reservations that takes no lock on the way of a booking, so concurrent bookings of a popular
+ * event don't wait for each other. A booking first wins its seat with a compare-and-set in the {@link SeatIndex},
+ * then takes a ticket id from the block of its thread and only then publishes the ticket to the storage.
+ * A booking that loses the seat is rejected before it allocates an id or writes anything.
+ * A group booking claims its seats in ascending place order and releases them if any one is lost,
+ * so of two overlapping groups the one that wins the lowest shared seat gets all of its seats,
+ * and no ticket of a group is published before all seats are won.
+ */
+@Component
+public class ReservationEngine {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReservationEngine.class);
+
+	private final SeatIndex seatIndex;
+	private final TicketRepository repository;
+	private final IdAllocator ids;
+
+	@Autowired
+	public ReservationEngine(SeatIndex seatIndex, TicketRepository repository, InMemoryStorage<Ticket> ticketStorage,
+							 @Value("${tickets.id.block.size:64}") int idBlockSize) {
+		this.seatIndex = seatIndex;
+		this.repository = repository;
+		this.ids = new IdAllocator(ticketStorage, idBlockSize);
+	}
+
+	/**
+	 * Reserves the seat and stores the ticket for it.
+	 * @param userId User id
+	 * @param eventId Event id
+	 * @param category Ticket category
+	 * @param place Place number
+	 * @return Booked ticket
+	 * @throws IllegalStateException if the place has already been booked
+	 * @throws IllegalArgumentException if the place number is negative
+	 */
+	public Ticket reserve(long userId, long eventId, Ticket.Category category, int place) {
+		if (!seatIndex.claim(eventId, category, place)) {
+			logger.error("Failed to book ticket. Place: {} of event: {} is already booked.", place, eventId);
+			throw new IllegalStateException("Place " + place + " is already booked");
+		}
+		return repository.publish(new Ticket(ids.next(), userId, eventId, category, place));
+	}
+
+	/**
+	 * Reserves all the seats and stores the tickets for them, or reserves none of them.
+	 * @param userId User id
+	 * @param eventId Event id
+	 * @param category Ticket category
+	 * @param places Distinct place numbers
+	 * @return Booked tickets in the order of the places
+	 * @throws IllegalStateException if any of the places has already been booked
+	 * @throws IllegalArgumentException if there are no places, or a place is repeated or negative
+	 */
+	public List<Ticket> reserveAll(long userId, long eventId, Ticket.Category category, List<Integer> places) {
+		var sorted = places.stream().mapToInt(Integer::intValue).sorted().toArray();
+		if (sorted.length == 0) {
+			throw new IllegalArgumentException("No places to book");
+		}
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] < 0 || i > 0 && sorted[i] == sorted[i - 1]) {
+				throw new IllegalArgumentException("Invalid place: " + sorted[i]);
+			}
+		}
+		for (int i = 0; i < sorted.length; i++) {
+			if (!seatIndex.claim(eventId, category, sorted[i])) {
+				release(eventId, category, sorted, i);
+				logger.error("Failed to book tickets. Place: {} of event: {} is already booked.", sorted[i], eventId);
+				throw new IllegalStateException("Place " + sorted[i] + " is already booked");
+			}
+		}
+		var tickets = new ArrayList<Ticket>(places.size());
+		for (var place : places) {
+			tickets.add(new Ticket(ids.next(), userId, eventId, category, place));
+		}
+		for (int i = 0; i < tickets.size(); i++) {
+			try {
+				repository.publish(tickets.get(i));
+			} catch (RuntimeException e) {
+				rollback(tickets, i, e);
+				throw e;
+			}
+		}
+		return tickets;
+	}
+
+	/**
+	 * Rolls back the group whose ticket failed to be published. The failed ticket is not stored and its seat is
+	 * released by {@link TicketRepository#publish(Ticket)}. The seats of the following tickets are released first,
+	 * since that can't fail, then the published tickets are deleted. A ticket that fails to be deleted stays stored
+	 * with its seat, and the rollback goes on with the others.
+	 */
+	private void rollback(List<Ticket> tickets, int failed, RuntimeException failure) {
+		for (int i = tickets.size() - 1; i > failed; i--) {
+			var ticket = tickets.get(i);
+			seatIndex.release(ticket.getEventId(), ticket.getCategory(), ticket.getPlace());
+		}
+		for (int i = failed - 1; i >= 0; i--) {
+			try {
+				repository.delete(tickets.get(i).getId());
+			} catch (RuntimeException e) {
+				logger.error("Failed to roll back ticket with id {}.", tickets.get(i).getId(), e);
+				failure.addSuppressed(e);
+			}
+		}
+	}
+
+	/**
+	 * Releases the first claimed seats, the last claimed first.
+	 */
+	private void release(long eventId, Ticket.Category category, int[] places, int count) {
+		for (int i = count - 1; i >= 0; i--) {
+			seatIndex.release(eventId, category, places[i]);
+		}
+	}
+}
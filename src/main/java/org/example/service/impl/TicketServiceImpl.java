@@ -1,6 +1,8 @@
 package org.example.service.impl;
 
 import org.example.dao.TicketRepository;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.User;
@@ -8,6 +10,7 @@ import org.example.service.TicketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -16,12 +19,32 @@ public class TicketServiceImpl implements TicketService {
 	@Autowired
 	private TicketRepository repository;
 
+	@Autowired
+	private ReservationEngine reservationEngine;
+
 	/**
 	 * {@inheritDoc}
+	 * The seat is reserved by the {@link ReservationEngine}, so concurrent bookings don't lock each other.
 	 */
 	@Override
 	public Ticket bookTicket(long userId, long eventId, Ticket.Category category, int place) {
-		return repository.save(new Ticket(0, userId, eventId, category, place));
+		return reservationEngine.reserve(userId, eventId, category, place);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Ticket> bookTickets(Collection<Ticket> tickets, boolean keepIds) {
+		return repository.saveAll(tickets, keepIds);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Ticket> bookTickets(long userId, long eventId, Ticket.Category category, List<Integer> places) {
+		return reservationEngine.reserveAll(userId, eventId, category, places);
 	}
 
 	/**
@@ -32,6 +55,14 @@ public class TicketServiceImpl implements TicketService {
 		return repository.getBookedTickets(user, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Ticket> getBookedTickets(User user, String cursor, int pageSize) {
+		return repository.getBookedTickets(user, Cursor.decode(cursor), pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -40,6 +71,14 @@ public class TicketServiceImpl implements TicketService {
 		return repository.getBookedTickets(event, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Ticket> getBookedTickets(Event event, String cursor, int pageSize) {
+		return repository.getBookedTickets(event, Cursor.decode(cursor), pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,12 +1,15 @@
 package org.example.service.impl;
 
 import org.example.dao.UserRepository;
+import org.example.dao.query.Cursor;
+import org.example.dao.query.Page;
 import org.example.exception.EntityNotFoundException;
 import org.example.model.User;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -41,6 +44,14 @@ public class UserServiceImpl implements UserService {
 		return repository.getUsersByName(name, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<User> getUsersByName(String name, String cursor, int pageSize) {
+		return repository.getUsersByName(name, Cursor.decode(cursor), pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -49,6 +60,14 @@ public class UserServiceImpl implements UserService {
 		return repository.save(user);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<User> createUsers(Collection<User> users, boolean keepIds) {
+		return repository.saveAll(users, keepIds);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -94,6 +94,17 @@ class EventControllerTest {
 		assertEquals(TITLE, events.get(0).getTitle());
 	}
 
+	@Test
+	void testSuggestEvents() throws Exception{
+		var result = mockMvc.perform(get("/event/suggest")
+						.param("prefix", "matrix l"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("eventSuggestions"))
+				.andReturn();
+		var events = (List<Event>) result.getModelAndView().getModel().get("eventSuggestions");
+		assertEquals(TITLE, events.get(0).getTitle());
+	}
+
 	@Test
 	void testGetEventsByTitle_WithNotExistingTitle() throws Exception{
 		var result = mockMvc.perform(get("/event/byTitle")
@@ -133,6 +144,57 @@ class EventControllerTest {
 		assertEquals(0, events.size());
 	}
 
+	@Test
+	void testGetEventsBetween() throws Exception{
+		var result = mockMvc.perform(get("/event/between")
+						.param("from", DATE.minusDays(1).toString())
+						.param("to", DATE.plusDays(6).toString())
+						.param("pageSize", "10")
+						.param("pageNum", "1"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("eventsBetween"))
+				.andReturn();
+		var events = (List<Event>) result.getModelAndView().getModel().get("eventsBetween");
+		assertTrue(events.stream().anyMatch(event -> TITLE.equals(event.getTitle())));
+		assertTrue(events.stream().allMatch(event -> !event.getDate().isBefore(DATE.minusDays(1))
+				&& !event.getDate().isAfter(DATE.plusDays(6))));
+	}
+
+	@Test
+	void testGetEventsBetween_WithCursor() throws Exception{
+		var result = mockMvc.perform(get("/event/between")
+						.param("from", DATE.minusDays(1).toString())
+						.param("to", DATE.plusDays(6).toString())
+						.param("pageSize", "1"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("eventsBetween"))
+				.andReturn();
+		var model = result.getModelAndView().getModel();
+		var events = (List<Event>) model.get("eventsBetween");
+		assertEquals(1, events.size());
+		if (model.get("nextCursor") != null) {
+			var next = mockMvc.perform(get("/event/between")
+							.param("from", DATE.minusDays(1).toString())
+							.param("to", DATE.plusDays(6).toString())
+							.param("cursor", (String) model.get("nextCursor"))
+							.param("pageSize", "1"))
+					.andExpect(status().isOk())
+					.andReturn();
+			var nextEvents = (List<Event>) next.getModelAndView().getModel().get("eventsBetween");
+			assertFalse(nextEvents.contains(events.get(0)));
+		}
+	}
+
+	@Test
+	void testGetEventsBetween_WithInvalidCursor() throws Exception{
+		mockMvc.perform(get("/event/between")
+						.param("from", DATE.minusDays(1).toString())
+						.param("to", DATE.plusDays(6).toString())
+						.param("cursor", "not a cursor")
+						.param("pageSize", "1"))
+				.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	void updateEventTest_WithAllAttributesUpdated() throws Exception{
 		var localDate = LocalDate.now();
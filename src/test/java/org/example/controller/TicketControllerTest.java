@@ -70,6 +70,15 @@ class TicketControllerTest {
 		assertEquals(PLACE, ticket.getPlace());
 	}
 
+	@Test
+	void testCreateTicket_WithBookedPlace() throws Exception{
+		var result = mockMvc.perform(post("/ticket")
+						.flashAttr("ticket", new Ticket(0L, USER_ID, EVENT_ID, Ticket.Category.STANDARD, PLACE)))
+				.andExpect(status().isConflict())
+				.andReturn();
+		assertEquals("Place " + PLACE + " is already booked", result.getModelAndView().getModel().get("message"));
+	}
+
 	@Test
 	void testGetTicketsByUser_WithExistingUser() throws Exception{
 		var result = mockMvc.perform(get("/ticket/byUser")
@@ -133,6 +142,30 @@ class TicketControllerTest {
 		assertEquals(0, tickets.size());
 	}
 
+	@Test
+	void testGetTicketsByEvent_WithCursor() throws Exception{
+		var result = mockMvc.perform(get("/ticket/byEvent")
+						.param("eventId", String.valueOf(EVENT_ID))
+						.param("pageSize", "1"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("ticketsByEvent"))
+				.andReturn();
+		var model = result.getModelAndView().getModel();
+		var tickets = (List<Ticket>) model.get("ticketsByEvent");
+		assertEquals(1, tickets.size());
+		assertEquals(EVENT_ID, tickets.get(0).getEventId());
+		if (model.get("nextCursor") != null) {
+			var next = mockMvc.perform(get("/ticket/byEvent")
+							.param("eventId", String.valueOf(EVENT_ID))
+							.param("cursor", (String) model.get("nextCursor"))
+							.param("pageSize", "1"))
+					.andExpect(status().isOk())
+					.andReturn();
+			var nextTickets = (List<Ticket>) next.getModelAndView().getModel().get("ticketsByEvent");
+			assertTrue(nextTickets.stream().noneMatch(ticket -> ticket.getId() == tickets.get(0).getId()));
+		}
+	}
+
 	@Test
 	void deleteTicketTest_WithExistingId() throws Exception{
 		var result = mockMvc.perform(post("/ticket/delete")
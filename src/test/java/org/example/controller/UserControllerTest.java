@@ -129,6 +129,18 @@ class UserControllerTest {
 		assertEquals(0, users.size());
 	}
 
+	@Test
+	void testGetUsersByName_WithCursor() throws Exception{
+		var result = mockMvc.perform(get("/user/byName")
+						.param("name", USER_NAME)
+						.param("pageSize", "1"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("users"))
+				.andReturn();
+		var users = (List<User>) result.getModelAndView().getModel().get("users");
+		assertEquals(USER_NAME, users.get(0).getName());
+	}
+
 	@Test
 	void updateUserTest_WithAllAttributesUpdate() throws Exception{
 		var result = mockMvc.perform(post("/user/update")
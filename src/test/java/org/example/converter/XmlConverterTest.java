@@ -0,0 +1,107 @@
+package org.example.converter;
+
+import com.thoughtworks.xstream.security.AnyTypePermission;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.oxm.xstream.XStreamMarshaller;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class XmlConverterTest {
+
+	private final XmlConverter<Ticket> ticketConverter = new XmlConverter<>();
+	private final XmlConverter<Event> eventConverter = new XmlConverter<>();
+
+	@BeforeEach
+	void setUp() {
+		var marshaller = new XStreamMarshaller();
+		marshaller.getXStream().addPermission(AnyTypePermission.ANY);
+		ReflectionTestUtils.setField(ticketConverter, "unmarshaller", marshaller);
+		ReflectionTestUtils.setField(eventConverter, "unmarshaller", marshaller);
+	}
+
+	@Test
+	void streamXmlObjectsInBatchesTest() throws IOException {
+		var xml = new StringBuilder("<java.util.ArrayList>");
+		for (int place = 1; place <= 25; place++) {
+			xml.append("<org.example.model.Ticket><id>").append(place).append("</id><userId>2</userId><eventId>3</eventId>")
+					.append("<category>BAR</category><place>").append(place).append("</place></org.example.model.Ticket>");
+		}
+		xml.append("</java.util.ArrayList>");
+
+		var batchSizes = new ArrayList<Integer>();
+		var tickets = new ArrayList<Ticket>();
+		var count = ticketConverter.streamXmlObjects(toStream(xml.toString()), 10, batch -> {
+			batchSizes.add(batch.size());
+			tickets.addAll(batch);
+		});
+
+		assertEquals(25, count);
+		assertEquals(List.of(10, 10, 5), batchSizes);
+		assertEquals(25, tickets.get(24).getPlace());
+		assertEquals(Ticket.Category.BAR, tickets.get(0).getCategory());
+	}
+
+	@Test
+	void streamXmlObjectsInParallelKeepsFileOrderTest() throws IOException {
+		var xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<java.util.ArrayList>\n  <!-- tickets -->\n");
+		for (int place = 1; place <= 1000; place++) {
+			xml.append("  <org.example.model.Ticket>\n    <id>").append(place).append("</id>\n    <userId>2</userId>\n")
+					.append("    <eventId>3</eventId>\n    <category>STANDARD</category>\n    <place>").append(place)
+					.append("</place>\n  </org.example.model.Ticket>\n");
+		}
+		xml.append("</java.util.ArrayList>\n");
+
+		var tickets = new ArrayList<Ticket>();
+		ticketConverter.setParseParallelism(2);
+		var count = ticketConverter.streamXmlObjectsInParallel(toStream(xml.toString()), 64, tickets::addAll);
+
+		assertEquals(1000, count);
+		for (int i = 0; i < tickets.size(); i++) {
+			assertEquals(i + 1, tickets.get(i).getPlace());
+		}
+	}
+
+	@Test
+	void streamXmlObjectsOfEmptyListTest() throws IOException {
+		var batches = new ArrayList<List<Event>>();
+
+		var count = eventConverter.streamXmlObjects(toStream("<java.util.ArrayList/>"), 10, batches::add);
+
+		assertEquals(0, count);
+		assertEquals(0, batches.size());
+		assertEquals(0, eventConverter.streamXmlObjectsInParallel(toStream("<java.util.ArrayList>\n</java.util.ArrayList>"), 10, batches::add));
+		assertEquals(0, batches.size());
+	}
+
+	@Test
+	void streamXmlEventsTest() throws IOException {
+		var xml = "<java.util.ArrayList>\n"
+				+ "    <org.example.model.Event>\n"
+				+ "        <id>1</id>\n"
+				+ "        <title>Matrix Lucky Hand</title>\n"
+				+ "        <date>2021-12-15</date>\n"
+				+ "    </org.example.model.Event>\n"
+				+ "</java.util.ArrayList>";
+		var events = new ArrayList<Event>();
+
+		eventConverter.streamXmlObjects(toStream(xml), 10, events::addAll);
+
+		assertEquals("Matrix Lucky Hand", events.get(0).getTitle());
+		assertEquals(LocalDate.of(2021, 12, 15), events.get(0).getDate());
+	}
+
+	private static ByteArrayInputStream toStream(String xml) {
+		return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,42 @@
+package org.example.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XmlElementSplitterTest {
+
+	@Test
+	void nextChunkTest() throws IOException {
+		var splitter = new XmlElementSplitter(new StringReader("<?xml version=\"1.0\"?>\n"
+				+ "<list size=\"3\">\n"
+				+ "  <item><name>a &gt; b</name></item>\n"
+				+ "  <!-- <item>commented</item> -->\n"
+				+ "  <item note='x > y'><name><![CDATA[</item>]]></name></item>\n"
+				+ "  <item/>\n"
+				+ "</list>\n"));
+
+		assertEquals("<list size=\"3\"><item><name>a &gt; b</name></item><item note='x > y'><name><![CDATA[</item>]]></name></item></list>",
+				splitter.nextChunk(2));
+		assertEquals("<list size=\"3\"><item/></list>", splitter.nextChunk(2));
+		assertNull(splitter.nextChunk(2));
+	}
+
+	@Test
+	void emptyRootTest() throws IOException {
+		assertNull(new XmlElementSplitter(new StringReader("<list/>")).nextChunk(10));
+		assertNull(new XmlElementSplitter(new StringReader("<list></list>")).nextChunk(10));
+	}
+
+	@Test
+	void truncatedDocumentTest() {
+		var splitter = new XmlElementSplitter(new StringReader("<list><item><name>a</name>"));
+
+		assertThrows(IOException.class, () -> splitter.nextChunk(10));
+	}
+}
@@ -1,6 +1,8 @@
 package org.example.dao;
 
 
+import org.example.dao.index.EventTitleIndex;
+import org.example.dao.query.Cursor;
 import org.example.exception.EntityNotFoundException;
 import org.example.model.Event;
 import org.example.repository.EventInMemoryStorage;
@@ -12,11 +14,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
@@ -56,7 +61,7 @@ class EventRepositoryTest {
 	@Test
 	void updateEventTestWithExistingId() {
 		var oldEvent = createEvent(ID_1, TITLE_1, DATE_1);
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, oldEvent));
+		when(mockStorage.getData()).thenReturn(new HashMap<>(Map.of(ID_1, oldEvent)));
 
 		var newEvent = createEvent(ID_1, TITLE_2, DATE_2);
 		var updatedEvent = repository.updateEvent(newEvent);
@@ -123,9 +128,9 @@ class EventRepositoryTest {
 
 	@Test
 	void getEventsByTitleTest() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createEvent(ID_1, TITLE_1, DATE_1),
-				ID_2, createEvent(ID_2, TITLE_2, DATE_2)));
-		var eventList = repository.getEventsByTitle(TITLE_1, 2, 1);
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1),
+				createEvent(ID_2, TITLE_2, DATE_2));
+		var eventList = indexedRepository.getEventsByTitle(TITLE_1, 2, 1);
 
 		assertEquals(1, eventList.size());
 		assertEquals(TITLE_1, eventList.get(0).getTitle());
@@ -133,13 +138,13 @@ class EventRepositoryTest {
 
 	@Test
 	void getEventsByTitlePaginationTest() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createEvent(ID_1, TITLE_1, DATE_1),
-				ID_2, createEvent(ID_2, TITLE_2, DATE_2),
-				3L, createEvent(3L, TITLE_1, LocalDate.of(2022, 3, 3)),
-				4L, createEvent(4L, TITLE_1, LocalDate.of(2022, 4, 4))));
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1),
+				createEvent(ID_2, TITLE_2, DATE_2),
+				createEvent(3L, TITLE_1, LocalDate.of(2022, 3, 3)),
+				createEvent(4L, TITLE_1, LocalDate.of(2022, 4, 4)));
 
-		var eventListFirstPage = repository.getEventsByTitle(TITLE_1, 2, 1);
-		var eventListSecondPage = repository.getEventsByTitle(TITLE_1, 2, 2);
+		var eventListFirstPage = indexedRepository.getEventsByTitle(TITLE_1, 2, 1);
+		var eventListSecondPage = indexedRepository.getEventsByTitle(TITLE_1, 2, 2);
 
 		assertEquals(2, eventListFirstPage.size());
 		assertEquals(TITLE_1, eventListFirstPage.get(0).getTitle());
@@ -149,11 +154,75 @@ class EventRepositoryTest {
 		assertEquals(TITLE_1, eventListSecondPage.get(0).getTitle());
 	}
 
+	@Test
+	void getEventsByTitleWordsTest() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, "Jazz night in the park", DATE_1),
+				createEvent(ID_2, "Jazz night", DATE_2),
+				createEvent(3L, "Rock night", DATE_1));
+
+		var eventList = indexedRepository.getEventsByTitle("night JAZZ", 10, 1);
+
+		assertEquals(2, eventList.size());
+		assertEquals(ID_2, eventList.get(0).getId());
+		assertEquals(ID_1, eventList.get(1).getId());
+		assertEquals(1, indexedRepository.getEventsByTitle("rock ni", 10, 1).size());
+		assertTrue(indexedRepository.getEventsByTitle("jazz rock", 10, 1).isEmpty());
+	}
+
+	@Test
+	void getEventsByTitleTestAfterUpdate() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1));
+
+		indexedRepository.updateEvent(createEvent(ID_1, "Concert", null));
+
+		assertTrue(indexedRepository.getEventsByTitle(TITLE_1, 2, 1).isEmpty());
+		assertEquals(ID_1, indexedRepository.getEventsByTitle("concert", 2, 1).get(0).getId());
+	}
+
+	@Test
+	void getEventsByTitlePrefixTest() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, "Jazz night", DATE_1),
+				createEvent(ID_2, "Jazz brunch", DATE_1),
+				createEvent(3L, "jazz Night", DATE_1),
+				createEvent(4L, "Rock night", DATE_1));
+
+		assertEquals(List.of(ID_2, ID_1, 3L), ids(indexedRepository.getEventsByTitlePrefix("JAZZ", 10)));
+		assertEquals(List.of(ID_1, 3L), ids(indexedRepository.getEventsByTitlePrefix("jazz n", 10)));
+		assertEquals(List.of(ID_2), ids(indexedRepository.getEventsByTitlePrefix("jazz", 1)));
+		assertTrue(indexedRepository.getEventsByTitlePrefix("blues", 10).isEmpty());
+	}
+
+	@Test
+	void titlePrefixLimitIsValidatedAndCappedTest() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, "Jazz night", DATE_1),
+				createEvent(ID_2, "Jazz brunch", DATE_1),
+				createEvent(3L, "Jazz trio", DATE_1));
+		indexedRepository.setMaxPageSize(2);
+
+		assertEquals(List.of(ID_2, ID_1), ids(indexedRepository.getEventsByTitlePrefix("jazz", Integer.MAX_VALUE)));
+		assertThrowsExactly(IllegalArgumentException.class,
+				() -> indexedRepository.getEventsByTitlePrefix("jazz", 0),
+				"Suggestion limit must be positive: 0");
+		assertThrows(IllegalArgumentException.class, () -> indexedRepository.getEventsByTitlePrefix("jazz", -1));
+	}
+
+	@Test
+	void getEventsByTitlePrefixTestAfterUpdateAndDelete() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, "Jazz night", DATE_1),
+				createEvent(ID_2, "Jazz brunch", DATE_1));
+
+		indexedRepository.updateEvent(createEvent(ID_1, "Blues night", null));
+		indexedRepository.delete(ID_2);
+
+		assertTrue(indexedRepository.getEventsByTitlePrefix("jazz", 10).isEmpty());
+		assertEquals(List.of(ID_1), ids(indexedRepository.getEventsByTitlePrefix("blues", 10)));
+	}
+
 	@Test
 	void getEventsByDateTest() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createEvent(ID_1, TITLE_1, DATE_1),
-				ID_2, createEvent(ID_2, TITLE_2, DATE_2)));
-		var eventList = repository.getEventsForDay(DATE_1, 2, 1);
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1),
+				createEvent(ID_2, TITLE_2, DATE_2));
+		var eventList = indexedRepository.getEventsForDay(DATE_1, 2, 1);
 
 		assertEquals(1, eventList.size());
 		assertEquals(DATE_1, eventList.get(0).getDate());
@@ -161,13 +230,13 @@ class EventRepositoryTest {
 
 	@Test
 	void getEventsByDatePaginationTest() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createEvent(ID_1, TITLE_1, DATE_1),
-				ID_2, createEvent(ID_2, TITLE_2, DATE_2),
-				3L, createEvent(3L, "Title 3", DATE_1),
-				4L, createEvent(4L, "Title 4", DATE_1)));
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1),
+				createEvent(ID_2, TITLE_2, DATE_2),
+				createEvent(3L, "Title 3", DATE_1),
+				createEvent(4L, "Title 4", DATE_1));
 
-		var eventListFirstPage = repository.getEventsForDay(DATE_1, 2, 1);
-		var eventListSecondPage = repository.getEventsForDay(DATE_1, 2, 2);
+		var eventListFirstPage = indexedRepository.getEventsForDay(DATE_1, 2, 1);
+		var eventListSecondPage = indexedRepository.getEventsForDay(DATE_1, 2, 2);
 
 		assertEquals(2, eventListFirstPage.size());
 		assertEquals(DATE_1, eventListFirstPage.get(0).getDate());
@@ -177,6 +246,76 @@ class EventRepositoryTest {
 		assertEquals(DATE_1, eventListSecondPage.get(0).getDate());
 	}
 
+	@Test
+	void getEventsBetweenTest() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_2),
+				createEvent(ID_2, TITLE_2, DATE_1),
+				createEvent(3L, "Title 3", LocalDate.of(2022, 1, 31)),
+				createEvent(4L, "Title 4", LocalDate.of(2022, 3, 1)));
+
+		var january = indexedRepository.getEventsBetween(DATE_1, LocalDate.of(2022, 1, 31), 10, 1);
+		var secondPage = indexedRepository.getEventsBetween(DATE_1, DATE_2, 2, 2);
+
+		assertEquals(List.of(ID_2, 3L), ids(january));
+		assertEquals(List.of(ID_1), ids(secondPage));
+		assertTrue(indexedRepository.getEventsBetween(DATE_2, DATE_1, 10, 1).isEmpty());
+	}
+
+	@Test
+	void getEventsBetweenTestAfterDateUpdate() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1));
+
+		indexedRepository.updateEvent(createEvent(ID_1, "", DATE_2));
+
+		assertTrue(indexedRepository.getEventsForDay(DATE_1, 10, 1).isEmpty());
+		assertEquals(List.of(ID_1), ids(indexedRepository.getEventsBetween(DATE_2, DATE_2, 10, 1)));
+	}
+
+	@Test
+	void getEventsBetweenCursorTest() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_2),
+				createEvent(ID_2, TITLE_2, DATE_1),
+				createEvent(3L, "Title 3", DATE_1),
+				createEvent(4L, "Title 4", LocalDate.of(2022, 3, 1)));
+
+		var firstPage = indexedRepository.getEventsBetween(DATE_1, DATE_2, null, 2);
+		var secondPage = indexedRepository.getEventsBetween(DATE_1, DATE_2, Cursor.decode(firstPage.getNextCursor()), 2);
+
+		assertEquals(List.of(ID_2, 3L), ids(firstPage.getItems()));
+		assertEquals(List.of(ID_1), ids(secondPage.getItems()));
+		assertFalse(secondPage.hasNext());
+		assertEquals(List.of(3L), ids(indexedRepository.getEventsForDay(DATE_1, Cursor.of(DATE_1, ID_2), 10).getItems()));
+	}
+
+	@Test
+	void cursorPageSizeIsLimitedTest() {
+		var indexedRepository = createRepositoryWithIndexes(createEvent(ID_1, TITLE_1, DATE_1),
+				createEvent(ID_2, TITLE_2, DATE_1),
+				createEvent(3L, "Title 3", DATE_1));
+		indexedRepository.setMaxPageSize(2);
+
+		var page = indexedRepository.getEventsForDay(DATE_1, null, 1000);
+
+		assertEquals(List.of(ID_1, ID_2), ids(page.getItems()));
+		assertTrue(page.hasNext());
+		assertThrows(IllegalArgumentException.class, () -> indexedRepository.getEventsForDay(DATE_1, null, 0));
+	}
+
+	private List<Long> ids(List<Event> events) {
+		return events.stream().map(Event::getId).collect(Collectors.toList());
+	}
+
+	private EventRepository createRepositoryWithIndexes(Event... events) {
+		var storage = new EventInMemoryStorage();
+		for (var event : events) {
+			storage.getData().put(event.getId(), event);
+		}
+		var indexedRepository = new EventRepository();
+		indexedRepository.setStorage(storage);
+		indexedRepository.setTitleIndex(new EventTitleIndex(storage));
+		return indexedRepository;
+	}
+
 	private Event createEvent(long id, String title, LocalDate date) {
 		return new Event(id, title, date);
 	}
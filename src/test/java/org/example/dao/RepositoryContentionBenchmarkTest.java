@@ -0,0 +1,125 @@
+package org.example.dao;
+
+import org.example.dao.index.SeatIndex;
+import org.example.model.Ticket;
+import org.example.repository.TicketInMemoryStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepositoryContentionBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(RepositoryContentionBenchmarkTest.class);
+
+	private static final int THREADS = 8;
+	private static final int SAVES_PER_THREAD = 10_000;
+	private static final int BENCHMARK_OPS_PER_THREAD = 500_000;
+
+	private final AtomicInteger places = new AtomicInteger();
+	private TicketRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		var storage = new TicketInMemoryStorage();
+		repository = new TicketRepository();
+		repository.setStorage(storage);
+		repository.setSeatIndex(new SeatIndex(storage, true));
+	}
+
+	@Test
+	void concurrentSavesAreNotLost() throws Exception {
+		runConcurrently(THREADS, () -> {
+			for (int i = 0; i < SAVES_PER_THREAD; i++) {
+				repository.save(new Ticket(0, 1L, 1L, Ticket.Category.STANDARD, places.getAndIncrement()));
+			}
+			return null;
+		});
+
+		assertEquals(THREADS * SAVES_PER_THREAD, repository.getAll().size());
+
+		runConcurrently(THREADS, () -> {
+			for (long id = 1; id <= THREADS * SAVES_PER_THREAD; id++) {
+				repository.get(id);
+				if (id % THREADS == 0) {
+					repository.delete(id);
+				}
+			}
+			return null;
+		});
+
+		assertEquals(THREADS * SAVES_PER_THREAD - SAVES_PER_THREAD, repository.getAll().size());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void throughputGrowsWithThreadCount() throws Exception {
+		var cores = Runtime.getRuntime().availableProcessors();
+		double singleThreaded = 0;
+		double best = 0;
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			setUp();
+			var opsPerSecond = measureMixedWorkload(threads);
+			logger.info("{} thread(s): {} ops/s", threads, String.format("%,.0f", opsPerSecond));
+			if (threads == 1) {
+				singleThreaded = opsPerSecond;
+			}
+			best = Math.max(best, opsPerSecond);
+		}
+		if (cores > 1) {
+			assertTrue(best > singleThreaded, "Throughput did not grow with thread count");
+		}
+	}
+
+	/**
+	 * Runs a save/get/delete mix on the repository and returns the aggregated throughput.
+	 */
+	private double measureMixedWorkload(int threads) throws Exception {
+		var start = System.nanoTime();
+		runConcurrently(threads, () -> {
+			for (int i = 0; i < BENCHMARK_OPS_PER_THREAD; i++) {
+				var ticket = repository.save(new Ticket(0, i, 1L, Ticket.Category.BAR, places.getAndIncrement()));
+				repository.get(ticket.getId());
+				if ((i & 1) == 0) {
+					repository.delete(ticket.getId());
+				}
+			}
+			return null;
+		});
+		var seconds = (System.nanoTime() - start) / 1e9;
+		return threads * BENCHMARK_OPS_PER_THREAD * 2.5 / seconds;
+	}
+
+	private void runConcurrently(int threads, Callable<Void> task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			var startGate = new CountDownLatch(1);
+			List<Future<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					startGate.await();
+					return task.call();
+				}));
+			}
+			startGate.countDown();
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
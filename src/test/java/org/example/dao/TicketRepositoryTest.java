@@ -1,23 +1,34 @@
 package org.example.dao;
 
+import org.example.dao.index.EventTicketIndex;
+import org.example.dao.index.SeatIndex;
+import org.example.dao.index.UserTicketIndex;
+import org.example.dao.query.Cursor;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.TicketBuilder;
 import org.example.model.User;
-import org.example.repository.InMemoryStorage;
+import org.example.repository.EventInMemoryStorage;
+import org.example.repository.StorageListener;
 import org.example.repository.TicketInMemoryStorage;
+import org.example.repository.UserInMemoryStorage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +50,9 @@ class TicketRepositoryTest {
 	@Mock
 	private TicketInMemoryStorage mockStorage;
 
+	@Mock
+	private SeatIndex mockSeatIndex;
+
 	@InjectMocks
 	private TicketRepository repository;
 
@@ -46,6 +60,7 @@ class TicketRepositoryTest {
 	void saveTest(){
 		var ticketMap = new HashMap<Long, Ticket>();
 
+		when(mockSeatIndex.claim(EVENT_ID_1, CATEGORY_1, PLACE_1)).thenReturn(true);
 		when(mockStorage.getData()).thenReturn(ticketMap);
 		when(mockStorage.getIndex()).thenReturn(ID_1);
 
@@ -55,6 +70,108 @@ class TicketRepositoryTest {
 		assertEquals(ID_1, savedEvent.getId());
 	}
 
+	@Test
+	void saveTestWithBookedPlace() {
+		var ticketStorage = new TicketInMemoryStorage();
+		var ticketRepository = new TicketRepository();
+		ticketRepository.setStorage(ticketStorage);
+		ticketRepository.setSeatIndex(new SeatIndex(ticketStorage, true));
+
+		var ticket = ticketRepository.save(createTicket(0, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1));
+
+		assertThrowsExactly(IllegalStateException.class,
+							() -> ticketRepository.save(createTicket(0, USER_ID_2, EVENT_ID_1, CATEGORY_1, PLACE_1)),
+							"Place 1 is already booked");
+		assertThrowsExactly(IllegalStateException.class,
+							() -> ticketRepository.saveAll(List.of(createTicket(0, USER_ID_2, EVENT_ID_1, CATEGORY_1, PLACE_2),
+																	createTicket(0, USER_ID_2, EVENT_ID_1, CATEGORY_1, PLACE_2)), false),
+							"Place 2 is already booked");
+		assertEquals(1, ticketStorage.getData().size());
+
+		assertTrue(ticketRepository.delete(ticket.getId()));
+		assertEquals(PLACE_1, ticketRepository.save(createTicket(0, USER_ID_2, EVENT_ID_1, CATEGORY_1, PLACE_1)).getPlace());
+	}
+
+	@Test
+	void publishTestReleasesSeatOfUnstoredTicket() {
+		var ticketStorage = new TicketInMemoryStorage();
+		var seatIndex = new SeatIndex(ticketStorage, true);
+		var ticketRepository = new TicketRepository();
+		ticketRepository.setStorage(ticketStorage);
+		ticketRepository.setSeatIndex(seatIndex);
+		ticketStorage.setJournal(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Ticket ticket) {
+				if (ticket.getPlace() == PLACE_1) {
+					throw new UncheckedIOException(new IOException("Disk is full"));
+				}
+			}
+
+			@Override
+			public void onRemove(long id, Ticket ticket) {
+			}
+		});
+		ticketStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Ticket ticket) {
+				if (ticket.getUserId() == USER_ID_2) {
+					throw new IllegalArgumentException("User is blocked");
+				}
+			}
+
+			@Override
+			public void onRemove(long id, Ticket ticket) {
+			}
+		});
+
+		assertTrue(seatIndex.claim(EVENT_ID_1, CATEGORY_1, PLACE_1));
+		assertThrowsExactly(UncheckedIOException.class,
+							() -> ticketRepository.publish(createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1)));
+		assertTrue(seatIndex.claim(EVENT_ID_1, CATEGORY_1, PLACE_2));
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> ticketRepository.publish(createTicket(ID_2, USER_ID_2, EVENT_ID_1, CATEGORY_1, PLACE_2)));
+
+		assertTrue(ticketStorage.getData().isEmpty());
+		assertFalse(seatIndex.isTaken(EVENT_ID_1, CATEGORY_1, PLACE_1));
+		assertFalse(seatIndex.isTaken(EVENT_ID_1, CATEGORY_1, PLACE_2));
+	}
+
+	@Test
+	void saveAllTestClaimsSeatsAndRollsBackOnFailure() {
+		var ticketStorage = new TicketInMemoryStorage();
+		var seatIndex = new SeatIndex(ticketStorage, true);
+		var ticketRepository = new TicketRepository();
+		ticketRepository.setStorage(ticketStorage);
+		ticketRepository.setSeatIndex(seatIndex);
+		ticketStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Ticket ticket) {
+				if (ticket.getUserId() == USER_ID_2) {
+					throw new IllegalArgumentException("User is blocked");
+				}
+			}
+
+			@Override
+			public void onRemove(long id, Ticket ticket) {
+			}
+		});
+
+		ticketRepository.saveAll(List.of(createTicket(0, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1)), false);
+		assertTrue(seatIndex.isTaken(EVENT_ID_1, CATEGORY_1, PLACE_1));
+		assertFalse(seatIndex.claim(EVENT_ID_1, CATEGORY_1, PLACE_1));
+
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> ticketRepository.saveAll(List.of(createTicket(0, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_2),
+																	createTicket(0, USER_ID_2, EVENT_ID_1, CATEGORY_2, PLACE_2),
+																	createTicket(0, USER_ID_1, EVENT_ID_2, CATEGORY_1, PLACE_2)), false),
+							"User is blocked");
+		assertEquals(1, ticketStorage.getData().size());
+		assertFalse(seatIndex.isTaken(EVENT_ID_1, CATEGORY_1, PLACE_2));
+		assertFalse(seatIndex.isTaken(EVENT_ID_1, CATEGORY_2, PLACE_2));
+		assertFalse(seatIndex.isTaken(EVENT_ID_2, CATEGORY_1, PLACE_2));
+		assertTrue(seatIndex.isTaken(EVENT_ID_1, CATEGORY_1, PLACE_1));
+	}
+
 	@Test
 	void getTestWithExistingId() {
 		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1)));
@@ -103,45 +220,88 @@ class TicketRepositoryTest {
 
 	@Test
 	void getDataForUserPaginationTest() {
+		var ticketStorage = new TicketInMemoryStorage();
+		var eventStorage = new EventInMemoryStorage();
+		var ticketRepository = new TicketRepository();
+		ticketRepository.setStorage(ticketStorage);
+		ticketRepository.setUserTicketIndex(new UserTicketIndex(ticketStorage, eventStorage));
+		eventStorage.getData().put(EVENT_ID_1, new Event(EVENT_ID_1, null, LocalDate.of(2021, 1, 1)));
+		eventStorage.getData().put(EVENT_ID_2, new Event(EVENT_ID_2, null, LocalDate.of(2021, 3, 1)));
+		eventStorage.getData().put(3L, new Event(3L, null, LocalDate.of(2021, 2, 1)));
 		User user = new User(USER_ID_1, null, null);
 
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1),
-														ID_2, createTicket(ID_2,USER_ID_2, EVENT_ID_2, CATEGORY_2, PLACE_2),
-														3L, createTicket(3L, USER_ID_1, 3L, Ticket.Category.BAR, 3),
-														4L, createTicket(4L, USER_ID_1, 4L, Ticket.Category.BAR, 4)));
+		ticketStorage.getData().put(ID_1, createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1));
+		ticketStorage.getData().put(ID_2, createTicket(ID_2, USER_ID_2, EVENT_ID_2, CATEGORY_2, PLACE_2));
+		ticketStorage.getData().put(3L, createTicket(3L, USER_ID_1, 3L, Ticket.Category.BAR, 3));
+		ticketStorage.getData().put(4L, createTicket(4L, USER_ID_1, EVENT_ID_2, Ticket.Category.BAR, 4));
 
-		var ticketListFirstPage = repository.getBookedTickets(user, 2, 1);
-		var ticketListSecondPage = repository.getBookedTickets(user, 2, 2);
+		var ticketListFirstPage = ticketRepository.getBookedTickets(user, 2, 1);
+		var ticketListSecondPage = ticketRepository.getBookedTickets(user, 2, 2);
 
 		assertEquals(2, ticketListFirstPage.size());
-		assertEquals(USER_ID_1, ticketListFirstPage.get(0).getUserId());
-		assertEquals(USER_ID_1, ticketListFirstPage.get(1).getUserId());
+		assertEquals(4L, ticketListFirstPage.get(0).getId());
+		assertEquals(3L, ticketListFirstPage.get(1).getId());
 
 		assertEquals(1, ticketListSecondPage.size());
-		assertEquals(USER_ID_1, ticketListSecondPage.get(0).getUserId());
+		assertEquals(ID_1, ticketListSecondPage.get(0).getId());
 	}
 
 	@Test
 	void getDataForEventPaginationTest() {
+		var ticketStorage = new TicketInMemoryStorage();
+		var userStorage = new UserInMemoryStorage();
+		var ticketRepository = new TicketRepository();
+		ticketRepository.setStorage(ticketStorage);
+		ticketRepository.setEventTicketIndex(new EventTicketIndex(ticketStorage, userStorage));
+		userStorage.getData().put(USER_ID_1, new User(USER_ID_1, null, "c@mail.com"));
+		userStorage.getData().put(USER_ID_2, new User(USER_ID_2, null, "d@mail.com"));
+		userStorage.getData().put(3L, new User(3L, null, "a@mail.com"));
+		userStorage.getData().put(4L, new User(4L, null, "b@mail.com"));
 		Event event = new Event(EVENT_ID_1, null, null);
 
-		var ticket = createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1);
-		var ticket3 = createTicket(3L, 3L, EVENT_ID_1, Ticket.Category.BAR, 3);
-		var map = Map.of(ID_1, ticket,
-				ID_2, createTicket(ID_2, USER_ID_2, EVENT_ID_2, CATEGORY_2, PLACE_2),
-				3L, ticket3,
-				4L, createTicket(4L, 4L, EVENT_ID_1, Ticket.Category.BAR, 4));
-		when(mockStorage.getData()).thenReturn(map);
+		ticketStorage.getData().put(ID_1, createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1));
+		ticketStorage.getData().put(ID_2, createTicket(ID_2, USER_ID_2, EVENT_ID_2, CATEGORY_2, PLACE_2));
+		ticketStorage.getData().put(3L, createTicket(3L, 3L, EVENT_ID_1, Ticket.Category.BAR, 3));
+		ticketStorage.getData().put(4L, createTicket(4L, 4L, EVENT_ID_1, Ticket.Category.BAR, 4));
 
-		var ticketListFirstPage = repository.getBookedTickets(event, 2, 1);
-		var ticketListSecondPage = repository.getBookedTickets(event, 2, 2);
+		var ticketListFirstPage = ticketRepository.getBookedTickets(event, 2, 1);
+		var ticketListSecondPage = ticketRepository.getBookedTickets(event, 2, 2);
 
 		assertEquals(2, ticketListFirstPage.size());
-		assertEquals(EVENT_ID_1, ticketListFirstPage.get(0).getEventId());
-		assertEquals(EVENT_ID_1, ticketListFirstPage.get(1).getEventId());
+		assertEquals(3L, ticketListFirstPage.get(0).getId());
+		assertEquals(4L, ticketListFirstPage.get(1).getId());
 
 		assertEquals(1, ticketListSecondPage.size());
-		assertEquals(EVENT_ID_1, ticketListSecondPage.get(0).getEventId());
+		assertEquals(ID_1, ticketListSecondPage.get(0).getId());
+	}
+
+	@Test
+	void getDataForEventCursorTest() {
+		var ticketStorage = new TicketInMemoryStorage();
+		var userStorage = new UserInMemoryStorage();
+		var ticketRepository = new TicketRepository();
+		ticketRepository.setStorage(ticketStorage);
+		ticketRepository.setEventTicketIndex(new EventTicketIndex(ticketStorage, userStorage));
+		userStorage.getData().put(USER_ID_1, new User(USER_ID_1, null, "c@mail.com"));
+		userStorage.getData().put(3L, new User(3L, null, "a@mail.com"));
+		userStorage.getData().put(4L, new User(4L, null, "b@mail.com"));
+		Event event = new Event(EVENT_ID_1, null, null);
+
+		ticketStorage.getData().put(ID_1, createTicket(ID_1, USER_ID_1, EVENT_ID_1, CATEGORY_1, PLACE_1));
+		ticketStorage.getData().put(3L, createTicket(3L, 3L, EVENT_ID_1, Ticket.Category.BAR, 3));
+		ticketStorage.getData().put(4L, createTicket(4L, 4L, EVENT_ID_1, Ticket.Category.BAR, 4));
+
+		var firstPage = ticketRepository.getBookedTickets(event, null, 2);
+		ticketStorage.getData().remove(3L);
+		var secondPage = ticketRepository.getBookedTickets(event, Cursor.decode(firstPage.getNextCursor()), 2);
+
+		assertEquals(2, firstPage.getItems().size());
+		assertEquals(3L, firstPage.getItems().get(0).getId());
+		assertEquals(4L, firstPage.getItems().get(1).getId());
+
+		assertEquals(1, secondPage.getItems().size());
+		assertEquals(ID_1, secondPage.getItems().get(0).getId());
+		assertFalse(secondPage.hasNext());
 	}
 
 	private Ticket createTicket(long id, long userId, long eventId, Ticket.Category category, int place) {
@@ -0,0 +1,84 @@
+package org.example.dao;
+
+import org.example.dao.index.EmailIndex;
+import org.example.dao.index.NameTrigramIndex;
+import org.example.model.User;
+import org.example.repository.UserInMemoryStorage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserNameSearchBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserNameSearchBenchmarkTest.class);
+
+	private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+	private static final int BATCH_SIZE = 10_000;
+	private static final int ROUNDS = 20;
+	private static final int PAGE_SIZE = 20;
+	private static final String[] SYLLABLES = {"an", "bel", "cor", "da", "el", "fin", "gar", "hol", "is", "jul",
+			"ka", "lor", "mc", "nal", "ob", "per", "quin", "ros", "sten", "tur"};
+
+	@Test
+	@Tag("benchmark")
+	void indexedSearchIsFasterThanScan() {
+		var storage = new UserInMemoryStorage();
+		var repository = new UserRepository(storage, new EmailIndex(storage, false), new NameTrigramIndex(storage));
+		var random = new Random(42);
+		var batch = new ArrayList<User>(BATCH_SIZE);
+		for (int i = 0; i < USERS; i++) {
+			batch.add(new User(0, name(random) + " " + name(random), "user" + i + "@mail.com"));
+			if (batch.size() == BATCH_SIZE) {
+				repository.saveAll(batch, false);
+				batch.clear();
+			}
+		}
+		repository.saveAll(batch, false);
+
+		var fragment = "mcnalquin";
+		Supplier<List<User>> scan = () -> repository.getAll().stream()
+				.filter(user -> user.getName().contains(fragment))
+				.skip(PAGE_SIZE)
+				.limit(PAGE_SIZE)
+				.collect(Collectors.toList());
+		Supplier<List<User>> indexed = () -> repository.getUsersByName(fragment, PAGE_SIZE, 2);
+		var scanMicros = measure("scan", scan);
+		var indexMicros = measure("index", indexed);
+
+		assertEquals(scan.get().size(), indexed.get().size());
+		assertTrue(indexed.get().stream().allMatch(user -> user.getName().contains(fragment)));
+		assertTrue(indexMicros < scanMicros, "Indexed search is not faster than the scan");
+	}
+
+	private static String name(Random random) {
+		var name = new StringBuilder();
+		for (int i = 0; i < 3; i++) {
+			name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Runs the search repeatedly after a warm-up and returns the average time of a page in microseconds.
+	 */
+	private double measure(String name, Supplier<List<User>> search) {
+		var result = search.get();
+		var start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			result = search.get();
+		}
+		var micros = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+		logger.info("{} over {} users: {} us per page of {} users", name, USERS, String.format("%,.1f", micros), result.size());
+		return micros;
+	}
+}
@@ -1,26 +1,28 @@
 package org.example.dao;
 
+import org.example.dao.index.EmailIndex;
+import org.example.dao.index.NameTrigramIndex;
+import org.example.dao.query.Cursor;
 import org.example.exception.EntityNotFoundException;
 import org.example.model.User;
-import org.example.repository.InMemoryStorage;
 import org.example.repository.UserInMemoryStorage;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class UserRepositoryTest {
 
 	private final long ID_1 = 1L;
@@ -35,39 +37,146 @@ class UserRepositoryTest {
 
 	private final String EMAIL_NOT_UNIQUE_MESSAGE = "User email must be unique";
 
-	@Mock
-	private UserInMemoryStorage mockStorage;
+	private final UserInMemoryStorage storage = new UserInMemoryStorage();
 
-	@InjectMocks
-	private UserRepository repository;
+	private final UserRepository repository = new UserRepository(storage, new EmailIndex(storage, false), new NameTrigramIndex(storage));
 
 	@Test
 	void saveTestWithUniqueEmail() {
 		var user = createUser(ID_ZERO, NAME_1, EMAIL_1);
 
-		var userMap = new HashMap<Long, User>();
-
-		when(mockStorage.getData()).thenReturn(userMap);
-		when(mockStorage.getIndex()).thenReturn(ID_1);
-
 		var savedUser = repository.save(user);
-		assertEquals(1, userMap.size());
+		assertEquals(1, storage.getData().size());
 		assertEquals(savedUser.getId(), ID_1);
 	}
 
 	@Test
 	void saveTestWithExistingEmail() {
 		var user = createUser(ID_ZERO, NAME_1, EMAIL_1);
-		when(mockStorage.getData()).thenReturn(Map.of(ID_2, createUser(ID_2, NAME_2, EMAIL_1)));
+		store(createUser(ID_2, NAME_2, EMAIL_1));
 		assertThrowsExactly(IllegalArgumentException.class,
 							() -> repository.save(user),
 		 					EMAIL_NOT_UNIQUE_MESSAGE);
+		assertEquals(0, storage.getLastIndex());
+	}
+
+	@Test
+	void saveTestWithEmailInOtherCase() {
+		var ignoringCase = new UserRepository(storage, new EmailIndex(storage, true), new NameTrigramIndex(storage));
+		ignoringCase.save(createUser(ID_ZERO, NAME_1, EMAIL_1));
+
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> ignoringCase.save(createUser(ID_ZERO, NAME_2, EMAIL_1.toUpperCase())),
+							EMAIL_NOT_UNIQUE_MESSAGE);
+		assertEquals(NAME_1, ignoringCase.getUserByEmail(EMAIL_1.toUpperCase()).orElseThrow().getName());
+	}
+
+	@Test
+	void concurrentSaveTestWithSameEmail() throws InterruptedException {
+		var threads = 8;
+		var executor = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+		var saved = new AtomicInteger();
+		for (int i = 0; i < threads; i++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+					repository.save(createUser(ID_ZERO, NAME_1, EMAIL_1));
+					saved.incrementAndGet();
+				} catch (IllegalArgumentException | InterruptedException ignored) {
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(1, saved.get());
+		assertEquals(1, storage.getData().size());
+	}
+
+	@Test
+	void saveAllTestWithUniqueEmails() {
+		var savedUsers = repository.saveAll(List.of(createUser(ID_ZERO, NAME_1, EMAIL_1), createUser(ID_ZERO, NAME_2, EMAIL_2)), false);
+
+		assertEquals(2, storage.getData().size());
+		assertEquals(ID_1, savedUsers.get(0).getId());
+		assertEquals(ID_2, savedUsers.get(1).getId());
+		assertEquals(EMAIL_2, storage.getData().get(ID_2).getEmail());
+	}
+
+	@Test
+	void saveAllTestKeepingIds() {
+		repository.saveAll(List.of(createUser(ID_2, NAME_2, EMAIL_2)), true);
+
+		assertEquals(NAME_2, storage.getData().get(ID_2).getName());
+		assertEquals(ID_2, storage.getLastIndex());
+	}
+
+	@Test
+	void saveAllTestWithDuplicatedEmails() {
+		var users = List.of(createUser(ID_ZERO, NAME_1, EMAIL_1), createUser(ID_ZERO, NAME_2, EMAIL_1));
+
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> repository.saveAll(users, false),
+							EMAIL_NOT_UNIQUE_MESSAGE);
+	}
+
+	@Test
+	void saveAllTestWithExistingEmail() {
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		var users = List.of(createUser(ID_ZERO, NAME_2, EMAIL_2), createUser(ID_ZERO, NAME_2, EMAIL_1));
+
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> repository.saveAll(users, false),
+							EMAIL_NOT_UNIQUE_MESSAGE);
+		assertEquals(1, storage.getData().size());
+		assertEquals(EMAIL_2, repository.save(createUser(ID_ZERO, NAME_2, EMAIL_2)).getEmail());
+	}
+
+	@Test
+	void concurrentSaveAndSaveAllTestWithSameEmail() throws InterruptedException {
+		var threads = 8;
+		var executor = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+		var saved = new AtomicInteger();
+		for (int i = 0; i < threads; i++) {
+			var bulk = i % 2 == 0;
+			executor.execute(() -> {
+				try {
+					start.await();
+					if (bulk) {
+						repository.saveAll(List.of(createUser(ID_ZERO, NAME_2, null), createUser(ID_ZERO, NAME_1, EMAIL_1)), false);
+					} else {
+						repository.save(createUser(ID_ZERO, NAME_1, EMAIL_1));
+					}
+					saved.incrementAndGet();
+				} catch (IllegalArgumentException | InterruptedException ignored) {
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(1, saved.get());
+		assertEquals(1, storage.getData().values().stream().filter(user -> EMAIL_1.equals(user.getEmail())).count());
+	}
+
+	@Test
+	void storedUserWithTakenEmailIsRejectedTest() {
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> store(createUser(ID_2, NAME_2, EMAIL_1)),
+							EMAIL_NOT_UNIQUE_MESSAGE);
+		assertNull(storage.getData().get(ID_2));
+		assertEquals(ID_1, repository.getUserByEmail(EMAIL_1).orElseThrow().getId());
 	}
 
 	@Test
 	void updateUserNameTestWithValidIdAndEmail(){
-		var oldUser = createUser(ID_1, NAME_1, EMAIL_1);
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
 
 		var newUser = createUser(ID_1, NAME_2, EMAIL_1);
 
@@ -78,20 +187,20 @@ class UserRepositoryTest {
 
 	@Test
 	void updateUserEmailTestWithValidIdAndEmail(){
-		var oldUser = createUser(ID_1, NAME_1, EMAIL_1);
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
 
 		var newUser = createUser(ID_1, NAME_1, EMAIL_2);
 		var updatedUser = repository.update(newUser);
 
 		assertEquals(EMAIL_2, updatedUser.getEmail());
+		assertEquals(ID_1, repository.getUserByEmail(EMAIL_2).orElseThrow().getId());
+		assertTrue(repository.getUserByEmail(EMAIL_1).isEmpty());
 	}
 
 	@Test
 	void updateUserEmailTestWithValidIdAndExistingEmail(){
-		var oldUser = createUser(ID_1, NAME_1, EMAIL_1);
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1),
-				ID_2, createUser(ID_2, NAME_2, EMAIL_2)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, NAME_2, EMAIL_2));
 		var newUser = createUser(ID_1, NAME_1, EMAIL_2);
 
 		assertThrowsExactly(IllegalArgumentException.class,
@@ -110,7 +219,7 @@ class UserRepositoryTest {
 
 	@Test
 	void getTestWithExistingId() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
 		Optional<User> user = repository.get(ID_1);
 		assertTrue(user.isPresent());
 		assertEquals(ID_1, user.get().getId());
@@ -118,45 +227,40 @@ class UserRepositoryTest {
 
 	@Test
 	void getTestWithNotExistingId() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
 		Optional<User> user = repository.get(ID_2);
 		assertTrue(user.isEmpty());
 	}
 
 	@Test
 	void getAllTest(){
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1),
-													   ID_2, createUser(ID_2, NAME_2, EMAIL_2)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, NAME_2, EMAIL_2));
 		var userList = repository.getAll();
 		assertEquals(2, userList.size());
 	}
 
 	@Test
 	void deleteTestWithExistingId(){
-		var userMap = new HashMap<Long, User>();
-		userMap.put(ID_1, createUser(ID_1, NAME_1, EMAIL_1));
-		userMap.put(ID_2, createUser(ID_2, NAME_2, EMAIL_2));
-
-		when(mockStorage.getData()).thenReturn(userMap);
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, NAME_2, EMAIL_2));
 
 		assertTrue(repository.delete(ID_1));
-		assertEquals(1, userMap.size());
+		assertEquals(1, storage.getData().size());
+		assertTrue(repository.getUserByEmail(EMAIL_1).isEmpty());
 	}
 
 	@Test
 	void deleteTestWithNotExistingId(){
-		var userMap = new HashMap<Long, User>();
-		userMap.put(ID_2, createUser(ID_2, NAME_2, EMAIL_2));
-
-		when(mockStorage.getData()).thenReturn(userMap);
+		store(createUser(ID_2, NAME_2, EMAIL_2));
 
 		assertFalse(repository.delete(ID_1));
-		assertEquals(1, userMap.size());
+		assertEquals(1, storage.getData().size());
 	}
 
 	@Test
 	void getUserByEmailTestWithExistingEmail() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
 		Optional<User> user = repository.getUserByEmail(EMAIL_1);
 		assertTrue(user.isPresent());
 		assertEquals(EMAIL_1, user.get().getEmail());
@@ -164,15 +268,15 @@ class UserRepositoryTest {
 
 	@Test
 	void getUserByEmailTestWithNotExistingEmail() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
 		Optional<User> user = repository.getUserByEmail(EMAIL_2);
 		assertTrue(user.isEmpty());
 	}
 
 	@Test
 	void getDataByNameTest() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1),
-				ID_2, createUser(ID_2, NAME_2, EMAIL_2)));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, NAME_2, EMAIL_2));
 		var userList = repository.getUsersByName(NAME_1, 2, 1);
 
 		assertEquals(1, userList.size());
@@ -181,10 +285,10 @@ class UserRepositoryTest {
 
 	@Test
 	void getDataByNamePaginationTest() {
-		when(mockStorage.getData()).thenReturn(Map.of(ID_1, createUser(ID_1, NAME_1, EMAIL_1),
-													   ID_2, createUser(ID_2, NAME_2, EMAIL_2),
-													   3L, createUser(3L, NAME_1, "email3@mail.com"),
-													   4L, createUser(4L, NAME_1, "email4@mail.com")));
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, NAME_2, EMAIL_2));
+		store(createUser(3L, NAME_1, "email3@mail.com"));
+		store(createUser(4L, NAME_1, "email4@mail.com"));
 
 		var userListFirstPage = repository.getUsersByName(NAME_1, 2, 1);
 		var userListSecondPage = repository.getUsersByName(NAME_1, 2, 2);
@@ -197,6 +301,41 @@ class UserRepositoryTest {
 		assertEquals(NAME_1, userListSecondPage.get(0).getName());
 	}
 
+	@Test
+	void getDataByNameTestAfterUpdateAndDelete() {
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, "Other", EMAIL_2));
+		store(createUser(3L, NAME_1, "email3@mail.com"));
+
+		repository.update(createUser(ID_2, "Name 3", ""));
+		repository.delete(ID_1);
+		var userList = repository.getUsersByName("Name", 10, 1);
+
+		assertEquals(2, userList.size());
+		assertEquals(ID_2, userList.get(0).getId());
+		assertEquals(3L, userList.get(1).getId());
+	}
+
+	@Test
+	void getDataByNameCursorTest() {
+		store(createUser(ID_1, NAME_1, EMAIL_1));
+		store(createUser(ID_2, NAME_2, EMAIL_2));
+		store(createUser(3L, NAME_1, "email3@mail.com"));
+		store(createUser(4L, NAME_1, "email4@mail.com"));
+
+		var firstPage = repository.getUsersByName(NAME_1, null, 2);
+		var secondPage = repository.getUsersByName(NAME_1, Cursor.decode(firstPage.getNextCursor()), 2);
+
+		assertEquals(List.of(ID_1, 3L), firstPage.getItems().stream().map(User::getId).collect(Collectors.toList()));
+		assertEquals(List.of(4L), secondPage.getItems().stream().map(User::getId).collect(Collectors.toList()));
+		assertNull(secondPage.getNextCursor());
+		assertThrows(IllegalArgumentException.class, () -> repository.getUsersByName(NAME_1, Cursor.of("1"), 2));
+	}
+
+	private void store(User user) {
+		storage.getData().put(user.getId(), user);
+	}
+
 	private User createUser(long id, String name, String email) {
 		return new User(id, name, email);
 	}
@@ -0,0 +1,83 @@
+package org.example.dao.index;
+
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.TicketInMemoryStorage;
+import org.example.repository.UserInMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventTicketIndexTest {
+
+	private static final long EVENT_ID = 1L;
+
+	private final TicketInMemoryStorage ticketStorage = new TicketInMemoryStorage();
+	private final UserInMemoryStorage userStorage = new UserInMemoryStorage();
+	private final EventTicketIndex index = new EventTicketIndex(ticketStorage, userStorage);
+
+	@Test
+	void ticketsAreSortedByUserEmailTest() {
+		putUser(1L, "b@mail.com");
+		putUser(2L, "a@mail.com");
+		putUser(3L, "c@mail.com");
+		putTicket(1L, 1L, EVENT_ID);
+		putTicket(2L, 2L, EVENT_ID);
+		putTicket(3L, 3L, EVENT_ID);
+		putTicket(4L, 2L, 2L);
+
+		assertEquals(List.of(2L, 1L, 3L), index.getTicketIds(EVENT_ID, 0, 10));
+		assertEquals(List.of(3L), index.getTicketIds(EVENT_ID, 2, 10));
+		assertEquals(List.of(4L), index.getTicketIds(2L, 0, 10));
+	}
+
+	@Test
+	void emailChangeReordersTicketsTest() {
+		putUser(1L, "a@mail.com");
+		putUser(2L, "b@mail.com");
+		putTicket(1L, 1L, EVENT_ID);
+		putTicket(2L, 2L, EVENT_ID);
+
+		putUser(1L, "z@mail.com");
+
+		assertEquals(List.of(2L, 1L), index.getTicketIds(EVENT_ID, 0, 10));
+	}
+
+	@Test
+	void cancelledTicketsAreUnindexedTest() {
+		putUser(1L, "a@mail.com");
+		putTicket(1L, 1L, EVENT_ID);
+		putTicket(2L, 1L, EVENT_ID);
+
+		ticketStorage.getData().remove(2L);
+
+		assertEquals(List.of(1L), index.getTicketIds(EVENT_ID, 0, 10));
+	}
+
+	@Test
+	void groupOfLastCancelledTicketIsDroppedTest() {
+		putUser(1L, "a@mail.com");
+		putTicket(1L, 1L, EVENT_ID);
+		putTicket(2L, 1L, 2L);
+
+		ticketStorage.getData().remove(1L);
+
+		assertEquals(1, index.groupCount());
+		assertEquals(List.of(), index.getTicketIds(EVENT_ID, 0, 10));
+		assertEquals(List.of(2L), index.getTicketIds(2L, 0, 10));
+
+		putTicket(3L, 1L, EVENT_ID);
+
+		assertEquals(List.of(3L), index.getTicketIds(EVENT_ID, 0, 10));
+	}
+
+	private void putUser(long id, String email) {
+		userStorage.getData().put(id, new User(id, "User " + id, email));
+	}
+
+	private void putTicket(long id, long userId, long eventId) {
+		ticketStorage.getData().put(id, new Ticket(id, userId, eventId, Ticket.Category.STANDARD, 1));
+	}
+}
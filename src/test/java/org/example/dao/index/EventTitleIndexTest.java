@@ -0,0 +1,95 @@
+package org.example.dao.index;
+
+import org.example.dao.query.Cursor;
+import org.example.model.Event;
+import org.example.repository.EventInMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventTitleIndexTest {
+
+	private final EventInMemoryStorage storage = new EventInMemoryStorage();
+	private final EventTitleIndex index = new EventTitleIndex(storage);
+
+	@Test
+	void tokenizeTest() {
+		assertEquals(List.of("rock", "n", "roll", "2022"), EventTitleIndex.tokenize("Rock'n'Roll  2022!"));
+		assertEquals(List.of(), EventTitleIndex.tokenize(" - "));
+	}
+
+	@Test
+	void shorterTitlesRankHigherTest() {
+		putEvent(1L, "Open air festival");
+		putEvent(2L, "Open air cinema");
+		putEvent(3L, "Open stage");
+
+		assertEquals(List.of(3L, 1L, 2L), index.search("open", 0, 10));
+		assertEquals(List.of(1L, 2L), index.search("open", 1, 10));
+		assertEquals(List.of(2L), index.search("open cinema", 0, 10));
+	}
+
+	@Test
+	void rareTokensRankHigherTest() {
+		putEvent(1L, "Summer party");
+		putEvent(2L, "Summer parade");
+		putEvent(3L, "Party night");
+		putEvent(4L, "Party time");
+
+		assertEquals(List.of(2L, 1L), index.search("summer par", 0, 10));
+	}
+
+	@Test
+	void lastTokenMatchesPrefixTest() {
+		putEvent(1L, "Festival of lights");
+		putEvent(2L, "Film festival");
+
+		assertEquals(List.of(2L, 1L), index.search("fest", 0, 10));
+		assertEquals(List.of(), index.search("fest fil", 0, 10));
+		assertEquals(List.of(2L), index.search("festival fil", 0, 10));
+		assertEquals(List.of(), index.search("fil festival extra", 0, 10));
+	}
+
+	@Test
+	void removedEventsAreUnindexedTest() {
+		putEvent(1L, "Jazz night");
+		putEvent(2L, "Jazz morning");
+
+		storage.getData().remove(1L);
+
+		assertEquals(List.of(2L), index.search("jazz", 0, 10));
+		assertEquals(List.of(), index.search("night", 0, 10));
+	}
+
+	@Test
+	void cursorPagesFollowRankingTest() {
+		putEvent(1L, "Summer jazz festival");
+		putEvent(2L, "Jazz");
+		putEvent(3L, "Jazz night");
+		putEvent(4L, "Jazz night");
+
+		var first = index.search("jazz", null, 2);
+		var second = index.search("jazz", Cursor.decode(first.getNextCursor()), 2);
+
+		assertEquals(List.of(2L, 3L), first.getItems());
+		assertEquals(List.of(4L, 1L), second.getItems());
+		assertNull(second.getNextCursor());
+		assertThrows(IllegalArgumentException.class, () -> index.search("jazz", Cursor.of(1L), 2));
+	}
+
+	@Test
+	void emptyQueryMatchesNothingTest() {
+		putEvent(1L, "Jazz night");
+
+		assertEquals(List.of(), index.search("", 0, 10));
+	}
+
+	private void putEvent(long id, String title) {
+		storage.getData().put(id, new Event(id, title, LocalDate.of(2022, 1, 1)));
+	}
+}
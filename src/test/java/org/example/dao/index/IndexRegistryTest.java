@@ -0,0 +1,114 @@
+package org.example.dao.index;
+
+import org.example.model.Event;
+import org.example.repository.EventInMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexRegistryTest {
+
+	private static final LocalDate DATE_1 = LocalDate.of(2022, 1, 1);
+	private static final LocalDate DATE_2 = LocalDate.of(2022, 2, 2);
+
+	private final EventInMemoryStorage storage = new EventInMemoryStorage();
+	private final IndexRegistry<Event> registry = new IndexRegistry<>(storage);
+	private final HashIndex<Event, String> titles = new HashIndex<>("title", Event::getTitle);
+	private final SortedIndex<Event, LocalDate> dates = new SortedIndex<>("date", Event::getDate);
+	private final MultiValuedIndex<Event, String> words = new MultiValuedIndex<>("words",
+			event -> List.of(event.getTitle().split(" ")));
+
+	@Test
+	void indexesAreBuiltFromStoredEntitiesTest() {
+		putEvent(1L, "Jazz night", DATE_2);
+		putEvent(2L, "Rock night", DATE_1);
+
+		registry.register(titles);
+		registry.register(dates);
+		registry.register(words);
+
+		assertEquals(Set.of(1L), titles.getIds("Jazz night"));
+		assertEquals(List.of(2L, 1L), dates.range(DATE_1, DATE_2).collect(Collectors.toList()));
+		assertEquals(Set.of(1L, 2L), words.getIds("night"));
+	}
+
+	@Test
+	void indexesFollowStorageChangesTest() {
+		registry.register(titles);
+		registry.register(dates);
+		registry.register(words);
+		putEvent(1L, "Jazz night", DATE_1);
+		putEvent(2L, "Jazz night", DATE_1);
+		putEvent(3L, "Rock night", DATE_2);
+
+		putEvent(1L, "Jazz morning", DATE_2);
+		storage.getData().remove(3L);
+
+		assertEquals(Set.of(2L), titles.getIds("Jazz night"));
+		assertEquals(Set.of(1L), titles.getIds("Jazz morning"));
+		assertEquals(Set.of(), titles.getIds("Rock night"));
+		assertEquals(List.of(2L), dates.range(DATE_1, DATE_1).collect(Collectors.toList()));
+		assertEquals(List.of(2L, 1L), dates.ascending().collect(Collectors.toList()));
+		assertEquals(Set.of(2L), words.getIds("night"));
+		assertEquals(Set.of(1L, 2L), words.getIds("Jazz"));
+	}
+
+	@Test
+	void rebuildWhileEntitiesChangeTest() throws InterruptedException {
+		registry.register(dates);
+		for (long id = 1; id <= 10_000; id++) {
+			putEvent(id, "Event " + id, DATE_1);
+		}
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.execute(() -> {
+			for (long id = 1; id <= 10_000; id++) {
+				if (id % 2 == 0) {
+					storage.getData().remove(id);
+				} else {
+					putEvent(id, "Event " + id, DATE_2);
+				}
+			}
+		});
+		registry.rebuild("date");
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(0, dates.range(DATE_1, DATE_1).count());
+		assertEquals(5_000, dates.range(DATE_2, DATE_2).count());
+	}
+
+	@Test
+	void footprintsAreReportedTest() {
+		registry.register(titles);
+		registry.register(dates);
+		putEvent(1L, "Jazz night", DATE_1);
+
+		var footprints = registry.getFootprints();
+
+		assertEquals(Set.of("date", "title"), footprints.keySet());
+		assertTrue(footprints.get("date") > 0);
+		assertTrue(footprints.get("title") > 0);
+	}
+
+	@Test
+	void duplicatedIndexNameTest() {
+		registry.register(titles);
+
+		assertThrows(IllegalArgumentException.class, () -> registry.register(new HashIndex<>("title", Event::getTitle)));
+		assertThrows(IllegalArgumentException.class, () -> registry.rebuild("unknown"));
+	}
+
+	private void putEvent(long id, String title, LocalDate date) {
+		storage.getData().put(id, new Event(id, title, date));
+	}
+}
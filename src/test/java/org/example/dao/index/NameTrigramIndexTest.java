@@ -0,0 +1,77 @@
+package org.example.dao.index;
+
+import org.example.model.User;
+import org.example.repository.UserInMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameTrigramIndexTest {
+
+	private final UserInMemoryStorage storage = new UserInMemoryStorage();
+	private final NameTrigramIndex index = new NameTrigramIndex(storage);
+
+	@Test
+	void candidatesContainAllTrigramsTest() {
+		putUser(3L, "Jules Mcnally");
+		putUser(1L, "Julia Roberts");
+		putUser(2L, "Anna Jules");
+
+		assertEquals(List.of(2L, 3L), candidates("Jules"));
+		assertEquals(List.of(1L, 2L, 3L), candidates("Jul"));
+		assertTrue(candidates("Bob").isEmpty());
+	}
+
+	@Test
+	void shortFragmentsMatchAllUsersTest() {
+		putUser(2L, "Jules Mcnally");
+		putUser(1L, "Anna");
+
+		assertEquals(List.of(1L, 2L), candidates("J"));
+		assertEquals(List.of(1L, 2L), candidates(""));
+	}
+
+	@Test
+	void candidatesAfterIdTest() {
+		putUser(3L, "Jules Mcnally");
+		putUser(1L, "Julia Roberts");
+		putUser(2L, "Anna Jules");
+
+		assertEquals(List.of(3L), index.getCandidateIds("Jules", 2L).collect(Collectors.toList()));
+		assertEquals(List.of(2L, 3L), index.getCandidateIds("J", 1L).collect(Collectors.toList()));
+	}
+
+	@Test
+	void renamedAndRemovedUsersAreReindexedTest() {
+		putUser(1L, "Jules Mcnally");
+		putUser(2L, "Anna Jules");
+
+		putUser(1L, "Julia Roberts");
+		storage.getData().remove(2L);
+
+		assertTrue(candidates("Jules").isEmpty());
+		assertEquals(List.of(1L), candidates("Julia"));
+		assertEquals(List.of(1L), candidates("Ju"));
+	}
+
+	@Test
+	void existingUsersAreIndexedTest() {
+		putUser(1L, "Jules Mcnally");
+
+		var reopened = new NameTrigramIndex(storage);
+
+		assertEquals(List.of(1L), reopened.getCandidateIds("cnal").collect(Collectors.toList()));
+	}
+
+	private List<Long> candidates(String fragment) {
+		return index.getCandidateIds(fragment).collect(Collectors.toList());
+	}
+
+	private void putUser(long id, String name) {
+		storage.getData().put(id, new User(id, name, "user" + id + "@mail.com"));
+	}
+}
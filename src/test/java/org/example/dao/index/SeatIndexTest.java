@@ -0,0 +1,147 @@
+package org.example.dao.index;
+
+import org.example.model.Ticket;
+import org.example.repository.TicketInMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatIndexTest {
+
+	private static final long EVENT_ID = 1L;
+
+	private final TicketInMemoryStorage ticketStorage = new TicketInMemoryStorage();
+	private final SeatIndex index = new SeatIndex(ticketStorage, true);
+
+	@Test
+	void seatIsClaimedOnceTest() {
+		assertTrue(index.claim(EVENT_ID, Ticket.Category.STANDARD, 5));
+		assertFalse(index.claim(EVENT_ID, Ticket.Category.STANDARD, 5));
+		assertTrue(index.claim(EVENT_ID, Ticket.Category.PREMIUM, 5));
+		assertTrue(index.claim(2L, Ticket.Category.STANDARD, 5));
+		assertTrue(index.claim(EVENT_ID, Ticket.Category.STANDARD, 5000));
+
+		assertTrue(index.release(EVENT_ID, Ticket.Category.STANDARD, 5));
+		assertFalse(index.release(EVENT_ID, Ticket.Category.STANDARD, 5));
+		assertTrue(index.claim(EVENT_ID, Ticket.Category.STANDARD, 5));
+		assertThrows(IllegalArgumentException.class, () -> index.claim(EVENT_ID, Ticket.Category.STANDARD, -1));
+	}
+
+	@Test
+	void seatsOfAllCategoriesAreSharedTest() {
+		var sharedIndex = new SeatIndex(ticketStorage, false);
+
+		assertTrue(sharedIndex.claim(EVENT_ID, Ticket.Category.STANDARD, 5));
+		assertFalse(sharedIndex.claim(EVENT_ID, Ticket.Category.BAR, 5));
+	}
+
+	@Test
+	void indexFollowsTicketStorageTest() {
+		ticketStorage.getData().put(1L, new Ticket(1L, 1L, EVENT_ID, Ticket.Category.BAR, 7));
+		var restoredIndex = new SeatIndex(ticketStorage, true);
+		ticketStorage.getData().put(2L, new Ticket(2L, 1L, EVENT_ID, Ticket.Category.BAR, 8));
+
+		assertTrue(restoredIndex.isTaken(EVENT_ID, Ticket.Category.BAR, 7));
+		assertTrue(index.isTaken(EVENT_ID, Ticket.Category.BAR, 8));
+
+		ticketStorage.getData().remove(1L);
+
+		assertFalse(index.isTaken(EVENT_ID, Ticket.Category.BAR, 7));
+		assertTrue(index.claim(EVENT_ID, Ticket.Category.BAR, 7));
+	}
+
+	@Test
+	void seatsOfTicketsAreClaimedTogetherTest() {
+		ticketStorage.getData().put(1L, new Ticket(1L, 1L, EVENT_ID, Ticket.Category.BAR, 7));
+		var free = new Ticket(0, 1L, EVENT_ID, Ticket.Category.BAR, 8);
+		var taken = new Ticket(0, 1L, EVENT_ID, Ticket.Category.BAR, 7);
+		var duplicate = new Ticket(0, 2L, EVENT_ID, Ticket.Category.BAR, 8);
+
+		assertEquals(Optional.of(taken), index.claimAll(List.of(free, taken)));
+		assertFalse(index.isTaken(EVENT_ID, Ticket.Category.BAR, 8));
+		assertEquals(Optional.of(duplicate), index.claimAll(List.of(free, duplicate)));
+		assertFalse(index.isTaken(EVENT_ID, Ticket.Category.BAR, 8));
+
+		assertEquals(Optional.empty(), index.claimAll(List.of(free)));
+		assertTrue(index.isTaken(EVENT_ID, Ticket.Category.BAR, 8));
+		ticketStorage.getData().put(2L, free);
+		assertFalse(index.cancel(free));
+		assertTrue(index.isTaken(EVENT_ID, Ticket.Category.BAR, 8));
+	}
+
+	@Test
+	void assignedSeatIsReleasedIfTicketIsNotStoredTest() {
+		var ticket = new Ticket(1L, 1L, EVENT_ID, Ticket.Category.BAR, 7);
+		assertTrue(index.claim(EVENT_ID, Ticket.Category.BAR, 7));
+		index.assign(ticket);
+
+		assertTrue(index.cancel(ticket));
+		assertFalse(index.isTaken(EVENT_ID, Ticket.Category.BAR, 7));
+		assertFalse(index.cancel(ticket));
+	}
+
+	@Test
+	void ticketOnTakenSeatIsRejectedTest() {
+		var data = ticketStorage.getData();
+		data.put(1L, new Ticket(1L, 1L, EVENT_ID, Ticket.Category.BAR, 7));
+
+		assertThrows(IllegalStateException.class, () -> data.put(2L, new Ticket(2L, 2L, EVENT_ID, Ticket.Category.BAR, 7)));
+		assertFalse(data.containsKey(2L));
+		assertTrue(index.isTaken(EVENT_ID, Ticket.Category.BAR, 7));
+
+		data.remove(1L);
+		assertFalse(index.isTaken(EVENT_ID, Ticket.Category.BAR, 7));
+	}
+
+	@Test
+	void seatOfReplacedTicketIsReleasedTest() {
+		var data = ticketStorage.getData();
+		data.put(1L, new Ticket(1L, 1L, EVENT_ID, Ticket.Category.BAR, 7));
+		data.put(1L, new Ticket(1L, 1L, EVENT_ID, Ticket.Category.BAR, 8));
+
+		assertFalse(index.isTaken(EVENT_ID, Ticket.Category.BAR, 7));
+		assertTrue(index.isTaken(EVENT_ID, Ticket.Category.BAR, 8));
+	}
+
+	@Test
+	void concurrentClaimsTakeSeatOnceTest() throws InterruptedException {
+		var threads = 8;
+		var executor = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+		var claims = new AtomicInteger();
+		var claimedPlaces = ConcurrentHashMap.<Integer>newKeySet();
+		for (int thread = 0; thread < threads; thread++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int place = 0; place < 2048; place++) {
+					if (index.claim(EVENT_ID, Ticket.Category.STANDARD, place)) {
+						claims.incrementAndGet();
+						claimedPlaces.add(place);
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(2048, claims.get());
+		assertEquals(2048, claimedPlaces.size());
+	}
+}
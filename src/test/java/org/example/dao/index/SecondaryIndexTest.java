@@ -0,0 +1,134 @@
+package org.example.dao.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecondaryIndexTest {
+
+	private final RecordingIndex index = new RecordingIndex();
+
+	@Test
+	void changeRacingWithStoreSwapReachesFreshStoreTest() throws Exception {
+		index.rebuild(Map.of());
+		var rebuildStarted = new CountDownLatch(1);
+		var rebuildMayIterate = new CountDownLatch(1);
+		var emptyData = new AbstractMap<Long, String>() {
+			@Override
+			public Set<Entry<Long, String>> entrySet() {
+				return Set.of();
+			}
+
+			@Override
+			public Set<Long> keySet() {
+				return new AbstractSet<>() {
+					@Override
+					public Iterator<Long> iterator() {
+						rebuildStarted.countDown();
+						await(rebuildMayIterate);
+						return Set.<Long>of().iterator();
+					}
+
+					@Override
+					public int size() {
+						return 0;
+					}
+				};
+			}
+		};
+		var executor = Executors.newFixedThreadPool(2);
+		try {
+			var rebuild = executor.submit(() -> index.rebuild(emptyData));
+			assertTrue(rebuildStarted.await(10, TimeUnit.SECONDS));
+
+			index.current().pause();
+			var write = executor.submit(() -> index.put(1L, "one"));
+			assertTrue(index.current().paused.await(10, TimeUnit.SECONDS));
+
+			rebuildMayIterate.countDown();
+			rebuild.get(10, TimeUnit.SECONDS);
+			index.resume();
+			write.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(Set.of(1L), index.current().ids);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Index that records the indexed ids and can hold a change inside its current store.
+	 */
+	private static final class RecordingIndex extends SecondaryIndex<String, RecordingIndex.RecordingStore> {
+
+		private final CountDownLatch resumed = new CountDownLatch(1);
+
+		private RecordingIndex() {
+			super("recording");
+		}
+
+		private RecordingStore current() {
+			return store();
+		}
+
+		private void resume() {
+			resumed.countDown();
+		}
+
+		@Override
+		protected RecordingStore newStore() {
+			return new RecordingStore();
+		}
+
+		private final class RecordingStore implements Store<String> {
+
+			private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+			private final CountDownLatch paused = new CountDownLatch(1);
+			private volatile boolean pausing;
+
+			private void pause() {
+				pausing = true;
+			}
+
+			@Override
+			public void put(long id, String value) {
+				ids.add(id);
+				if (pausing) {
+					pausing = false;
+					paused.countDown();
+					await(resumed);
+				}
+			}
+
+			@Override
+			public void remove(long id) {
+				ids.remove(id);
+			}
+
+			@Override
+			public long footprint() {
+				return ids.size() * SET_ENTRY_BYTES;
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package org.example.dao.index;
+
+import org.example.dao.query.Cursor;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.repository.EventInMemoryStorage;
+import org.example.repository.TicketInMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserTicketIndexTest {
+
+	private static final long USER_ID = 1L;
+	private static final long OTHER_USER_ID = 2L;
+
+	private final TicketInMemoryStorage ticketStorage = new TicketInMemoryStorage();
+	private final EventInMemoryStorage eventStorage = new EventInMemoryStorage();
+
+	@Test
+	void ticketsAreSortedByEventDateDescendingTest() {
+		var index = new UserTicketIndex(ticketStorage, eventStorage);
+		putEvent(1L, LocalDate.of(2021, 1, 1));
+		putEvent(2L, LocalDate.of(2021, 6, 1));
+		putEvent(3L, null);
+		putTicket(1L, USER_ID, 1L);
+		putTicket(2L, USER_ID, 3L);
+		putTicket(3L, USER_ID, 2L);
+		putTicket(4L, OTHER_USER_ID, 2L);
+
+		assertEquals(List.of(3L, 1L, 2L), index.getTicketIds(USER_ID, 0, 10));
+		assertEquals(List.of(1L), index.getTicketIds(USER_ID, 1, 1));
+		assertEquals(List.of(4L), index.getTicketIds(OTHER_USER_ID, 0, 10));
+		assertEquals(List.of(), index.getTicketIds(3L, 0, 10));
+	}
+
+	@Test
+	void cursorPagesAreNotShiftedByNewTicketsTest() {
+		var index = new UserTicketIndex(ticketStorage, eventStorage);
+		putEvent(1L, LocalDate.of(2021, 1, 1));
+		putEvent(2L, LocalDate.of(2021, 6, 1));
+		putEvent(3L, null);
+		putTicket(1L, USER_ID, 1L);
+		putTicket(2L, USER_ID, 3L);
+		putTicket(3L, USER_ID, 2L);
+
+		var first = index.getTicketIds(USER_ID, null, 2);
+		putTicket(4L, USER_ID, 2L);
+		var second = index.getTicketIds(USER_ID, Cursor.decode(first.getNextCursor()), 2);
+
+		assertEquals(List.of(3L, 1L), first.getItems());
+		assertEquals(List.of(2L), second.getItems());
+		assertNull(second.getNextCursor());
+		assertEquals(List.of(), index.getTicketIds(3L, null, 2).getItems());
+		assertThrows(IllegalArgumentException.class, () -> index.getTicketIds(USER_ID, Cursor.of("a", 1L, 1L), 2));
+	}
+
+	@Test
+	void existingDataIsIndexedTest() {
+		putEvent(1L, LocalDate.of(2021, 1, 1));
+		putEvent(2L, LocalDate.of(2021, 6, 1));
+		putTicket(1L, USER_ID, 1L);
+		putTicket(2L, USER_ID, 2L);
+
+		var index = new UserTicketIndex(ticketStorage, eventStorage);
+
+		assertEquals(List.of(2L, 1L), index.getTicketIds(USER_ID, 0, 10));
+	}
+
+	@Test
+	void eventDateChangeReordersTicketsTest() {
+		var index = new UserTicketIndex(ticketStorage, eventStorage);
+		putEvent(1L, LocalDate.of(2021, 1, 1));
+		putEvent(2L, LocalDate.of(2021, 6, 1));
+		putTicket(1L, USER_ID, 1L);
+		putTicket(2L, USER_ID, 2L);
+
+		putEvent(1L, LocalDate.of(2021, 12, 1));
+
+		assertEquals(List.of(1L, 2L), index.getTicketIds(USER_ID, 0, 10));
+	}
+
+	@Test
+	void removedTicketsAreUnindexedTest() {
+		var index = new UserTicketIndex(ticketStorage, eventStorage);
+		putEvent(1L, LocalDate.of(2021, 1, 1));
+		putTicket(1L, USER_ID, 1L);
+		putTicket(2L, USER_ID, 1L);
+
+		ticketStorage.getData().remove(1L);
+
+		assertEquals(List.of(2L), index.getTicketIds(USER_ID, 0, 10));
+	}
+
+	private void putEvent(long id, LocalDate date) {
+		eventStorage.getData().put(id, new Event(id, "Event " + id, date));
+	}
+
+	private void putTicket(long id, long userId, long eventId) {
+		ticketStorage.getData().put(id, new Ticket(id, userId, eventId, Ticket.Category.STANDARD, 1));
+	}
+}
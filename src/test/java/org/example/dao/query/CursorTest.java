@@ -0,0 +1,58 @@
+package org.example.dao.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorTest {
+
+	@Test
+	void encodedCursorIsDecodedTest() {
+		var cursor = Cursor.of(LocalDate.of(2022, 1, 1), "a@mail.com", 1.5, 7, null, 42L);
+
+		var token = cursor.encode();
+		var decoded = Cursor.decode(token);
+
+		assertTrue(token.matches("[A-Za-z0-9_-]+"));
+		assertEquals(cursor, decoded);
+		assertEquals(LocalDate.of(2022, 1, 1), decoded.get(0, LocalDate.class));
+		assertEquals("a@mail.com", decoded.get(1, String.class));
+		assertEquals(1.5, decoded.get(2, Double.class));
+		assertEquals(7, decoded.get(3, Integer.class));
+		assertNull(decoded.get(4, String.class));
+		assertEquals(42L, decoded.getLong(5));
+	}
+
+	@Test
+	void missingCursorStandsForFirstPageTest() {
+		assertNull(Cursor.decode(null));
+		assertNull(Cursor.decode(""));
+	}
+
+	@Test
+	void invalidCursorIsRejectedTest() {
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not a cursor"));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode("AQE"));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(Cursor.of(1L).encode() + "AA"));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.of(1L).get(0, String.class));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.of(1L).getLong(1));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.of(new Object()));
+	}
+
+	@Test
+	void pageOfFetchedItemsTest() {
+		var lastPage = Page.of(List.of(1L, 2L), 2, Cursor::of);
+		var page = Page.of(List.of(1L, 2L, 3L), 2, Cursor::of);
+
+		assertEquals(List.of(1L, 2L), lastPage.getItems());
+		assertNull(lastPage.getNextCursor());
+		assertEquals(List.of(1L, 2L), page.getItems());
+		assertEquals(Cursor.of(2L), Cursor.decode(page.getNextCursor()));
+	}
+}
@@ -0,0 +1,76 @@
+package org.example.dao.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelScannerTest {
+
+	private final ParallelScanner scanner = new ParallelScanner(3, 10_000);
+
+	@AfterEach
+	void tearDown() {
+		scanner.shutdown();
+	}
+
+	@Test
+	void parallelScanMatchesSequentialScanTest() {
+		var values = ConcurrentHashMap.<Long>newKeySet();
+		LongStream.range(0, 200_000).forEach(values::add);
+
+		var parallel = scanner.filter(values, value -> value % 7 == 0, Comparator.naturalOrder());
+		var sequential = ParallelScanner.sequential().filter(values, value -> value % 7 == 0, Comparator.naturalOrder());
+
+		assertEquals(sequential, parallel);
+		assertEquals(LongStream.range(0, 200_000).filter(value -> value % 7 == 0).boxed().collect(Collectors.toList()),
+				parallel);
+	}
+
+	@Test
+	void parallelScanOfFirstMatchesTest() {
+		var values = ConcurrentHashMap.<Long>newKeySet();
+		LongStream.range(0, 200_000).forEach(values::add);
+
+		var first = scanner.filter(values, value -> value % 7 == 0, Comparator.reverseOrder(), 3);
+
+		assertEquals(List.of(199_997L, 199_990L, 199_983L), first);
+		assertEquals(first, ParallelScanner.sequential().filter(values, value -> value % 7 == 0,
+				Comparator.reverseOrder(), 3));
+	}
+
+	@Test
+	void parallelScanIsBoundedByPoolTest() {
+		var values = new ArrayList<Long>();
+		LongStream.range(0, 100_000).forEach(values::add);
+		var threads = ConcurrentHashMap.<String>newKeySet();
+
+		scanner.filter(values, value -> threads.add(Thread.currentThread().getName()), Comparator.naturalOrder());
+
+		assertTrue(threads.size() <= 3, () -> "Scan threads: " + threads);
+		assertTrue(threads.stream().allMatch(name -> name.startsWith("query-scan-")), () -> "Scan threads: " + threads);
+	}
+
+	@Test
+	void smallCollectionIsScannedOnCallerThreadTest() {
+		var threads = ConcurrentHashMap.<String>newKeySet();
+
+		var matches = scanner.filter(List.of(3L, 1L, 2L), value -> threads.add(Thread.currentThread().getName()) || true,
+				Comparator.naturalOrder());
+
+		assertFalse(scanner.isParallel(3));
+		assertTrue(scanner.isParallel(10_000));
+		assertEquals(List.of(1L, 2L, 3L), matches);
+		assertEquals(Set.of(Thread.currentThread().getName()), threads);
+	}
+}
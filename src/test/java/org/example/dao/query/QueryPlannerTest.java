@@ -0,0 +1,279 @@
+package org.example.dao.query;
+
+import org.example.dao.index.HashIndex;
+import org.example.dao.index.IndexRegistry;
+import org.example.dao.index.MultiValuedIndex;
+import org.example.dao.index.SortedIndex;
+import org.example.model.Event;
+import org.example.repository.EventInMemoryStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryPlannerTest {
+
+	private static final LocalDate DATE_1 = LocalDate.of(2022, 1, 1);
+	private static final LocalDate DATE_2 = LocalDate.of(2022, 2, 2);
+	private static final LocalDate DATE_3 = LocalDate.of(2022, 3, 3);
+
+	private final EventInMemoryStorage storage = new EventInMemoryStorage();
+	private final IndexRegistry<Event> registry = new IndexRegistry<>(storage);
+	private final QueryPlanner<Event> planner = new QueryPlanner<>(registry, storage.getData().values(),
+			id -> Optional.ofNullable(storage.getData().get(id)), ParallelScanner.sequential());
+
+	@BeforeEach
+	void setUp() {
+		putEvent(1L, "Jazz night", DATE_3);
+		putEvent(2L, "Rock night", DATE_1);
+		putEvent(3L, "Jazz morning", DATE_2);
+		putEvent(4L, "Jazz night", DATE_1);
+		putEvent(5L, "Folk evening", null);
+	}
+
+	@Test
+	void fullScanWithoutIndexesTest() {
+		var query = new Query<Event>()
+				.where(Criterion.contains("title", Event::getTitle, "Jazz"))
+				.orderBy("date", Event::getDate);
+
+		var plan = planner.plan(query);
+
+		assertEquals(QueryPlan.Access.FULL_SCAN, plan.getAccess());
+		assertNull(plan.getIndex());
+		assertEquals(5, plan.getEstimatedRows());
+		assertFalse(plan.isSortedByIndex());
+		assertEquals(List.of(4L, 3L, 1L), ids(plan.execute()));
+	}
+
+	@Test
+	void mostSelectiveIndexIsChosenTest() {
+		registry.register(new HashIndex<>("title", Event::getTitle));
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_3))
+				.where(Criterion.equalTo("title", Event::getTitle, "Jazz night"));
+
+		var plan = planner.plan(query);
+
+		assertEquals(QueryPlan.Access.INDEX_LOOKUP, plan.getAccess());
+		assertEquals("title", plan.getIndex());
+		assertEquals(2, plan.getEstimatedRows());
+		assertEquals(List.of(1L, 4L), ids(plan.execute()));
+
+		var narrowQuery = new Query<Event>()
+				.where(Criterion.equalTo("title", Event::getTitle, "Jazz night"))
+				.where(Criterion.between("date", Event::getDate, DATE_2, DATE_2));
+
+		assertEquals("date", planner.plan(narrowQuery).getIndex());
+		assertEquals(List.of(), ids(planner.plan(narrowQuery).execute()));
+	}
+
+	@Test
+	void rangeLookupKeepsIndexOrderTest() {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_2))
+				.orderBy("date", Event::getDate)
+				.page(2, 1);
+
+		var plan = planner.plan(query);
+
+		assertEquals(QueryPlan.Access.INDEX_LOOKUP, plan.getAccess());
+		assertTrue(plan.isSortedByIndex());
+		assertEquals(List.of(2L, 4L), ids(plan.execute()));
+		assertEquals(List.of(3L), ids(planner.plan(query.page(2, 2)).execute()));
+	}
+
+	@Test
+	void descendingOrderIsSortedTest() {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_3))
+				.orderByDescending("date", Event::getDate);
+
+		var plan = planner.plan(query);
+
+		assertFalse(plan.isSortedByIndex());
+		assertEquals(List.of(1L, 3L, 2L, 4L), ids(plan.execute()));
+	}
+
+	@Test
+	void sortedIndexOrderWithoutUsableCriteriaTest() {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.contains("title", Event::getTitle, "night"))
+				.orderBy("date", Event::getDate);
+
+		var plan = planner.plan(query);
+
+		assertEquals(QueryPlan.Access.INDEX_ORDER, plan.getAccess());
+		assertEquals("date", plan.getIndex());
+		assertTrue(plan.isSortedByIndex());
+		assertEquals(List.of(2L, 4L, 1L), ids(plan.execute()));
+		assertEquals(List.of(2L, 4L, 3L, 1L, 5L), ids(planner.plan(new Query<Event>()
+				.orderBy("date", Event::getDate)).execute()));
+	}
+
+	@Test
+	void multiValuedIndexLookupTest() {
+		registry.register(new MultiValuedIndex<>("words", event -> List.of(event.getTitle().split(" "))));
+		var query = new Query<Event>()
+				.where(Criterion.hasElement("words", event -> List.of(event.getTitle().split(" ")), "night"))
+				.where(Criterion.equalTo("date", Event::getDate, DATE_1));
+
+		var plan = planner.plan(query);
+
+		assertEquals("words", plan.getIndex());
+		assertEquals(3, plan.getEstimatedRows());
+		assertEquals(List.of(2L, 4L), ids(plan.execute()));
+	}
+
+	@Test
+	void indexOfOtherKindIsNotUsedTest() {
+		registry.register(new HashIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_2));
+
+		var plan = planner.plan(query);
+
+		assertEquals(QueryPlan.Access.FULL_SCAN, plan.getAccess());
+		assertEquals(List.of(2L, 3L, 4L), ids(plan.execute()));
+	}
+
+	@Test
+	void entitiesWithoutOrderComeInIdOrderTest() {
+		registry.register(new HashIndex<>("title", Event::getTitle));
+		var query = new Query<Event>()
+				.where(Criterion.equalTo("title", Event::getTitle, "Jazz night"))
+				.page(1, 2);
+
+		assertEquals(List.of(4L), ids(planner.plan(query).execute()));
+	}
+
+	@Test
+	void cursorPagesFollowEachOtherTest() {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var first = planner.plan(new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_3))
+				.orderBy("date", Event::getDate)
+				.after(null, 2)).executePage();
+		var cursor = Cursor.decode(first.getNextCursor());
+		putEvent(6L, "Jazz brunch", DATE_1);
+		var second = planner.plan(new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_3))
+				.orderBy("date", Event::getDate)
+				.after(cursor, 2)).executePage();
+
+		assertEquals(List.of(2L, 4L), ids(first.getItems()));
+		assertEquals(Cursor.of(DATE_1, 4L), cursor);
+		assertEquals(List.of(6L, 3L), ids(second.getItems()));
+		assertTrue(second.hasNext());
+	}
+
+	@Test
+	void cursorPagesOfEveryPlanTest() {
+		var scan = new Query<Event>().orderByDescending("date", Event::getDate);
+		var unsorted = new Query<Event>().where(Criterion.contains("title", Event::getTitle, "n"));
+
+		assertEquals(List.of(1L, 3L, 2L, 4L, 5L), ids(readAll(scan)));
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(readAll(unsorted)));
+
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var ordered = new Query<Event>().orderBy("date", Event::getDate);
+
+		assertEquals(QueryPlan.Access.INDEX_ORDER, planner.plan(ordered).getAccess());
+		assertEquals(List.of(2L, 4L, 3L, 1L, 5L), ids(readAll(ordered)));
+	}
+
+	@Test
+	void cursorOfOtherQueryIsRejectedTest() {
+		var query = new Query<Event>()
+				.orderBy("date", Event::getDate)
+				.after(Cursor.of(1L), 2);
+		var otherKey = new Query<Event>()
+				.orderBy("date", Event::getDate)
+				.after(Cursor.of("Jazz", 1L), 2);
+
+		assertThrows(IllegalArgumentException.class, () -> planner.plan(query));
+		assertThrows(IllegalArgumentException.class, () -> planner.plan(otherKey).executePage());
+	}
+
+	@Test
+	void explainTest() {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_2))
+				.where(Criterion.contains("title", Event::getTitle, "Jazz"))
+				.orderBy("date", Event::getDate)
+				.page(10, 2);
+
+		assertEquals("INDEX_LOOKUP date (~3 rows)\n"
+				+ "  FILTER date BETWEEN 2022-01-01 AND 2022-02-02\n"
+				+ "  FILTER title CONTAINS 'Jazz'\n"
+				+ "  ORDERED BY INDEX date ASC\n"
+				+ "  PAGE offset 10 limit 10", planner.plan(query).toString());
+	}
+
+	@Test
+	void explainSortOfFirstEntitiesTest() {
+		var query = new Query<Event>()
+				.where(Criterion.contains("title", Event::getTitle, "night"))
+				.orderByDescending("date", Event::getDate)
+				.page(2, 2);
+
+		var plan = planner.plan(query);
+
+		assertEquals("FULL_SCAN (~5 rows)\n"
+				+ "  FILTER title CONTAINS 'night'\n"
+				+ "  SORT date DESC TOP 4\n"
+				+ "  PAGE offset 2 limit 2", plan.toString());
+		assertEquals(List.of(4L), ids(plan.execute()));
+	}
+
+	@Test
+	void explainCursorPageTest() {
+		registry.register(new SortedIndex<>("date", Event::getDate));
+		var query = new Query<Event>()
+				.where(Criterion.between("date", Event::getDate, DATE_1, DATE_2))
+				.orderBy("date", Event::getDate)
+				.after(Cursor.of(DATE_1, 4L), 10);
+
+		assertEquals("INDEX_LOOKUP date (~3 rows)\n"
+				+ "  FILTER date BETWEEN 2022-01-01 AND 2022-02-02\n"
+				+ "  ORDERED BY INDEX date ASC\n"
+				+ "  PAGE after 2022-01-01, id 4 limit 10", planner.plan(query).toString());
+	}
+
+	/**
+	 * Reads all pages of the query, two entities per page.
+	 */
+	private List<Event> readAll(Query<Event> query) {
+		var events = new ArrayList<Event>();
+		Cursor cursor = null;
+		do {
+			var page = planner.plan(query.after(cursor, 2)).executePage();
+			events.addAll(page.getItems());
+			cursor = Cursor.decode(page.getNextCursor());
+		} while (cursor != null);
+		return events;
+	}
+
+	private void putEvent(long id, String title, LocalDate date) {
+		storage.getData().put(id, new Event(id, title, date));
+	}
+
+	private static List<Long> ids(List<Event> events) {
+		return events.stream().map(Event::getId).collect(Collectors.toList());
+	}
+}
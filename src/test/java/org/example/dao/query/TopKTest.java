@@ -0,0 +1,61 @@
+package org.example.dao.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKTest {
+
+	@Test
+	void firstEntriesMatchFullSortTest() {
+		var values = IntStream.range(0, 10_000).boxed().collect(Collectors.toCollection(ArrayList::new));
+		Collections.shuffle(values, new Random(7));
+
+		var first = values.stream().collect(TopK.first(25, Comparator.<Integer>reverseOrder()));
+
+		assertEquals(IntStream.range(0, 25).map(i -> 9_999 - i).boxed().collect(Collectors.toList()), first);
+	}
+
+	@Test
+	void selectionIsBoundedTest() {
+		var selection = new TopK<Integer>(3, Comparator.naturalOrder());
+
+		IntStream.of(5, 1, 9, 3, 7, 2, 8).forEach(selection::add);
+
+		assertEquals(3, selection.size());
+		assertEquals(List.of(1, 2, 3), selection.toList());
+	}
+
+	@Test
+	void mergedSelectionsKeepFirstEntriesTest() {
+		var left = new TopK<Integer>(3, Comparator.naturalOrder());
+		var right = new TopK<Integer>(3, Comparator.naturalOrder());
+		IntStream.of(4, 8, 6, 1).forEach(left::add);
+		IntStream.of(3, 7, 2).forEach(right::add);
+
+		assertEquals(List.of(1, 2, 3), left.addAll(right).toList());
+	}
+
+	@Test
+	void unboundedSelectionSortsAllEntriesTest() {
+		var all = List.of(3, 1, 2).stream().collect(TopK.first(Long.MAX_VALUE, Comparator.<Integer>naturalOrder()));
+
+		assertEquals(List.of(1, 2, 3), all);
+	}
+
+	@Test
+	void emptySelectionTest() {
+		assertTrue(List.of(3, 1, 2).stream().collect(TopK.first(0, Comparator.<Integer>naturalOrder())).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(-1, Comparator.naturalOrder()));
+	}
+}
@@ -12,9 +12,11 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(SpringExtension.class)
@@ -72,4 +74,19 @@ class BookingFacadeImplTest {
 		//Canceling ticket
 		assertTrue(facade.cancelTicket(ticket.getId()));
 	}
+
+	@Test
+	void groupBookingTest(){
+		var event = facade.createEvent(new Event(0, "Group Event", LocalDate.now()));
+		var user = facade.createUser(new User(0, userName, "group@mail.com"));
+
+		var tickets = facade.bookTickets(user.getId(), event.getId(), Ticket.Category.PREMIUM, List.of(3, 1, 2));
+
+		assertEquals(3, tickets.size());
+		assertEquals(3, facade.getBookedTickets(event, 10, 1).size());
+		assertThrows(IllegalStateException.class,
+				() -> facade.bookTickets(user.getId(), event.getId(), Ticket.Category.PREMIUM, List.of(4, 2)));
+		assertEquals(3, facade.getBookedTickets(event, 10, 1).size());
+		assertEquals(4, facade.bookTicket(user.getId(), event.getId(), Ticket.Category.PREMIUM, 4).getPlace());
+	}
 }
@@ -0,0 +1,78 @@
+package org.example.preloader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreloadOrchestratorTest {
+
+	private final List<String> finished = new CopyOnWriteArrayList<>();
+
+	@Test
+	void dependenciesFinishFirstTest() {
+		var orchestrator = new PreloadOrchestrator(List.of(new Tickets(), new Users(), new Events()));
+
+		assertEquals(6, orchestrator.preload());
+
+		assertEquals(3, finished.size());
+		assertEquals("tickets", finished.get(2));
+		assertTrue(finished.containsAll(List.of("users", "events")));
+	}
+
+	@Test
+	void noPreloadersTest() {
+		assertEquals(0, new PreloadOrchestrator(List.of()).preload());
+	}
+
+	@Test
+	void missingDependencyTest() {
+		var orchestrator = new PreloadOrchestrator(List.of(new Tickets(), new Users()));
+
+		assertThrows(IllegalStateException.class, orchestrator::preload);
+	}
+
+	private abstract class TestPreloader implements DataPreloader<Object> {
+
+		private final String name;
+		private final long entities;
+
+		private TestPreloader(String name, long entities) {
+			this.name = name;
+			this.entities = entities;
+		}
+
+		@Override
+		public long preloadData() {
+			finished.add(name);
+			return entities;
+		}
+	}
+
+	private class Users extends TestPreloader {
+		private Users() {
+			super("users", 1);
+		}
+	}
+
+	private class Events extends TestPreloader {
+		private Events() {
+			super("events", 2);
+		}
+	}
+
+	private class Tickets extends TestPreloader {
+		private Tickets() {
+			super("tickets", 3);
+		}
+
+		@Override
+		public List<Class<? extends DataPreloader<?>>> getDependencies() {
+			return List.of(Users.class, Events.class);
+		}
+	}
+}
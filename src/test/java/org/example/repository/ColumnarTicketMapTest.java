@@ -0,0 +1,82 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarTicketMapTest {
+
+	private static final long ID_1 = 1L;
+	private static final long ID_2 = 2L;
+	private static final long USER_ID = 5L;
+	private static final long EVENT_ID = 7L;
+	private static final int PLACE = 42;
+
+	private final ColumnarTicketMap map = new ColumnarTicketMap();
+
+	@Test
+	void putAndGetTest() {
+		map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, Ticket.Category.PREMIUM, PLACE));
+
+		var ticket = map.get(ID_1);
+
+		assertEquals(ID_1, ticket.getId());
+		assertEquals(USER_ID, ticket.getUserId());
+		assertEquals(EVENT_ID, ticket.getEventId());
+		assertEquals(Ticket.Category.PREMIUM, ticket.getCategory());
+		assertEquals(PLACE, ticket.getPlace());
+		assertNull(map.get(ID_2));
+	}
+
+	@Test
+	void nullCategoryTest() {
+		map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, null, PLACE));
+		assertNull(map.get(ID_1).getCategory());
+	}
+
+	@Test
+	void copiesAreNotWrittenBackTest() {
+		map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, Ticket.Category.BAR, PLACE));
+
+		map.get(ID_1).setPlace(PLACE + 1);
+		map.values().iterator().next().setCategory(Ticket.Category.PREMIUM);
+
+		assertEquals(PLACE, map.get(ID_1).getPlace());
+		assertEquals(Ticket.Category.BAR, map.get(ID_1).getCategory());
+	}
+
+	@Test
+	void removeTest() {
+		map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, Ticket.Category.BAR, PLACE));
+
+		var removed = map.remove(ID_1);
+
+		assertEquals(PLACE, removed.getPlace());
+		assertNull(map.get(ID_1));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void rowsAreReusedAfterRemovalTest() {
+		for (long id = 1; id <= 10_000; id++) {
+			map.put(id, new Ticket(id, id, EVENT_ID, Ticket.Category.STANDARD, (int) id));
+		}
+		for (long id = 1; id <= 10_000; id += 2) {
+			map.remove(id);
+		}
+		for (long id = 10_001; id <= 12_000; id++) {
+			map.put(id, new Ticket(id, id, EVENT_ID, Ticket.Category.STANDARD, (int) id));
+		}
+
+		assertEquals(7_000, map.size());
+		assertEquals(7_000, map.values().size());
+		var ids = map.values().stream().map(Ticket::getId).collect(Collectors.toSet());
+		assertEquals(7_000, ids.size());
+		assertTrue(map.values().stream().allMatch(ticket -> ticket.getPlace() == ticket.getId()));
+	}
+}
@@ -0,0 +1,120 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongHashMapTest {
+
+	private static final String VALUE_1 = "value 1";
+	private static final String VALUE_2 = "value 2";
+
+	private final ConcurrentLongHashMap<String> map = new ConcurrentLongHashMap<>();
+
+	@Test
+	void putAndGetTest() {
+		assertNull(map.put(1L, VALUE_1));
+		assertEquals(VALUE_1, map.put(1L, VALUE_2));
+
+		assertEquals(VALUE_2, map.get(1L));
+		assertEquals(VALUE_2, map.get(Long.valueOf(1L)));
+		assertNull(map.get(2L));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void removeTest() {
+		map.put(1L, VALUE_1);
+		map.put(2L, VALUE_2);
+
+		assertEquals(VALUE_1, map.remove(1L));
+		assertNull(map.remove(1L));
+		assertFalse(map.containsKey(1L));
+		assertTrue(map.containsKey(2L));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void growAndReuseRemovedSlotsTest() {
+		for (long key = 1; key <= 100_000; key++) {
+			map.put(key, String.valueOf(key));
+		}
+		for (long key = 1; key <= 100_000; key += 2) {
+			map.remove(key);
+		}
+		for (long key = 100_001; key <= 150_000; key++) {
+			map.put(key, String.valueOf(key));
+		}
+
+		assertEquals(100_000, map.size());
+		assertNull(map.get(99_999L));
+		assertEquals("100000", map.get(100_000L));
+		assertEquals("150000", map.get(150_000L));
+	}
+
+	@Test
+	void ensureCapacityKeepsEntriesTest() {
+		for (long key = 1; key <= 100; key++) {
+			map.put(key, String.valueOf(key));
+		}
+		map.remove(50L);
+
+		map.ensureCapacity(100_000);
+
+		assertEquals(99, map.size());
+		assertNull(map.get(50L));
+		assertEquals("100", map.get(100L));
+	}
+
+	@Test
+	void iterationTest() {
+		for (long key = 1; key <= 1000; key++) {
+			map.put(key, String.valueOf(key));
+		}
+
+		var keys = new HashSet<Long>();
+		var iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			var entry = iterator.next();
+			keys.add(entry.getKey());
+			if (entry.getKey() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+
+		assertEquals(1000, keys.size());
+		assertEquals(500, map.values().size());
+		assertTrue(map.values().stream().allMatch(value -> Long.parseLong(value) % 2 == 1));
+	}
+
+	@Test
+	void concurrentPutAndRemoveTest() throws InterruptedException {
+		int threads = 4;
+		int keysPerThread = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			long offset = (long) t * keysPerThread;
+			executor.execute(() -> {
+				for (long key = offset; key < offset + keysPerThread; key++) {
+					map.put(key, VALUE_1);
+					map.get(key - 1);
+					if (key % 4 == 0) {
+						map.remove(key);
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+		assertEquals(threads * keysPerThread * 3 / 4, map.size());
+	}
+}
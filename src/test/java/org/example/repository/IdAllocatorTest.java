@@ -0,0 +1,62 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdAllocatorTest {
+
+	private final TicketInMemoryStorage storage = new TicketInMemoryStorage();
+
+	@Test
+	void idsComeFromBlocksOfStorageIndexTest() {
+		var allocator = new IdAllocator(storage, 4);
+
+		assertEquals(List.of(1L, 2L, 3L), List.of(allocator.next(), allocator.next(), allocator.next()));
+		assertEquals(4, storage.getLastIndex());
+		assertEquals(5, storage.getIndex());
+		assertEquals(4L, allocator.next());
+		assertEquals(6L, allocator.next());
+		assertEquals(9, storage.getLastIndex());
+		assertThrows(IllegalArgumentException.class, () -> new IdAllocator(storage, 0));
+	}
+
+	@Test
+	void restoredIdsAreNotHandedOutTest() {
+		var allocator = new IdAllocator(storage, 4);
+
+		assertEquals(1L, allocator.next());
+		storage.restoreIndex(1);
+		assertEquals(2L, allocator.next());
+		storage.restoreIndex(3);
+		assertEquals(5L, allocator.next());
+		assertEquals(6L, allocator.next());
+	}
+
+	@Test
+	void concurrentThreadsGetUniqueIdsTest() throws InterruptedException {
+		var allocator = new IdAllocator(storage, 16);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		var executor = Executors.newFixedThreadPool(4);
+		for (int task = 0; task < 4; task++) {
+			executor.execute(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					ids.add(allocator.next());
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(40_000, ids.size());
+		assertTrue(ids.stream().allMatch(id -> id > 0 && id <= storage.getLastIndex()));
+	}
+}
@@ -0,0 +1,81 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedTicketMapTest {
+
+	private static final long USER_ID = 5L;
+	private static final long EVENT_ID = 7L;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void reopenAfterCloseTest() throws IOException {
+		var file = directory.resolve("tickets.dat");
+		try (var map = new MappedTicketMap(file)) {
+			for (long id = 1; id <= 100_000; id++) {
+				map.put(id, new Ticket(id, USER_ID, EVENT_ID, Ticket.Category.PREMIUM, (int) id));
+			}
+			map.remove(50_000L);
+		}
+
+		try (var map = new MappedTicketMap(file)) {
+			assertEquals(99_999, map.size());
+			assertEquals(100_000, map.getHighestKey());
+			assertNull(map.get(50_000L));
+			assertEquals(77, map.get(77L).getPlace());
+			assertEquals(Ticket.Category.PREMIUM, map.get(100_000L).getCategory());
+		}
+	}
+
+	@Test
+	void reopenWithoutCloseRecountsRecordsTest() throws IOException {
+		var file = directory.resolve("tickets.dat");
+		var map = new MappedTicketMap(file);
+		map.put(1L, new Ticket(1L, USER_ID, EVENT_ID, Ticket.Category.BAR, 1));
+		map.put(3L, new Ticket(3L, USER_ID, EVENT_ID, Ticket.Category.BAR, 3));
+
+		try (var reopened = new MappedTicketMap(file)) {
+			assertEquals(2, reopened.size());
+			assertEquals(3L, reopened.getHighestKey());
+			assertEquals(3, reopened.get(3L).getPlace());
+		}
+		map.close();
+	}
+
+	@Test
+	void storageContinuesIdsAfterRestartTest() throws IOException {
+		var file = directory.resolve("tickets.dat");
+		try (var storage = new MappedTicketStorage(file)) {
+			assertFalse(storage.isRestored());
+			var id = storage.getIndex();
+			storage.getData().put(id, new Ticket(id, USER_ID, EVENT_ID, Ticket.Category.STANDARD, 10));
+		}
+
+		try (var storage = new MappedTicketStorage(file)) {
+			assertTrue(storage.isRestored());
+			assertEquals(2L, storage.getIndex());
+		}
+	}
+
+	@Test
+	void foreignFileIsRejectedTest() throws IOException {
+		var file = directory.resolve("tickets.dat");
+		Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+		assertThrows(IOException.class, () -> new MappedTicketMap(file));
+	}
+}
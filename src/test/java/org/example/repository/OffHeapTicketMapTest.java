@@ -0,0 +1,78 @@
+package org.example.repository;
+
+import org.example.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapTicketMapTest {
+
+	private static final long ID_1 = 1L;
+	private static final long ID_2 = 2L;
+	private static final long USER_ID = 5L;
+	private static final long EVENT_ID = 7L;
+	private static final int PLACE = 42;
+
+	private final OffHeapTicketMap map = new OffHeapTicketMap();
+
+	@Test
+	void putAndGetTest() {
+		assertNull(map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, Ticket.Category.BAR, PLACE)));
+
+		var ticket = map.get(ID_1);
+
+		assertEquals(ID_1, ticket.getId());
+		assertEquals(USER_ID, ticket.getUserId());
+		assertEquals(EVENT_ID, ticket.getEventId());
+		assertEquals(Ticket.Category.BAR, ticket.getCategory());
+		assertEquals(PLACE, ticket.getPlace());
+		assertNull(map.get(ID_2));
+		assertNull(map.get(-1L));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void replaceTest() {
+		map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, null, PLACE));
+
+		var previous = map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, Ticket.Category.STANDARD, PLACE + 1));
+
+		assertNull(previous.getCategory());
+		assertEquals(PLACE + 1, map.get(ID_1).getPlace());
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void removeTest() {
+		map.put(ID_1, new Ticket(ID_1, USER_ID, EVENT_ID, Ticket.Category.BAR, PLACE));
+
+		assertEquals(PLACE, map.remove(ID_1).getPlace());
+		assertNull(map.remove(ID_1));
+		assertNull(map.get(ID_1));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void iterationAcrossChunksTest() {
+		for (long id = 1; id <= 200_000; id += 1000) {
+			map.put(id, new Ticket(id, id, EVENT_ID, Ticket.Category.PREMIUM, (int) id));
+		}
+
+		var ids = map.values().stream().map(Ticket::getId).collect(Collectors.toList());
+
+		assertEquals(200, ids.size());
+		assertEquals(200, map.size());
+		assertTrue(map.values().stream().allMatch(ticket -> ticket.getPlace() == ticket.getId()));
+	}
+
+	@Test
+	void negativeIdTest() {
+		assertThrows(IllegalArgumentException.class,
+				() -> map.put(-1L, new Ticket(-1L, USER_ID, EVENT_ID, Ticket.Category.BAR, PLACE)));
+	}
+}
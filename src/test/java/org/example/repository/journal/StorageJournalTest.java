@@ -0,0 +1,297 @@
+package org.example.repository.journal;
+
+import org.example.dao.EventRepository;
+import org.example.dao.TicketRepository;
+import org.example.dao.UserRepository;
+import org.example.dao.index.EmailIndex;
+import org.example.dao.index.NameTrigramIndex;
+import org.example.dao.index.SeatIndex;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.ConcurrentLongHashMap;
+import org.example.repository.EventInMemoryStorage;
+import org.example.repository.InMemoryStorage;
+import org.example.repository.LongMap;
+import org.example.repository.StorageListener;
+import org.example.repository.TicketInMemoryStorage;
+import org.example.repository.UserInMemoryStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorageJournalTest {
+
+	private static final LocalDate DATE = LocalDate.of(2021, 10, 1);
+	private static final int WRITERS = 4;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replayRestoresStoragesTest() throws IOException {
+		var before = new Storages();
+		before.journal.open();
+		var event = before.events.save(new Event(0, "Concert", DATE));
+		var user = before.users.save(new User(0, "John", "john@mail.com"));
+		before.tickets.save(new Ticket(0, user.getId(), event.getId(), Ticket.Category.PREMIUM, 10));
+		var cancelled = before.tickets.save(new Ticket(0, user.getId(), event.getId(), null, 11));
+		before.tickets.delete(cancelled.getId());
+		before.users.update(new User(user.getId(), "", "johnny@mail.com"));
+		before.journal.close();
+
+		var after = new Storages();
+		after.journal.open();
+
+		assertTrue(after.ticketStorage.isRestored());
+		assertEquals(1, after.tickets.getData().size());
+		assertNull(after.tickets.getData().get(cancelled.getId()));
+		assertEquals(Ticket.Category.PREMIUM, after.tickets.getData().get(1L).getCategory());
+		assertEquals("johnny@mail.com", after.users.getData().get(user.getId()).getEmail());
+		assertEquals(DATE, after.events.getData().get(event.getId()).getDate());
+		assertEquals(3L, after.ticketStorage.getIndex());
+
+		after.tickets.save(new Ticket(0, user.getId(), event.getId(), Ticket.Category.BAR, 12));
+		after.journal.close();
+	}
+
+	@Test
+	void snapshotReplacesOlderSegmentsTest() throws IOException {
+		var before = new Storages();
+		before.journal.open();
+		var user = before.users.save(new User(0, "John", "john@mail.com"));
+		for (int place = 1; place <= 100; place++) {
+			before.tickets.save(new Ticket(0, user.getId(), 1, Ticket.Category.STANDARD, place));
+		}
+		assertTrue(before.journal.snapshot());
+		assertFalse(before.journal.snapshot());
+		before.tickets.delete(100L);
+		before.tickets.save(new Ticket(0, user.getId(), 1, Ticket.Category.BAR, 101));
+		before.journal.close();
+
+		try (var files = Files.list(directory)) {
+			assertEquals(List.of("segment-000000000001.log", "snapshot-000000000001.dat"),
+					files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList()));
+		}
+
+		var after = new Storages();
+		after.journal.open();
+
+		assertTrue(after.userStorage.isRestored());
+		assertEquals(100, after.tickets.getData().size());
+		assertNull(after.tickets.getData().get(100L));
+		assertEquals(Ticket.Category.BAR, after.tickets.getData().get(101L).getCategory());
+		assertEquals("john@mail.com", after.users.getData().get(user.getId()).getEmail());
+		assertEquals(102L, after.ticketStorage.getIndex());
+		assertEquals(2L, after.userStorage.getIndex());
+		after.journal.close();
+	}
+
+	@Test
+	void failedAppendLeavesStorageUnchangedTest() throws IOException {
+		var storages = new Storages();
+		storages.journal.open();
+		var event = storages.events.save(new Event(0, "Concert", DATE));
+		storages.journal.close();
+
+		assertThrows(IllegalStateException.class, () -> storages.events.save(new Event(0, "Opera", DATE)));
+		assertThrows(IllegalStateException.class, () -> storages.events.delete(event.getId()));
+		assertEquals(1, storages.events.getData().size());
+		assertEquals("Concert", storages.events.getData().get(event.getId()).getTitle());
+	}
+
+	@Test
+	void rejectedPutIsUndoneTest() throws IOException {
+		var before = new Storages();
+		before.journal.open();
+		before.eventStorage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Event event) {
+				if (event.getTitle().isEmpty()) {
+					throw new IllegalArgumentException("Event title must not be empty");
+				}
+			}
+
+			@Override
+			public void onRemove(long id, Event event) {
+			}
+		});
+		var event = before.events.save(new Event(0, "Concert", DATE));
+
+		assertThrows(IllegalArgumentException.class, () -> before.events.save(new Event(0, "", DATE)));
+		assertThrows(IllegalArgumentException.class,
+				() -> before.events.getData().put(event.getId(), new Event(event.getId(), "", DATE)));
+		assertEquals(1, before.events.getData().size());
+		assertEquals("Concert", before.events.getData().get(event.getId()).getTitle());
+		before.journal.close();
+
+		var after = new Storages();
+		after.journal.open();
+		assertEquals(1, after.events.getData().size());
+		assertEquals("Concert", after.events.getData().get(event.getId()).getTitle());
+		after.journal.close();
+	}
+
+	@Test
+	void snapshotDuringConcurrentChangesKeepsThemTest() throws Exception {
+		var before = new Storages();
+		before.journal.open();
+		var writing = new AtomicBoolean(true);
+		var executor = Executors.newFixedThreadPool(WRITERS);
+		try {
+			var writers = new ArrayList<Future<?>>();
+			for (int i = 0; i < WRITERS; i++) {
+				writers.add(executor.submit(() -> {
+					while (writing.get()) {
+						var event = before.events.save(new Event(0, "Concert", DATE));
+						if (event.getId() % 3 == 0) {
+							before.events.delete(event.getId());
+						} else if (event.getId() % 3 == 1) {
+							before.events.updateEvent(new Event(event.getId(), "Opera", null));
+						}
+					}
+				}));
+			}
+			for (int i = 0; i < 50; i++) {
+				before.journal.snapshot();
+			}
+			writing.set(false);
+			for (var writer : writers) {
+				writer.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		var expected = titles(before.events.getData());
+		before.journal.close();
+
+		var after = new Storages();
+		after.journal.open();
+		assertEquals(expected, titles(after.events.getData()));
+		after.journal.close();
+	}
+
+	@Test
+	void snapshotWaitsForChangeJournaledToReplacedSegmentTest() throws Exception {
+		var eventStorage = new PausingEventStorage(2L);
+		var before = new Storages(Durability.GROUP, eventStorage);
+		before.journal.open();
+		before.events.save(new Event(0, "Concert", DATE));
+		var executor = Executors.newFixedThreadPool(2);
+		try {
+			var write = executor.submit(() -> before.events.save(new Event(0, "Opera", DATE)));
+			assertTrue(eventStorage.paused.await(10, TimeUnit.SECONDS));
+			var snapshot = executor.submit(before.journal::snapshot);
+
+			assertThrows(TimeoutException.class, () -> snapshot.get(200, TimeUnit.MILLISECONDS));
+			eventStorage.resumed.countDown();
+			write.get(10, TimeUnit.SECONDS);
+			assertTrue(snapshot.get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdown();
+		}
+		before.journal.close();
+
+		var after = new Storages();
+		after.journal.open();
+		assertEquals(Map.of(1L, "Concert", 2L, "Opera"), titles(after.events.getData()));
+		after.journal.close();
+	}
+
+	@Test
+	void disabledJournalDoesNothingTest() throws IOException {
+		var storages = new Storages(Durability.NONE);
+		storages.journal.open();
+		storages.tickets.save(new Ticket(0, 1, 1, Ticket.Category.BAR, 1));
+		storages.journal.close();
+
+		var after = new Storages(Durability.NONE);
+		after.journal.open();
+		assertFalse(after.ticketStorage.isRestored());
+		assertTrue(after.tickets.getData().isEmpty());
+	}
+
+	private static Map<Long, String> titles(Map<Long, Event> events) {
+		return events.values().stream().collect(Collectors.toMap(Event::getId, Event::getTitle));
+	}
+
+	private class Storages {
+
+		private final InMemoryStorage<Event> eventStorage;
+		private final UserInMemoryStorage userStorage = new UserInMemoryStorage();
+		private final TicketInMemoryStorage ticketStorage = new TicketInMemoryStorage();
+		private final EventRepository events = new EventRepository();
+		private final UserRepository users = new UserRepository(userStorage, new EmailIndex(userStorage, false), new NameTrigramIndex(userStorage));
+		private final TicketRepository tickets = new TicketRepository();
+		private final StorageJournal journal;
+
+		private Storages() {
+			this(Durability.GROUP);
+		}
+
+		private Storages(Durability durability) {
+			this(durability, new EventInMemoryStorage());
+		}
+
+		private Storages(Durability durability, InMemoryStorage<Event> eventStorage) {
+			this.eventStorage = eventStorage;
+			events.setStorage(eventStorage);
+			tickets.setStorage(ticketStorage);
+			tickets.setSeatIndex(new SeatIndex(ticketStorage, true));
+			journal = new StorageJournal(durability, directory.toString(), 0, eventStorage, userStorage, ticketStorage);
+		}
+	}
+
+	/**
+	 * Event storage that holds the put of an event id after it is journaled and before it reaches the map.
+	 */
+	private static final class PausingEventStorage extends InMemoryStorage<Event> {
+
+		private final CountDownLatch paused = new CountDownLatch(1);
+		private final CountDownLatch resumed = new CountDownLatch(1);
+		private final long pausedId;
+		private final LongMap<Event> events = observe(new ConcurrentLongHashMap<>() {
+			@Override
+			public Event put(long key, Event event) {
+				if (key == pausedId && paused.getCount() > 0) {
+					paused.countDown();
+					try {
+						resumed.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.put(key, event);
+			}
+		});
+
+		private PausingEventStorage(long pausedId) {
+			this.pausedId = pausedId;
+		}
+
+		@Override
+		public Map<Long, Event> getData() {
+			return events;
+		}
+	}
+}
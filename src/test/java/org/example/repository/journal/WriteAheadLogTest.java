@@ -0,0 +1,91 @@
+package org.example.repository.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replayAfterCloseTest() throws IOException {
+		var file = directory.resolve("journal.log");
+		for (var durability : List.of(Durability.SYNC, Durability.GROUP, Durability.ASYNC)) {
+			try (var log = new WriteAheadLog(file, durability)) {
+				log.replay(record -> { });
+				log.append(ByteBuffer.allocate(Long.BYTES).putLong(durability.ordinal()).array());
+			}
+		}
+
+		var values = new ArrayList<Long>();
+		try (var log = new WriteAheadLog(file, Durability.SYNC)) {
+			assertEquals(3, log.replay(record -> values.add(record.readLong())));
+		}
+		assertEquals(List.of(3L, 2L, 1L), values);
+	}
+
+	@Test
+	void tornRecordIsCutOffTest() throws IOException {
+		var file = directory.resolve("journal.log");
+		try (var log = new WriteAheadLog(file, Durability.SYNC)) {
+			log.append(new byte[]{1});
+			log.append(new byte[]{2});
+		}
+		Files.write(file, new byte[]{0, 0, 0, 5, 1, 2}, StandardOpenOption.APPEND);
+		var intactSize = Files.size(file) - 6;
+
+		try (var log = new WriteAheadLog(file, Durability.SYNC)) {
+			assertEquals(2, log.replay(record -> { }));
+			log.append(new byte[]{3});
+		}
+		assertEquals(intactSize + 9, Files.size(file));
+
+		var values = new ArrayList<Byte>();
+		try (var log = new WriteAheadLog(file, Durability.SYNC)) {
+			log.replay(record -> values.add(record.readByte()));
+		}
+		assertEquals(List.of((byte) 1, (byte) 2, (byte) 3), values);
+	}
+
+	@Test
+	void concurrentGroupCommitTest() throws IOException, InterruptedException {
+		var file = directory.resolve("journal.log");
+		int threads = 4;
+		int recordsPerThread = 500;
+		try (var log = new WriteAheadLog(file, Durability.GROUP)) {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			for (int t = 0; t < threads; t++) {
+				long offset = (long) t * recordsPerThread;
+				executor.execute(() -> {
+					for (long value = offset; value < offset + recordsPerThread; value++) {
+						log.append(ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+					}
+				});
+			}
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		}
+
+		var values = new HashSet<Long>();
+		try (var log = new WriteAheadLog(file, Durability.GROUP)) {
+			log.replay(record -> values.add(record.readLong()));
+		}
+		assertEquals(threads * recordsPerThread, values.size());
+	}
+}
@@ -0,0 +1,224 @@
+package org.example.service.impl;
+
+import org.example.dao.TicketRepository;
+import org.example.dao.index.SeatIndex;
+import org.example.model.Ticket;
+import org.example.repository.StorageListener;
+import org.example.repository.TicketInMemoryStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationEngineBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReservationEngineBenchmarkTest.class);
+
+	private static final long HOT_EVENT_ID = 1L;
+	private static final int THREADS = 8;
+	private static final int SEATS = 5_000;
+	private static final int BENCHMARK_BOOKINGS_PER_THREAD = 200_000;
+
+	private TicketInMemoryStorage storage;
+	private ReservationEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		storage = new TicketInMemoryStorage();
+		var seatIndex = new SeatIndex(storage, true);
+		var repository = new TicketRepository();
+		repository.setStorage(storage);
+		repository.setSeatIndex(seatIndex);
+		engine = new ReservationEngine(seatIndex, repository, storage, 64);
+	}
+
+	@Test
+	void everySeatOfHotEventIsBookedOnce() throws Exception {
+		var bookings = new AtomicInteger();
+		var rejections = new AtomicInteger();
+
+		runConcurrently(THREADS, thread -> {
+			for (int place = 0; place < SEATS; place++) {
+				try {
+					engine.reserve(thread, HOT_EVENT_ID, Ticket.Category.STANDARD, place);
+					bookings.incrementAndGet();
+				} catch (IllegalStateException e) {
+					rejections.incrementAndGet();
+				}
+			}
+		});
+
+		var tickets = storage.getData().values();
+		assertEquals(SEATS, bookings.get());
+		assertEquals(SEATS * (THREADS - 1), rejections.get());
+		assertEquals(SEATS, tickets.size());
+		assertEquals(SEATS, tickets.stream().map(Ticket::getPlace).collect(Collectors.toSet()).size());
+		assertTrue(tickets.stream().allMatch(ticket -> storage.getData().get(ticket.getId()) == ticket));
+	}
+
+	@Test
+	void cancelledSeatIsBookedAgain() {
+		var ticket = engine.reserve(1L, HOT_EVENT_ID, Ticket.Category.BAR, 7);
+
+		storage.getData().remove(ticket.getId());
+		var rebooked = engine.reserve(2L, HOT_EVENT_ID, Ticket.Category.BAR, 7);
+
+		assertEquals(2L, rebooked.getUserId());
+		assertTrue(rebooked.getId() != ticket.getId());
+	}
+
+	@Test
+	void groupIsBookedAllOrNothing() {
+		engine.reserve(1L, HOT_EVENT_ID, Ticket.Category.PREMIUM, 12);
+
+		assertThrowsExactly(IllegalStateException.class,
+							() -> engine.reserveAll(2L, HOT_EVENT_ID, Ticket.Category.PREMIUM, List.of(14, 12, 10)),
+							"Place 12 is already booked");
+		assertEquals(1, storage.getData().size());
+
+		var group = engine.reserveAll(2L, HOT_EVENT_ID, Ticket.Category.PREMIUM, List.of(14, 13, 10));
+
+		assertEquals(List.of(14, 13, 10), group.stream().map(Ticket::getPlace).collect(Collectors.toList()));
+		assertEquals(4, storage.getData().size());
+		assertThrows(IllegalArgumentException.class,
+				() -> engine.reserveAll(2L, HOT_EVENT_ID, Ticket.Category.PREMIUM, List.of(20, 20)));
+		assertThrows(IllegalArgumentException.class,
+				() -> engine.reserveAll(2L, HOT_EVENT_ID, Ticket.Category.PREMIUM, List.of()));
+	}
+
+	@Test
+	void failedGroupIsRolledBack() {
+		storage.addListener(new StorageListener<>() {
+			@Override
+			public void onPut(long id, Ticket ticket) {
+				if (ticket.getPlace() == 13) {
+					throw new IllegalArgumentException("Place 13 is out of service");
+				}
+			}
+
+			@Override
+			public void onRemove(long id, Ticket ticket) {
+			}
+		});
+
+		assertThrowsExactly(IllegalArgumentException.class,
+							() -> engine.reserveAll(2L, HOT_EVENT_ID, Ticket.Category.PREMIUM, List.of(12, 13, 14)),
+							"Place 13 is out of service");
+		assertTrue(storage.getData().isEmpty());
+
+		var group = engine.reserveAll(3L, HOT_EVENT_ID, Ticket.Category.PREMIUM, List.of(12, 14));
+
+		assertEquals(2, group.size());
+		assertEquals(2, storage.getData().size());
+	}
+
+	@Test
+	void overlappingGroupsNeverSplitSeats() throws Exception {
+		var groups = new AtomicInteger();
+
+		runConcurrently(THREADS, thread -> {
+			for (int first = 0; first < SEATS; first += 5) {
+				var places = new ArrayList<Integer>();
+				for (int place = first + thread % 5; place < first + thread % 5 + 5; place++) {
+					places.add(place);
+				}
+				Collections.shuffle(places);
+				try {
+					engine.reserveAll(thread, HOT_EVENT_ID, Ticket.Category.STANDARD, places);
+					groups.incrementAndGet();
+				} catch (IllegalStateException e) {
+					// another group has taken one of the places
+				}
+			}
+		});
+
+		var tickets = storage.getData().values();
+		assertEquals(groups.get() * 5, tickets.size());
+		assertEquals(tickets.size(), tickets.stream().map(Ticket::getPlace).collect(Collectors.toSet()).size());
+		assertTrue(tickets.stream()
+				.collect(Collectors.groupingBy(Ticket::getUserId, Collectors.counting()))
+				.values().stream().allMatch(count -> count % 5 == 0));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void throughputScalesWithThreadCountOnHotEvent() throws Exception {
+		var cores = Runtime.getRuntime().availableProcessors();
+		double singleThreaded = 0;
+		double best = 0;
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			setUp();
+			var bookingsPerSecond = measureHotEventBookings(threads);
+			if (threads == 1) {
+				singleThreaded = bookingsPerSecond;
+			}
+			logger.info("{} thread(s): {} bookings/s, {}x of one thread", threads,
+					String.format("%,.0f", bookingsPerSecond), String.format("%.2f", bookingsPerSecond / singleThreaded));
+			best = Math.max(best, bookingsPerSecond);
+		}
+		if (cores > 1) {
+			assertTrue(best > singleThreaded, "Throughput did not grow with thread count");
+		}
+	}
+
+	/**
+	 * Books the seats of one event from all threads, every thread taking its own stride of places.
+	 */
+	private double measureHotEventBookings(int threads) throws Exception {
+		var start = System.nanoTime();
+		runConcurrently(threads, thread -> {
+			for (int i = 0; i < BENCHMARK_BOOKINGS_PER_THREAD; i++) {
+				engine.reserve(thread, HOT_EVENT_ID, Ticket.Category.STANDARD, i * threads + thread);
+			}
+		});
+		var seconds = (System.nanoTime() - start) / 1e9;
+		return threads * BENCHMARK_BOOKINGS_PER_THREAD / seconds;
+	}
+
+	private void runConcurrently(int threads, ThreadTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			var startGate = new CountDownLatch(1);
+			List<Future<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				var thread = i;
+				futures.add(executor.submit((Callable<Void>) () -> {
+					startGate.await();
+					task.run(thread);
+					return null;
+				}));
+			}
+			startGate.countDown();
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Task of a thread that knows its number.
+	 */
+	@FunctionalInterface
+	private interface ThreadTask {
+		void run(int thread);
+	}
+}